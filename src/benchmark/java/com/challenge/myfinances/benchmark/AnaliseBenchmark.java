@@ -0,0 +1,125 @@
+package com.challenge.myfinances.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import com.challenge.myfinances.MyfinancesApplication;
+import com.challenge.myfinances.model.entity.Lancamento;
+import com.challenge.myfinances.model.entity.Usuario;
+import com.challenge.myfinances.model.enumeration.Agrupamento;
+import com.challenge.myfinances.model.enumeration.TipoLancamento;
+import com.challenge.myfinances.model.repository.LancamentoRepository;
+import com.challenge.myfinances.model.repository.UsuarioRepository;
+import com.challenge.myfinances.model.repository.projection.LancamentoResumo;
+import com.challenge.myfinances.model.repository.projection.SaldoPeriodo;
+import com.challenge.myfinances.model.repository.specification.LancamentoSpecifications;
+import com.challenge.myfinances.model.service.AnaliseService;
+import com.challenge.myfinances.model.service.FiltroAnalise;
+import com.challenge.myfinances.model.service.LancamentoService;
+import com.challenge.myfinances.model.service.TotalAnalise;
+
+/*
+ * Motor de análise em memória (colunas já carregadas) contra as mesmas consultas
+ * no banco: totais por mês e os maiores lançamentos de despesa de um ano, sobre o
+ * H2 do profile de testes com "quantidade" lançamentos do usuário.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class AnaliseBenchmark {
+	
+	//mesmo limite aceito por requisição em POST /api/lancamentos/lote
+	private static final int TAMANHO_LOTE = 10_000;
+	private static final int ANO = 2019;
+	private static final int QUANTIDADE_MAIORES = 10;
+	
+	@Param({ "1000", "100000" })
+	private int quantidade;
+	
+	private ConfigurableApplicationContext contexto;
+	private AnaliseService service;
+	private LancamentoRepository repository;
+	private Long idUsuario;
+	private FiltroAnalise ano;
+	private FiltroAnalise despesasDoAno;
+	
+	@Setup
+	public void iniciar() {
+		contexto = new SpringApplicationBuilder(MyfinancesApplication.class)
+				.profiles("test")
+				.run("--server.port=0", "--logging.level.root=WARN", "--spring.main.banner-mode=off",
+						//sem reaproveitar o resultado de consultas repetidas, como um banco de verdade
+						"--spring.datasource.url=jdbc:h2:mem:db;DB_CLOSE_DELAY=-1;"
+						+ "INIT=CREATE SCHEMA IF NOT EXISTS financas;OPTIMIZE_REUSE_RESULTS=FALSE");
+	
+		service = contexto.getBean(AnaliseService.class);
+		repository = contexto.getBean(LancamentoRepository.class);
+		LancamentoService lancamentoService = contexto.getBean(LancamentoService.class);
+	
+		Usuario usuario = contexto.getBean(UsuarioRepository.class)
+				.save(Usuario.builder().nome("benchmark").email("benchmark@email.com").build());
+		idUsuario = usuario.getId();
+	
+		for(int inicio = 0; inicio < quantidade; inicio += TAMANHO_LOTE) {
+			List<Lancamento> lote = DadosBenchmark.criarLancamentos(usuario, Math.min(TAMANHO_LOTE, quantidade - inicio));
+			lote.forEach(lancamento -> lancamento.setId(null));
+			lancamentoService.salvarEmLote(lote);
+		}
+	
+		ano = FiltroAnalise.builder().anoInicial(ANO).anoFinal(ANO).build();
+		despesasDoAno = FiltroAnalise.builder().anoInicial(ANO).anoFinal(ANO).tipo(TipoLancamento.DESPESA).build();
+	
+		//a carga das colunas acontece uma vez por usuário, fora da medição
+		service.agrupar(idUsuario, ano, Agrupamento.MES, 0);
+	}
+	
+	@TearDown
+	public void encerrar() {
+		contexto.close();
+	}
+	
+	@Benchmark
+	public List<TotalAnalise> totaisMensaisEmMemoria() {
+		return service.agrupar(idUsuario, ano, Agrupamento.MES, 0).getValor();
+	}
+	
+	@Benchmark
+	public List<SaldoPeriodo> totaisMensaisNoBanco() {
+		return repository.obterSaldoMensal(idUsuario, ANO, ANO, ANO * 100 + 1, ANO * 100 + 12,
+				TipoLancamento.RECEITA, TipoLancamento.DESPESA);
+	}
+	
+	@Benchmark
+	public List<LancamentoResumo> maioresDespesasEmMemoria() {
+		return service.obterMaiores(idUsuario, despesasDoAno, QUANTIDADE_MAIORES, 0).getValor();
+	}
+	
+	@Benchmark
+	public List<Lancamento> maioresDespesasNoBanco() {
+		return repository.findAll(LancamentoSpecifications.doUsuario(idUsuario)
+					.and(LancamentoSpecifications.doAno(ANO))
+					.and(LancamentoSpecifications.doTipo(TipoLancamento.DESPESA)),
+				PageRequest.of(0, QUANTIDADE_MAIORES, Sort.by(Sort.Direction.DESC, "valor").and(Sort.by("id"))))
+				.getContent();
+	}
+}
@@ -0,0 +1,251 @@
+package com.challenge.myfinances.benchmark;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+
+import com.challenge.myfinances.MyfinancesApplication;
+
+/*
+ * Teste de carga HTTP: sobe a aplicação no H2 do profile de testes, popula com o
+ * profile gerador e dispara requisições reais contra os endpoints, com mix e
+ * concorrência configuráveis. Reporta vazão e percentis (HdrHistogram) por operação.
+ *
+ * mvn -Pbenchmark test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dstart-class=com.challenge.myfinances.benchmark.CargaHttpBenchmark \
+ *   -Dexec.args="--concorrencia=16 --duracao=30 --mix=buscar:40,saldo:30,criar:10,status:10,autenticar:10"
+ *
+ * Opções que começam com --spring. ou --myfinances. são repassadas à aplicação, para
+ * comparar configurações (ex.: --spring.datasource.hikari.maximum-pool-size=4,
+ * --myfinances.cache.usuario.tamanho-maximo=0, --myfinances.jdbc.batch-size=1).
+ * Com --taxa (requisições/s no total) os percentis são corrigidos para omissão coordenada.
+ */
+public class CargaHttpBenchmark {
+	
+	private static final long LATENCIA_MAXIMA_US = TimeUnit.MINUTES.toMicros(1);
+	
+	private final Map<String, String> opcoes;
+	private final HttpClient cliente = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_1_1)
+			.connectTimeout(Duration.ofSeconds(5))
+			.build();
+	
+	private String base;
+	private int usuarios;
+	private long lancamentos;
+	private int anoFinal;
+	
+	private final Map<String, Integer> mix = new LinkedHashMap<>();
+	private final Map<String, Histogram> latencias = new LinkedHashMap<>();
+	private final Map<String, LongAdder> erros = new LinkedHashMap<>();
+	
+	private CargaHttpBenchmark(Map<String, String> opcoes) {
+		this.opcoes = opcoes;
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> opcoes = new LinkedHashMap<>();
+		for(String arg : args) {
+			String[] chaveValor = arg.replaceFirst("^--", "").split("=", 2);
+			opcoes.put(chaveValor[0], chaveValor.length > 1 ? chaveValor[1] : "");
+		}
+		
+		new CargaHttpBenchmark(opcoes).executar();
+	}
+	
+	private void executar() throws Exception {
+		usuarios = Integer.parseInt(opcoes.getOrDefault("usuarios", "100"));
+		lancamentos = Long.parseLong(opcoes.getOrDefault("lancamentos", "100000"));
+		anoFinal = Integer.parseInt(opcoes.getOrDefault("ano-final", "2020"));
+		
+		for(String item : opcoes.getOrDefault("mix", "buscar:40,saldo:30,criar:10,status:10,autenticar:10").split(",")) {
+			String[] operacaoPeso = item.split(":");
+			mix.put(operacaoPeso[0], Integer.parseInt(operacaoPeso[1]));
+			latencias.put(operacaoPeso[0], new ConcurrentHistogram(LATENCIA_MAXIMA_US, 3));
+			erros.put(operacaoPeso[0], new LongAdder());
+		}
+		
+		List<String> argumentos = new ArrayList<>(List.of("--server.port=0", "--logging.level.root=WARN", 
+				"--spring.main.banner-mode=off",
+				"--myfinances.gerador.usuarios=" + usuarios, 
+				"--myfinances.gerador.lancamentos=" + lancamentos,
+				"--myfinances.gerador.ano-final=" + anoFinal));
+		opcoes.forEach((chave, valor) -> {
+			if(chave.startsWith("spring.") || chave.startsWith("myfinances."))
+				argumentos.add("--" + chave + "=" + valor);
+		});
+		
+		try(ServletWebServerApplicationContext contexto = (ServletWebServerApplicationContext) 
+				new SpringApplicationBuilder(MyfinancesApplication.class)
+					.profiles("test", "gerador")
+					.run(argumentos.toArray(new String[0]))) {
+			
+			base = "http://localhost:" + contexto.getWebServer().getPort();
+			
+			int concorrencia = Integer.parseInt(opcoes.getOrDefault("concorrencia", "8"));
+			long aquecimento = Long.parseLong(opcoes.getOrDefault("aquecimento", "10"));
+			long duracao = Long.parseLong(opcoes.getOrDefault("duracao", "30"));
+			double taxa = Double.parseDouble(opcoes.getOrDefault("taxa", "0"));
+			
+			System.out.println("Aquecimento: " + aquecimento + " s");
+			disparar(concorrencia, aquecimento, taxa);
+			latencias.values().forEach(Histogram::reset);
+			erros.values().forEach(LongAdder::reset);
+			
+			System.out.println("Medição: " + duracao + " s, " + concorrencia + " conexões"
+					+ (taxa > 0 ? ", " + taxa + " req/s" : ""));
+			disparar(concorrencia, duracao, taxa);
+			relatar(duracao);
+		}
+	}
+	
+	private void disparar(int concorrencia, long segundos, double taxa) throws InterruptedException {
+		long fim = System.nanoTime() + TimeUnit.SECONDS.toNanos(segundos);
+		
+		//intervalo esperado entre requisições de cada conexão (0 = sem controle de taxa)
+		long intervaloNs = taxa > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) * concorrencia / taxa) : 0;
+		int pesoTotal = mix.values().stream().mapToInt(Integer::intValue).sum();
+		
+		ExecutorService executor = Executors.newFixedThreadPool(concorrencia);
+		for(int i = 0; i < concorrencia; i++)
+			executor.submit(() -> {
+				long proxima = System.nanoTime();
+				
+				while(System.nanoTime() < fim) {
+					if(intervaloNs > 0) {
+						long espera = proxima - System.nanoTime();
+						if(espera > 0)
+							TimeUnit.NANOSECONDS.sleep(espera);
+						proxima += intervaloNs;
+					}
+					
+					String operacao = sortear(pesoTotal);
+					long inicio = System.nanoTime();
+					boolean sucesso = requisitar(operacao);
+					long latenciaUs = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - inicio);
+					
+					if(intervaloNs > 0)
+						latencias.get(operacao).recordValueWithExpectedInterval(
+								Math.min(latenciaUs, LATENCIA_MAXIMA_US), TimeUnit.NANOSECONDS.toMicros(intervaloNs));
+					else
+						latencias.get(operacao).recordValue(Math.min(latenciaUs, LATENCIA_MAXIMA_US));
+					
+					if(!sucesso)
+						erros.get(operacao).increment();
+				}
+				return null;
+			});
+		
+		executor.shutdown();
+		executor.awaitTermination(segundos + 60, TimeUnit.SECONDS);
+	}
+	
+	private String sortear(int pesoTotal) {
+		int sorteio = ThreadLocalRandom.current().nextInt(pesoTotal);
+		for(Map.Entry<String, Integer> operacao : mix.entrySet()) {
+			sorteio -= operacao.getValue();
+			if(sorteio < 0)
+				return operacao.getKey();
+		}
+		throw new IllegalStateException();
+	}
+	
+	private boolean requisitar(String operacao) {
+		ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+		long usuario = aleatorio.nextInt(usuarios) + 1;
+		HttpRequest.Builder requisicao;
+		
+		switch(operacao) {
+			case "buscar":
+				requisicao = HttpRequest.newBuilder(URI.create(base + "/api/lancamentos?usuario=" + usuario 
+						+ "&ano=" + (anoFinal - aleatorio.nextInt(2)) + "&mes=" + (aleatorio.nextInt(12) + 1) + "&tamanho=50"));
+				break;
+			case "criar":
+				requisicao = json(base + "/api/lancamentos", "POST", "{\"descricao\":\"Carga\",\"mes\":" 
+						+ (aleatorio.nextInt(12) + 1) + ",\"ano\":" + anoFinal + ",\"valor\":" 
+						+ (aleatorio.nextInt(100_000) + 1) / 100.0 + ",\"tipo\":\"DESPESA\",\"usuario\":" + usuario + "}");
+				break;
+			case "status":
+				requisicao = json(base + "/api/lancamentos/" + (aleatorio.nextLong(lancamentos) + 1) + "/atualizar-status", 
+						"PUT", "{\"status\":\"" + (aleatorio.nextBoolean() ? "EFETIVADO" : "PENDENTE") + "\"}");
+				break;
+			case "saldo":
+				requisicao = HttpRequest.newBuilder(URI.create(base + "/api/usuarios/" + usuario + "/saldo"));
+				break;
+			case "autenticar":
+				requisicao = json(base + "/api/usuarios/autenticar", "POST", 
+						"{\"email\":\"usuario" + usuario + "@exemplo.com\",\"senha\":\"senha\"}");
+				break;
+			default:
+				throw new IllegalArgumentException("Operação desconhecida: " + operacao);
+		}
+		
+		try {
+			HttpResponse<Void> resposta = cliente.send(requisicao.timeout(Duration.ofSeconds(30)).build(), 
+					HttpResponse.BodyHandlers.discarding());
+			return resposta.statusCode() < 400;
+		} catch (IOException e) {
+			return false;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+	
+	private static HttpRequest.Builder json(String url, String metodo, String corpo) {
+		return HttpRequest.newBuilder(URI.create(url))
+				.header("Content-Type", "application/json")
+				.method(metodo, HttpRequest.BodyPublishers.ofString(corpo));
+	}
+	
+	private void relatar(long duracao) throws IOException {
+		Path diretorio = Paths.get(opcoes.getOrDefault("saida", "target/carga"));
+		Files.createDirectories(diretorio);
+		
+		System.out.printf("%n%-12s %10s %8s %10s %9s %9s %9s %9s %9s%n", 
+				"operacao", "total", "erros", "req/s", "p50 ms", "p95 ms", "p99 ms", "p999 ms", "max ms");
+		
+		Histogram total = new Histogram(LATENCIA_MAXIMA_US, 3);
+		for(Map.Entry<String, Histogram> operacao : latencias.entrySet()) {
+			linha(operacao.getKey(), operacao.getValue(), erros.get(operacao.getKey()).sum(), duracao);
+			total.add(operacao.getValue());
+			
+			//distribuição completa no formato do HdrHistogram (.hgrm), em milissegundos
+			try(PrintStream arquivo = new PrintStream(diretorio.resolve(operacao.getKey() + ".hgrm").toFile())) {
+				operacao.getValue().outputPercentileDistribution(arquivo, 1000.0);
+			}
+		}
+		linha("total", total, erros.values().stream().mapToLong(LongAdder::sum).sum(), duracao);
+		
+		System.out.println("\nDistribuições em " + diretorio.toAbsolutePath());
+	}
+	
+	private static void linha(String nome, Histogram histograma, long erros, long duracao) {
+		System.out.printf("%-12s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", nome, 
+				histograma.getTotalCount(), erros, (double) histograma.getTotalCount() / duracao,
+				histograma.getValueAtPercentile(50) / 1000.0, histograma.getValueAtPercentile(95) / 1000.0,
+				histograma.getValueAtPercentile(99) / 1000.0, histograma.getValueAtPercentile(99.9) / 1000.0,
+				histograma.getMaxValue() / 1000.0);
+	}
+}
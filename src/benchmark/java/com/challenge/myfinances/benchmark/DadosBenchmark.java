@@ -0,0 +1,36 @@
+package com.challenge.myfinances.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.challenge.myfinances.model.entity.Dinheiro;
+import com.challenge.myfinances.model.entity.Lancamento;
+import com.challenge.myfinances.model.entity.Usuario;
+import com.challenge.myfinances.model.enumeration.TipoLancamento;
+import com.challenge.myfinances.model.repository.LancamentoRepositoryTest;
+
+/*
+ * Massa de dados comum aos benchmarks.
+ */
+final class DadosBenchmark {
+	
+	private DadosBenchmark() {
+	}
+	
+	static List<Lancamento> criarLancamentos(Usuario usuario, int quantidade) {
+		List<Lancamento> lancamentos = new ArrayList<>(quantidade);
+		
+		for(int i = 0; i < quantidade; i++) {
+			Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+			lancamento.setId(i + 1L);
+			lancamento.setMes(i % 12 + 1);
+			lancamento.setDescricao("Lancamento " + i);
+			lancamento.setValor(Dinheiro.deCentavos(i % 1000 + 1));
+			lancamento.setTipo(i % 3 == 0 ? TipoLancamento.DESPESA : TipoLancamento.RECEITA);
+			lancamento.setUsuario(usuario);
+			lancamentos.add(lancamento);
+		}
+		
+		return lancamentos;
+	}
+}
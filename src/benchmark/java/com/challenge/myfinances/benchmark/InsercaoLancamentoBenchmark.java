@@ -0,0 +1,79 @@
+package com.challenge.myfinances.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.challenge.myfinances.MyfinancesApplication;
+import com.challenge.myfinances.model.entity.Lancamento;
+import com.challenge.myfinances.model.entity.Usuario;
+import com.challenge.myfinances.model.repository.LancamentoRepositoryTest;
+import com.challenge.myfinances.model.repository.UsuarioRepository;
+import com.challenge.myfinances.model.service.LancamentoService;
+
+/*
+ * Compara a vazão (linhas/s) da inclusão linha a linha (salvar) com a inclusão
+ * em lote (salvarEmLote) sobre o H2 do profile de testes.
+ *
+ * mvn -Pbenchmark test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dstart-class=com.challenge.myfinances.benchmark.InsercaoLancamentoBenchmark -Dexec.args="20000"
+ */
+public class InsercaoLancamentoBenchmark {
+	
+	//mesmo limite aceito por requisição em POST /api/lancamentos/lote
+	private static final int TAMANHO_LOTE = 10_000;
+
+	public static void main(String[] args) {
+		int quantidade = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+		
+		try(ConfigurableApplicationContext contexto = new SpringApplicationBuilder(MyfinancesApplication.class)
+				.profiles("test")
+				.run("--server.port=0", "--logging.level.root=WARN", "--spring.main.banner-mode=off")) {
+			
+			LancamentoService service = contexto.getBean(LancamentoService.class);
+			Usuario usuario = contexto.getBean(UsuarioRepository.class)
+					.save(Usuario.builder().nome("benchmark").email("benchmark@email.com").build());
+			
+			//aquecimento
+			for(int i = 0; i < 2; i++) {
+				porLinha(service, usuario, quantidade / 10);
+				emLote(service, usuario, quantidade / 10);
+			}
+			
+			long inicio = System.nanoTime();
+			porLinha(service, usuario, quantidade);
+			relatar("salvar (por linha)", quantidade, System.nanoTime() - inicio);
+			
+			inicio = System.nanoTime();
+			emLote(service, usuario, quantidade);
+			relatar("salvarEmLote", quantidade, System.nanoTime() - inicio);
+		}
+	}
+	
+	private static void porLinha(LancamentoService service, Usuario usuario, int quantidade) {
+		criar(usuario, quantidade).forEach(service::salvar);
+	}
+	
+	private static void emLote(LancamentoService service, Usuario usuario, int quantidade) {
+		for(int restantes = quantidade; restantes > 0; restantes -= TAMANHO_LOTE)
+			service.salvarEmLote(criar(usuario, Math.min(restantes, TAMANHO_LOTE)));
+	}
+	
+	private static List<Lancamento> criar(Usuario usuario, int quantidade) {
+		List<Lancamento> lancamentos = new ArrayList<>(quantidade);
+		
+		for(int i = 0; i < quantidade; i++) {
+			Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+			lancamento.setUsuario(usuario);
+			lancamentos.add(lancamento);
+		}
+		return lancamentos;
+	}
+	
+	private static void relatar(String caminho, int quantidade, long nanos) {
+		System.out.printf("%-20s %8d linhas em %6d ms -> %,10.0f linhas/s%n", 
+				caminho, quantidade, nanos / 1_000_000, quantidade / (nanos / 1e9));
+	}
+}
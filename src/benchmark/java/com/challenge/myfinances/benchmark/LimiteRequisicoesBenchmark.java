@@ -0,0 +1,68 @@
+package com.challenge.myfinances.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.challenge.myfinances.api.config.LimitadorRequisicoes;
+
+/*
+ * Custo do limitador de requisições por chamada com 8 threads concorrentes. Com 1
+ * usuário todas disputam o mesmo balde (pior caso do CAS); com 10000, espalhadas pelo
+ * cache. A rajada sem limite prático mantém as requisições permitidas, o caminho que
+ * grava no balde, com a taxa padrão de myfinances.limite.requisicoes-por-segundo.
+ */
+@Fork(1)
+@Threads(8)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class LimiteRequisicoesBenchmark {
+	
+	private static final String ENDPOINT = "buscar";
+	
+	@Param({ "1", "10000" })
+	private int usuarios;
+	
+	private LimitadorRequisicoes limitador;
+	
+	//ids já em Long, como o atributo do usuário autenticado
+	private Long[] clientes;
+	
+	@Setup
+	public void iniciar() {
+		limitador = new LimitadorRequisicoes(20, Integer.MAX_VALUE, 100_000);
+		clientes = new Long[usuarios];
+		for(int i = 0; i < usuarios; i++)
+			clientes[i] = (long) i;
+	}
+	
+	@State(Scope.Thread)
+	public static class Sequencia {
+		
+		private int proximo;
+		
+		@Setup
+		public void iniciar() {
+			proximo = (int) (Thread.currentThread().getId() * 7919);
+		}
+	}
+	
+	@Benchmark
+	public long consumir(Sequencia sequencia) {
+		return limitador.consumir(clientes[(sequencia.proximo++ & Integer.MAX_VALUE) % usuarios], ENDPOINT);
+	}
+}
@@ -0,0 +1,70 @@
+package com.challenge.myfinances.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.challenge.myfinances.api.controller.LancamentoController;
+import com.challenge.myfinances.api.dto.LancamentoDTO;
+import com.challenge.myfinances.model.entity.Lancamento;
+import com.challenge.myfinances.model.entity.Usuario;
+import com.challenge.myfinances.model.repository.projection.LancamentoResumo;
+import com.challenge.myfinances.model.service.UsuarioService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/*
+ * Conversões DTO <-> entidade/projeção do LancamentoController. O UsuarioService
+ * é substituído por um stub, medindo apenas o mapeamento.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class MapeamentoBenchmark {
+	
+	private LancamentoController controller;
+	private Lancamento lancamento;
+	private LancamentoResumo resumo;
+	private LancamentoDTO dto;
+	
+	@Setup
+	public void iniciar() {
+		UsuarioService usuarioService = (UsuarioService) Proxy.newProxyInstance(
+				UsuarioService.class.getClassLoader(), new Class<?>[] { UsuarioService.class },
+				(proxy, metodo, args) -> Usuario.builder().id((Long) args[0]).build());
+		
+		controller = new LancamentoController(null, usuarioService, null, new ObjectMapper());
+		lancamento = DadosBenchmark.criarLancamentos(Usuario.builder().id(1L).build(), 1).get(0);
+		lancamento.setVersao(0L);
+		resumo = new LancamentoResumo(lancamento.getId(), lancamento.getDescricao(), lancamento.getMes(), 
+				lancamento.getAno(), lancamento.getValor(), lancamento.getTipo(), lancamento.getStatus(), 1L, null, null, 0L);
+		dto = controller.toModel(lancamento);
+	}
+	
+	@Benchmark
+	public Lancamento toEntity() {
+		return controller.toEntity(dto);
+	}
+	
+	@Benchmark
+	public LancamentoDTO toModelEntidade() {
+		return controller.toModel(lancamento);
+	}
+	
+	@Benchmark
+	public LancamentoDTO toModelResumo() {
+		return LancamentoController.toModel(resumo);
+	}
+}
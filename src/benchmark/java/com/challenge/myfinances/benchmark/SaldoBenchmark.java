@@ -0,0 +1,92 @@
+package com.challenge.myfinances.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.challenge.myfinances.MyfinancesApplication;
+import com.challenge.myfinances.model.entity.Dinheiro;
+import com.challenge.myfinances.model.entity.Lancamento;
+import com.challenge.myfinances.model.entity.Usuario;
+import com.challenge.myfinances.model.enumeration.StatusLancamento;
+import com.challenge.myfinances.model.enumeration.TipoLancamento;
+import com.challenge.myfinances.model.repository.LancamentoRepository;
+import com.challenge.myfinances.model.repository.UsuarioRepository;
+import com.challenge.myfinances.model.service.LancamentoService;
+
+/*
+ * obterSaldoPorUsuario (saldo materializado) contra a soma dos lançamentos efetivados,
+ * sobre o H2 do profile de testes com "quantidade" lançamentos do usuário.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class SaldoBenchmark {
+	
+	//mesmo limite aceito por requisição em POST /api/lancamentos/lote
+	private static final int TAMANHO_LOTE = 10_000;
+	
+	@Param({ "1000", "100000" })
+	private int quantidade;
+	
+	private ConfigurableApplicationContext contexto;
+	private LancamentoService service;
+	private LancamentoRepository repository;
+	private Long idUsuario;
+	
+	@Setup
+	public void iniciar() {
+		contexto = new SpringApplicationBuilder(MyfinancesApplication.class)
+				.profiles("test")
+				.run("--server.port=0", "--logging.level.root=WARN", "--spring.main.banner-mode=off");
+		
+		service = contexto.getBean(LancamentoService.class);
+		repository = contexto.getBean(LancamentoRepository.class);
+		
+		Usuario usuario = contexto.getBean(UsuarioRepository.class)
+				.save(Usuario.builder().nome("benchmark").email("benchmark@email.com").build());
+		idUsuario = usuario.getId();
+		
+		for(int inicio = 0; inicio < quantidade; inicio += TAMANHO_LOTE) {
+			List<Lancamento> lote = DadosBenchmark.criarLancamentos(usuario, Math.min(TAMANHO_LOTE, quantidade - inicio));
+			lote.forEach(lancamento -> lancamento.setId(null));
+			
+			List<Long> ids = service.salvarEmLote(lote).stream().map(Lancamento::getId).collect(Collectors.toList());
+			service.atualizarStatusEmLote(new Lancamento(), ids, StatusLancamento.EFETIVADO);
+		}
+	}
+	
+	@TearDown
+	public void encerrar() {
+		contexto.close();
+	}
+	
+	@Benchmark
+	public Dinheiro saldoMaterializado() {
+		return service.obterSaldoPorUsuario(idUsuario);
+	}
+	
+	@Benchmark
+	public Dinheiro saldoPorSoma() {
+		return repository.obterSaldoPorTipoLancamentoEUsuario(idUsuario, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO)
+				.subtrair(repository.obterSaldoPorTipoLancamentoEUsuario(idUsuario, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO));
+	}
+}
@@ -0,0 +1,66 @@
+package com.challenge.myfinances.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.challenge.myfinances.api.controller.LancamentoController;
+import com.challenge.myfinances.api.dto.LancamentoDTO;
+import com.challenge.myfinances.model.entity.Lancamento;
+import com.challenge.myfinances.model.entity.Usuario;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/*
+ * Serialização JSON de uma lista de entidades Lancamento (com o Usuario aninhado)
+ * comparada à mesma lista como LancamentoDTO.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class SerializacaoBenchmark {
+	
+	@Param({ "100", "1000" })
+	private int tamanho;
+	
+	//mesma configuração dos conversores do Spring MVC
+	private ObjectMapper objectMapper;
+	private List<Lancamento> entidades;
+	private List<LancamentoDTO> dtos;
+	
+	@Setup
+	public void iniciar() {
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		
+		Usuario usuario = Usuario.builder().id(1L).nome("usuario").email("usuario@email.com").senha("senha").build();
+		LancamentoController controller = new LancamentoController(null, null, null, objectMapper);
+		
+		entidades = DadosBenchmark.criarLancamentos(usuario, tamanho);
+		dtos = entidades.stream().map(controller::toModel).collect(Collectors.toList());
+	}
+	
+	@Benchmark
+	public byte[] entidades() throws Exception {
+		return objectMapper.writeValueAsBytes(entidades);
+	}
+	
+	@Benchmark
+	public byte[] dtos() throws Exception {
+		return objectMapper.writeValueAsBytes(dtos);
+	}
+}
@@ -0,0 +1,48 @@
+package com.challenge.myfinances.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.challenge.myfinances.model.entity.Lancamento;
+import com.challenge.myfinances.model.entity.Usuario;
+import com.challenge.myfinances.model.repository.LancamentoRepositoryTest;
+import com.challenge.myfinances.model.service.implementation.LancamentoServiceImpl;
+
+/*
+ * Custo de LancamentoServiceImpl.validar para um lançamento válido (caminho completo).
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class ValidacaoBenchmark {
+	
+	private LancamentoServiceImpl service;
+	private Lancamento lancamento;
+	
+	@Setup
+	public void iniciar() {
+		//validar não usa repositório, saldo nem eventos
+		service = new LancamentoServiceImpl(null, null, null, null, null);
+		lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(Usuario.builder().id(1L).build());
+	}
+	
+	@Benchmark
+	public Lancamento validar() {
+		service.validar(lancamento);
+		return lancamento;
+	}
+}
@@ -0,0 +1,244 @@
+package com.challenge.myfinances.api.command;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+import com.challenge.myfinances.model.entity.Dinheiro;
+import com.challenge.myfinances.model.entity.Lancamento;
+import com.challenge.myfinances.model.entity.Usuario;
+import com.challenge.myfinances.model.enumeration.StatusLancamento;
+import com.challenge.myfinances.model.enumeration.TipoLancamento;
+
+/*
+ * Gera usuários e lançamentos sintéticos de forma determinística: a mesma semente
+ * produz sempre os mesmos dados. Os lançamentos se concentram em poucos usuários e
+ * nos anos mais recentes; despesas são mais frequentes e menores que receitas.
+ *
+ * Também pode ser usado sem banco, gerando um arquivo SQL ou CSV:
+ * mvn compile exec:java -Dstart-class=com.challenge.myfinances.api.command.GeradorDados \
+ *   -Dexec.args="--usuarios=1000 --lancamentos=10000000 --formato=sql --saida=target/dados.sql"
+ */
+public class GeradorDados {
+	
+	private static final String[] DESPESAS = { "Aluguel", "Mercado", "Conta de luz", "Conta de água", 
+			"Internet", "Combustível", "Restaurante", "Farmácia", "Academia", "Cartão de crédito" };
+	private static final String[] RECEITAS = { "Salário", "Freelance", "Rendimentos", "Reembolso", "Venda" };
+	
+	//quantidade de anos gerados, terminando em anoFinal
+	private static final int ANOS = 5;
+	
+	//linhas por comando insert no arquivo SQL
+	private static final int LINHAS_POR_INSERT = 1_000;
+	
+	private final long semente;
+	private final int usuarios;
+	private final long lancamentos;
+	private final int anoFinal;
+	
+	public GeradorDados(long semente, int usuarios, long lancamentos, int anoFinal) {
+		if(usuarios < 1 || lancamentos < 0)
+			throw new IllegalArgumentException("Informe ao menos um usuário e uma quantidade de lançamentos válida");
+		
+		this.semente = semente;
+		this.usuarios = usuarios;
+		this.lancamentos = lancamentos;
+		this.anoFinal = anoFinal;
+	}
+	
+	public Usuario[] gerarUsuarios(long idInicial, Consumer<Usuario> consumidor) {
+		Usuario[] gerados = new Usuario[usuarios];
+		
+		for(int i = 0; i < usuarios; i++) {
+			long id = idInicial + i;
+			gerados[i] = Usuario.builder()
+					.id(id)
+					.nome("Usuario " + id)
+					.email("usuario" + id + "@exemplo.com")
+					.senha("senha")
+					.build();
+			consumidor.accept(gerados[i]);
+		}
+		
+		return gerados;
+	}
+	
+	public void gerarLancamentos(Usuario[] usuarios, long idInicial, Consumer<Lancamento> consumidor) {
+		SplittableRandom aleatorio = new SplittableRandom(semente);
+		
+		for(long i = 0; i < lancamentos; i++)
+			consumidor.accept(criarLancamento(aleatorio, idInicial + i, usuarios));
+	}
+	
+	private Lancamento criarLancamento(SplittableRandom aleatorio, long id, Usuario[] usuarios) {
+		//quadrado do sorteio concentra os lançamentos nos primeiros usuários
+		double sorteio = aleatorio.nextDouble();
+		Usuario usuario = usuarios[(int) (usuarios.length * sorteio * sorteio)];
+		
+		//distribuição geométrica: cada ano anterior tem menos lançamentos
+		int ano = anoFinal - Math.min(ANOS - 1, (int) (-Math.log(1 - aleatorio.nextDouble()) * 1.5));
+		int mes = aleatorio.nextInt(12) + 1;
+		
+		TipoLancamento tipo = aleatorio.nextDouble() < 0.3 ? TipoLancamento.RECEITA : TipoLancamento.DESPESA;
+		
+		//valores log-normais: despesas em torno de 80, receitas em torno de 2500
+		double valor = tipo == TipoLancamento.RECEITA 
+				? Math.exp(Math.log(2500) + 0.6 * gaussiano(aleatorio))
+				: Math.exp(Math.log(80) + 1.0 * gaussiano(aleatorio));
+		
+		//lançamentos do último ano ficam pendentes com mais frequência
+		double situacao = aleatorio.nextDouble();
+		StatusLancamento status = situacao < 0.05 ? StatusLancamento.CANCELADO
+				: situacao < (ano == anoFinal ? 0.45 : 0.10) ? StatusLancamento.PENDENTE 
+				: StatusLancamento.EFETIVADO;
+		
+		String[] descricoes = tipo == TipoLancamento.RECEITA ? RECEITAS : DESPESAS;
+		
+		return Lancamento.builder()
+				.id(id)
+				.descricao(descricoes[aleatorio.nextInt(descricoes.length)])
+				.ano(ano)
+				.mes(mes)
+				.valor(Dinheiro.deCentavos(Math.max(1, Math.round(valor * 100))))
+				.tipo(tipo)
+				.status(status)
+				.dataCadastro(LocalDate.of(ano, mes, aleatorio.nextInt(28) + 1))
+				.usuario(usuario)
+				.versao(0L)
+				.build();
+	}
+	
+	//Box-Muller
+	private static double gaussiano(SplittableRandom aleatorio) {
+		return Math.sqrt(-2 * Math.log(1 - aleatorio.nextDouble())) * Math.cos(2 * Math.PI * aleatorio.nextDouble());
+	}
+	
+	public static void main(String[] args) throws IOException {
+		Map<String, String> opcoes = new HashMap<>();
+		for(String arg : args) {
+			String[] chaveValor = arg.replaceFirst("^--", "").split("=", 2);
+			opcoes.put(chaveValor[0], chaveValor.length > 1 ? chaveValor[1] : "");
+		}
+		
+		if(!opcoes.containsKey("saida"))
+			throw new IllegalArgumentException("Informe --saida=<arquivo .sql ou diretório dos .csv>");
+		
+		GeradorDados gerador = new GeradorDados(
+				Long.parseLong(opcoes.getOrDefault("semente", "42")),
+				Integer.parseInt(opcoes.getOrDefault("usuarios", "100")),
+				Long.parseLong(opcoes.getOrDefault("lancamentos", "10000")),
+				Integer.parseInt(opcoes.getOrDefault("ano-final", String.valueOf(LocalDate.now().getYear()))));
+		
+		long inicio = System.currentTimeMillis();
+		Path saida = Paths.get(opcoes.get("saida"));
+		
+		if("csv".equals(opcoes.getOrDefault("formato", "sql")))
+			gerador.escreverCsv(saida);
+		else
+			gerador.escreverSql(saida);
+		
+		System.out.println(gerador.lancamentos + " lançamentos gerados em " + saida 
+				+ " (" + (System.currentTimeMillis() - inicio) + " ms)");
+	}
+	
+	/*
+	 * Arquivo SQL com inserts de várias linhas e o reinício das sequences após os ids gerados.
+	 */
+	public void escreverSql(Path arquivo) throws IOException {
+		try(Writer writer = criarWriter(arquivo)) {
+			InsertSql insertUsuario = new InsertSql(writer, "financas.usuario (id, nome, email, senha)");
+			Usuario[] gerados = gerarUsuarios(1, usuario -> insertUsuario.adicionar(
+					usuario.getId() + ", " + texto(usuario.getNome()) + ", " 
+					+ texto(usuario.getEmail()) + ", " + texto(usuario.getSenha())));
+			insertUsuario.finalizar();
+			
+			InsertSql insertLancamento = new InsertSql(writer, 
+					"financas.lancamento (id, descricao, mes, ano, valor, tipo, status, data_cadastro, id_usuario, versao)");
+			gerarLancamentos(gerados, 1, lancamento -> insertLancamento.adicionar(
+					lancamento.getId() + ", " + texto(lancamento.getDescricao()) + ", " + lancamento.getMes() + ", " 
+					+ lancamento.getAno() + ", " + lancamento.getValor().toString() + ", " 
+					+ texto(lancamento.getTipo().name()) + ", " + texto(lancamento.getStatus().name()) + ", " 
+					+ texto(lancamento.getDataCadastro().toString()) + ", " + lancamento.getUsuario().getId() + ", 0"));
+			insertLancamento.finalizar();
+			
+			writer.write("alter sequence financas.usuario_seq restart with " + (usuarios + 50) + ";\n");
+			writer.write("alter sequence financas.lancamento_seq restart with " + (lancamentos + 50) + ";\n");
+		}
+	}
+	
+	/*
+	 * usuario.csv e lancamento.csv no diretório informado, com cabeçalho (compatível com COPY ... CSV HEADER).
+	 */
+	public void escreverCsv(Path diretorio) throws IOException {
+		Files.createDirectories(diretorio);
+		
+		Usuario[] gerados;
+		try(Writer writer = criarWriter(diretorio.resolve("usuario.csv"))) {
+			writer.write("id,nome,email,senha\n");
+			gerados = gerarUsuarios(1, usuario -> escrever(writer, usuario.getId() + "," + usuario.getNome() 
+					+ "," + usuario.getEmail() + "," + usuario.getSenha() + "\n"));
+		}
+		
+		try(Writer writer = criarWriter(diretorio.resolve("lancamento.csv"))) {
+			writer.write("id,descricao,mes,ano,valor,tipo,status,data_cadastro,id_usuario,versao\n");
+			gerarLancamentos(gerados, 1, lancamento -> escrever(writer, lancamento.getId() + ",\"" 
+					+ lancamento.getDescricao() + "\"," + lancamento.getMes() + "," + lancamento.getAno() + "," 
+					+ lancamento.getValor().toString() + "," + lancamento.getTipo() + "," + lancamento.getStatus() + "," 
+					+ lancamento.getDataCadastro() + "," + lancamento.getUsuario().getId() + ",0\n"));
+		}
+	}
+	
+	private static Writer criarWriter(Path arquivo) throws IOException {
+		if(arquivo.getParent() != null)
+			Files.createDirectories(arquivo.getParent());
+		
+		return new BufferedWriter(Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8), 1 << 16);
+	}
+	
+	private static void escrever(Writer writer, String conteudo) {
+		try {
+			writer.write(conteudo);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	private static String texto(String valor) {
+		return "'" + valor.replace("'", "''") + "'";
+	}
+	
+	private static class InsertSql {
+		
+		private final Writer writer;
+		private final String tabela;
+		private int linhas;
+		
+		InsertSql(Writer writer, String tabela) {
+			this.writer = writer;
+			this.tabela = tabela;
+		}
+		
+		void adicionar(String valores) {
+			escrever(writer, (linhas == 0 ? "insert into " + tabela + " values\n(" : ",\n(") + valores + ")");
+			
+			if(++linhas == LINHAS_POR_INSERT)
+				finalizar();
+		}
+		
+		void finalizar() {
+			if(linhas > 0)
+				escrever(writer, ";\n");
+			linhas = 0;
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package com.challenge.myfinances.api.command;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.challenge.myfinances.model.entity.Usuario;
+import com.challenge.myfinances.model.service.SaldoService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Popula o banco com dados sintéticos (GeradorDados) na inicialização.
+ * Uso: --spring.profiles.active=test,gerador --myfinances.gerador.lancamentos=10000000
+ */
+@Slf4j
+@Component
+@Profile("gerador")
+@RequiredArgsConstructor
+public class GerarDadosCommand implements ApplicationRunner {
+	
+	private static final int TAMANHO_LOTE = 1_000;
+	private static final long INTERVALO_LOG = 1_000_000;
+	
+	private static final String INSERT_USUARIO = 
+			"insert into financas.usuario (id, nome, email, senha) values (?, ?, ?, ?)";
+	private static final String INSERT_LANCAMENTO = 
+			"insert into financas.lancamento (id, descricao, mes, ano, valor, tipo, status, data_cadastro, id_usuario, versao) "
+			+ "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+	
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final SaldoService saldoService;
+	
+	@Value("${myfinances.gerador.semente:42}")
+	private long semente;
+	
+	@Value("${myfinances.gerador.usuarios:100}")
+	private int usuarios;
+	
+	@Value("${myfinances.gerador.lancamentos:10000}")
+	private long lancamentos;
+	
+	@Value("${myfinances.gerador.ano-final:2020}")
+	private int anoFinal;
+
+	@Override
+	public void run(ApplicationArguments args) {
+		long inicio = System.currentTimeMillis();
+		GeradorDados gerador = new GeradorDados(semente, usuarios, lancamentos, anoFinal);
+		
+		//os ids continuam a partir dos já existentes
+		long idUsuario = maiorId("usuario") + 1;
+		long idLancamento = maiorId("lancamento") + 1;
+		
+		Lote loteUsuarios = new Lote(INSERT_USUARIO);
+		Usuario[] gerados = gerador.gerarUsuarios(idUsuario, usuario -> loteUsuarios.adicionar(
+				usuario.getId(), usuario.getNome(), usuario.getEmail(), usuario.getSenha()));
+		loteUsuarios.enviar();
+		
+		Lote loteLancamentos = new Lote(INSERT_LANCAMENTO);
+		gerador.gerarLancamentos(gerados, idLancamento, lancamento -> loteLancamentos.adicionar(
+				lancamento.getId(), lancamento.getDescricao(), lancamento.getMes(), lancamento.getAno(), 
+				lancamento.getValor().toBigDecimal(), lancamento.getTipo().name(), lancamento.getStatus().name(), 
+				Date.valueOf(lancamento.getDataCadastro()), lancamento.getUsuario().getId(), lancamento.getVersao()));
+		loteLancamentos.enviar();
+		
+		//ids gerados pelo Hibernate (pooled, allocationSize 50) começam após os inseridos
+		reiniciarSequence("usuario_seq", maiorId("usuario") + 50);
+		reiniciarSequence("lancamento_seq", maiorId("lancamento") + 50);
+		saldoService.recalcularTodos();
+		
+		log.info("{} usuários e {} lançamentos gerados em {} ms", usuarios, lancamentos, 
+				System.currentTimeMillis() - inicio);
+	}
+	
+	private long maiorId(String tabela) {
+		Long maior = jdbcTemplate.queryForObject("select max(id) from financas." + tabela, Long.class);
+		return maior == null ? 0 : maior;
+	}
+	
+	private void reiniciarSequence(String sequence, long valor) {
+		jdbcTemplate.execute("alter sequence financas." + sequence + " restart with " + valor);
+	}
+	
+	private class Lote {
+		
+		private final String sql;
+		private final List<Object[]> linhas = new ArrayList<>(TAMANHO_LOTE);
+		private long enviadas;
+		
+		Lote(String sql) {
+			this.sql = sql;
+		}
+		
+		void adicionar(Object... valores) {
+			linhas.add(valores);
+			if(linhas.size() == TAMANHO_LOTE)
+				enviar();
+		}
+		
+		void enviar() {
+			if(linhas.isEmpty())
+				return;
+			
+			//um commit por lote (em autocommit cada linha do lote seria um commit)
+			transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(sql, linhas));
+			
+			if((enviadas + linhas.size()) / INTERVALO_LOG > enviadas / INTERVALO_LOG)
+				log.info("{} linhas inseridas", enviadas + linhas.size());
+			
+			enviadas += linhas.size();
+			linhas.clear();
+		}
+	}
+
+}
@@ -0,0 +1,35 @@
+package com.challenge.myfinances.api.command;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import com.challenge.myfinances.model.service.SaldoService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Reconstrói o saldo materializado de todos os usuários a partir dos lançamentos.
+ * Uso: java -jar myfinances.jar --recalcular-saldos
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RecalcularSaldosCommand implements ApplicationRunner {
+	
+	static final String OPCAO = "recalcular-saldos";
+	
+	private final SaldoService saldoService;
+
+	@Override
+	public void run(ApplicationArguments args) {
+		if(!args.containsOption(OPCAO))
+			return;
+		
+		long inicio = System.currentTimeMillis();
+		saldoService.recalcularTodos();
+		log.info("Saldos recalculados em {} ms", System.currentTimeMillis() - inicio);
+	}
+
+}
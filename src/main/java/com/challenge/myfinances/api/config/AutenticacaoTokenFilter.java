@@ -0,0 +1,95 @@
+package com.challenge.myfinances.api.config;
+
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.challenge.myfinances.model.exception.ErroAutentificacaoException;
+import com.challenge.myfinances.model.service.TokenService;
+
+import lombok.RequiredArgsConstructor;
+
+/*
+ * Resolve o usuário da requisição a partir do header "Authorization: Bearer <token>"
+ * e o disponibiliza no atributo ATRIBUTO_USUARIO. Com myfinances.token.obrigatorio=true,
+ * lançamentos e saldos exigem token.
+ */
+@Component
+@RequiredArgsConstructor
+public class AutenticacaoTokenFilter extends OncePerRequestFilter {
+	
+	public static final String ATRIBUTO_USUARIO = "idUsuarioAutenticado";
+	
+	private static final String PREFIXO = "Bearer ";
+	private static final Pattern RECURSO_USUARIO = Pattern.compile("^/api/usuarios/(\\d+)(/.*)?$");
+	
+	private final TokenService tokenService;
+	
+	@Value("${myfinances.token.obrigatorio:false}")
+	private boolean obrigatorio;
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		String caminho = request.getRequestURI().substring(request.getContextPath().length());
+		String autorizacao = request.getHeader(HttpHeaders.AUTHORIZATION);
+		
+		if(autorizacao == null || !autorizacao.startsWith(PREFIXO)) {
+			if(obrigatorio && protegido(caminho)) {
+				responder(response, HttpStatus.UNAUTHORIZED, "Token não informado");
+				return;
+			}
+			
+			chain.doFilter(request, response);
+			return;
+		}
+		
+		Long idUsuario;
+		try {
+			idUsuario = tokenService.obterIdUsuario(autorizacao.substring(PREFIXO.length()));
+		}catch(ErroAutentificacaoException ex) {
+			responder(response, HttpStatus.UNAUTHORIZED, ex.getMessage());
+			return;
+		}
+		
+		if(!permitido(request, caminho, idUsuario)) {
+			responder(response, HttpStatus.FORBIDDEN, "Acesso negado para o usuário do token");
+			return;
+		}
+		
+		request.setAttribute(ATRIBUTO_USUARIO, idUsuario);
+		chain.doFilter(request, response);
+	}
+	
+	private boolean protegido(String caminho) {
+		return caminho.startsWith("/api/lancamentos") || RECURSO_USUARIO.matcher(caminho).matches();
+	}
+	
+	//o usuário informado na url, quando houver, deve ser o do token
+	private boolean permitido(HttpServletRequest request, String caminho, Long idUsuario) {
+		String usuario = request.getParameter("usuario");
+		if(usuario != null && !usuario.equals(idUsuario.toString()))
+			return false;
+		
+		Matcher recurso = RECURSO_USUARIO.matcher(caminho);
+		return !recurso.matches() || recurso.group(1).equals(idUsuario.toString());
+	}
+	
+	private void responder(HttpServletResponse response, HttpStatus status, String mensagem) throws IOException {
+		response.setStatus(status.value());
+		response.setContentType("text/plain;charset=UTF-8");
+		response.getWriter().write(mensagem);
+	}
+
+}
@@ -0,0 +1,52 @@
+package com.challenge.myfinances.api.config;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.NoOpQueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/*
+ * Envolve o DataSource em um proxy (datasource-proxy) que alimenta o ContadorConsultas.
+ * Conta tudo que passa pelo JDBC: Hibernate, JdbcTemplate e cursores.
+ */
+@Configuration
+@ConditionalOnProperty(name = "myfinances.consultas.contar", havingValue = "true", matchIfMissing = true)
+public class ConsultasDataSourceConfig {
+	
+	@Bean
+	public static BeanPostProcessor contadorConsultasDataSource() {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if(!(bean instanceof DataSource) || bean instanceof ProxyDataSource)
+					return bean;
+				
+				return ProxyDataSourceBuilder.create((DataSource) bean)
+						.name(beanName)
+						.listener(new NoOpQueryExecutionListener() {
+							@Override
+							public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+								ContadorConsultas.antesDaConsulta();
+							}
+							
+							@Override
+							public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+								ContadorConsultas.depoisDaConsulta();
+							}
+						})
+						.build();
+			}
+		};
+	}
+
+}
@@ -0,0 +1,51 @@
+package com.challenge.myfinances.api.config;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Conta as instruções SQL de cada requisição e registra em log as que passam do limite
+ * de quantidade ou de tempo (indício de N+1). O contador fica no atributo
+ * ContadorConsultas.ATRIBUTO da requisição.
+ */
+@Slf4j
+@Component
+public class ConsultasPorRequisicaoFilter extends OncePerRequestFilter {
+	
+	@Value("${myfinances.consultas.limite-quantidade:20}")
+	private int limiteQuantidade;
+	
+	@Value("${myfinances.consultas.limite-tempo-ms:500}")
+	private long limiteTempoMs;
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		ContadorConsultas contador = ContadorConsultas.iniciar();
+		request.setAttribute(ContadorConsultas.ATRIBUTO, contador);
+		
+		try {
+			chain.doFilter(request, response);
+		}finally {
+			ContadorConsultas.finalizar();
+			
+			if(contador.getQuantidade() > limiteQuantidade || contador.getTempoMs() > limiteTempoMs)
+				log.warn("{} {}: {} instruções SQL em {} ms", request.getMethod(), request.getRequestURI(), 
+						contador.getQuantidade(), contador.getTempoMs());
+			else
+				log.debug("{} {}: {} instruções SQL em {} ms", request.getMethod(), request.getRequestURI(), 
+						contador.getQuantidade(), contador.getTempoMs());
+		}
+	}
+
+}
@@ -0,0 +1,51 @@
+package com.challenge.myfinances.api.config;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Quantidade e tempo das instruções SQL executadas pela thread atual entre iniciar()
+ * e finalizar(). Alimentado pelo proxy do DataSource (ConsultasDataSourceConfig).
+ */
+public class ContadorConsultas {
+	
+	public static final String ATRIBUTO = "contadorConsultas";
+	
+	private static final ThreadLocal<ContadorConsultas> ATUAL = new ThreadLocal<>();
+	
+	private int quantidade;
+	private long tempoNanos;
+	private long inicioNanos;
+	
+	public static ContadorConsultas iniciar() {
+		ContadorConsultas contador = new ContadorConsultas();
+		ATUAL.set(contador);
+		return contador;
+	}
+	
+	public static void finalizar() {
+		ATUAL.remove();
+	}
+	
+	static void antesDaConsulta() {
+		ContadorConsultas contador = ATUAL.get();
+		if(contador != null)
+			contador.inicioNanos = System.nanoTime();
+	}
+	
+	static void depoisDaConsulta() {
+		ContadorConsultas contador = ATUAL.get();
+		if(contador != null) {
+			contador.quantidade++;
+			contador.tempoNanos += System.nanoTime() - contador.inicioNanos;
+		}
+	}
+	
+	public int getQuantidade() {
+		return quantidade;
+	}
+	
+	public long getTempoMs() {
+		return TimeUnit.NANOSECONDS.toMillis(tempoNanos);
+	}
+
+}
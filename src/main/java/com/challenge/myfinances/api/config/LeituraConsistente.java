@@ -0,0 +1,99 @@
+package com.challenge.myfinances.api.config;
+
+import java.time.Duration;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.challenge.myfinances.model.service.LancamentosAlteradosEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/*
+ * Leia o que escreveu: depois de uma gravação confirmada, as leituras do mesmo cliente
+ * vão para o primário durante myfinances.replica.janela-ms (atraso tolerado da réplica).
+ *
+ * A marca viaja com o cliente: a resposta da gravação leva o cookie ESCRITA_RECENTE com
+ * o instante do commit, e qualquer instância que o receba dentro da janela lê do primário.
+ * Para clientes sem cookies vale também a marca local pelo usuário do token, que só
+ * cobre leituras atendidas pela mesma instância. Parâmetros e urls nunca identificam o
+ * usuário aqui: são escolhidos por quem chama.
+ */
+@Component
+@ConditionalOnProperty("myfinances.replica.url")
+public class LeituraConsistente {
+	
+	static final String ESCRITA_RECENTE = "myfinances_escrita";
+	
+	private final long janelaMs;
+	private final Cache<Long, Boolean> escritasRecentes;
+	
+	public LeituraConsistente(@Value("${myfinances.replica.janela-ms:5000}") long janelaMs) {
+		this.janelaMs = janelaMs;
+		this.escritasRecentes = Caffeine.newBuilder()
+				.expireAfterWrite(Duration.ofMillis(janelaMs))
+				.maximumSize(100_000)
+				.build();
+	}
+	
+	@TransactionalEventListener(fallbackExecution = true)
+	public void registrarEscrita(LancamentosAlteradosEvent evento) {
+		evento.getUsuarios().forEach(usuario -> escritasRecentes.put(usuario, Boolean.TRUE));
+		
+		RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+		if(atributos instanceof ServletRequestAttributes) {
+			HttpServletResponse response = ((ServletRequestAttributes) atributos).getResponse();
+			if(response != null && !response.isCommitted())
+				response.addCookie(criarCookie(System.currentTimeMillis()));
+		}
+	}
+	
+	public boolean exigePrimario() {
+		RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+		if(!(atributos instanceof ServletRequestAttributes))
+			return false;
+		
+		HttpServletRequest request = ((ServletRequestAttributes) atributos).getRequest();
+		if(escritaRecenteDoCliente(request))
+			return true;
+		
+		Object usuario = request.getAttribute(AutenticacaoTokenFilter.ATRIBUTO_USUARIO);
+		return usuario instanceof Long && escritasRecentes.getIfPresent(usuario) != null;
+	}
+	
+	//um cookie forjado só manda as leituras do próprio cliente para o primário
+	private boolean escritaRecenteDoCliente(HttpServletRequest request) {
+		if(request.getCookies() == null)
+			return false;
+		
+		long agora = System.currentTimeMillis();
+		for(Cookie cookie : request.getCookies())
+			if(ESCRITA_RECENTE.equals(cookie.getName()))
+				try {
+					long decorrido = agora - Long.parseLong(cookie.getValue());
+					return decorrido >= 0 && decorrido < janelaMs;
+				}catch(NumberFormatException ex) {
+					return false;
+				}
+		
+		return false;
+	}
+	
+	private Cookie criarCookie(long instante) {
+		Cookie cookie = new Cookie(ESCRITA_RECENTE, String.valueOf(instante));
+		cookie.setPath("/");
+		cookie.setHttpOnly(true);
+		cookie.setMaxAge((int) Math.max(1, (janelaMs + 999) / 1000));
+		return cookie;
+	}
+
+}
@@ -0,0 +1,90 @@
+package com.challenge.myfinances.api.config;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.Value;
+
+/*
+ * Token bucket por (cliente, endpoint). Cada balde é um único AtomicLong com o instante
+ * teórico da próxima requisição (GCRA): estar "intervalo" à frente de agora equivale a
+ * um token consumido, então reabastecer é só o tempo passar e consumir é um CAS.
+ * 
+ * Os baldes ficam em um Cache do Caffeine limitado em quantidade de chaves (saem os
+ * menos usados). Um balde cujo instante já passou está cheio, igual a um novo: esses
+ * baldes parados são descartados por descartarCheios, agendado fora das requisições
+ * (WebConfig). Sem expiração por tempo no cache, que leria o relógio mais duas vezes
+ * por requisição.
+ */
+public final class LimitadorRequisicoes {
+	
+	private static final long NANOS_POR_SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+	
+	private final long intervalo;
+	private final long tolerancia;
+	private final Cache<Chave, AtomicLong> baldes;
+	
+	public LimitadorRequisicoes(double requisicoesPorSegundo, int rajada, long maximoChaves) {
+		if(requisicoesPorSegundo <= 0 || rajada < 1)
+			throw new IllegalArgumentException("Informe uma taxa positiva e uma rajada de ao menos 1 requisição");
+		
+		this.intervalo = Math.max(1, (long) (NANOS_POR_SEGUNDO / requisicoesPorSegundo));
+		this.tolerancia = intervalo * (rajada - 1);
+		
+		//a manutenção do cache roda na própria requisição: com poucos processadores o
+		//commonPool cria uma thread por tarefa
+		this.baldes = Caffeine.newBuilder()
+				.executor(Runnable::run)
+				.maximumSize(maximoChaves)
+				.build();
+	}
+	
+	/*
+	 * Consome um token do balde. Retorna 0 quando a requisição é permitida ou, sem
+	 * token disponível, quantos nanossegundos faltam para o próximo.
+	 */
+	public long consumir(Object cliente, Object endpoint) {
+		return consumir(cliente, endpoint, System.nanoTime());
+	}
+	
+	long consumir(Object cliente, Object endpoint, long agora) {
+		Chave chave = new Chave(cliente, endpoint);
+		AtomicLong balde = baldes.getIfPresent(chave);
+		
+		if(balde == null)
+			balde = baldes.get(chave, nova -> new AtomicLong(agora));
+		
+		while(true) {
+			long proxima = balde.get();
+			long atraso = Math.max(0, proxima - agora);
+			
+			if(atraso > tolerancia)
+				return atraso - tolerancia;
+			
+			if(balde.compareAndSet(proxima, agora + atraso + intervalo))
+				return 0;
+		}
+	}
+	
+	public void descartarCheios() {
+		descartarCheios(System.nanoTime());
+	}
+	
+	void descartarCheios(long agora) {
+		baldes.asMap().values().removeIf(balde -> balde.get() - agora <= 0);
+	}
+	
+	long chaves() {
+		baldes.cleanUp();
+		return baldes.estimatedSize();
+	}
+	
+	@Value
+	private static class Chave {
+		Object cliente;
+		Object endpoint;
+	}
+}
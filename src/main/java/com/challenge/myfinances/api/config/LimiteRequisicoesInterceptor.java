@@ -0,0 +1,50 @@
+package com.challenge.myfinances.api.config;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import lombok.RequiredArgsConstructor;
+
+/*
+ * Limita as requisições por cliente e por endpoint (método do controller). O cliente
+ * é o usuário do token, resolvido antes pelo AutenticacaoTokenFilter, ou o endereço
+ * de origem quando a requisição não tem token. Nunca um id escolhido por quem chama
+ * (parâmetro ou url): trocá-lo a cada requisição daria um balde novo, e usar o de
+ * outro usuário esgotaria o balde dele. Atrás de proxy, o endereço vem do
+ * X-Forwarded-For (server.use-forward-headers). Acima do limite responde 429 com
+ * Retry-After, sem chegar ao controller nem ao banco.
+ */
+@RequiredArgsConstructor
+public class LimiteRequisicoesInterceptor implements HandlerInterceptor {
+	
+	private final LimitadorRequisicoes limitador;
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+			throws Exception {
+		if(!(handler instanceof HandlerMethod))
+			return true;
+		
+		Object usuario = request.getAttribute(AutenticacaoTokenFilter.ATRIBUTO_USUARIO);
+		long espera = limitador.consumir(usuario != null ? usuario : request.getRemoteAddr(), 
+				((HandlerMethod) handler).getMethod());
+		
+		if(espera == 0)
+			return true;
+		
+		long segundos = Math.max(1, (espera + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+		response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+		response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(segundos));
+		response.setContentType("text/plain;charset=UTF-8");
+		response.getWriter().write("Limite de requisições excedido, tente novamente em " + segundos + " segundo(s)");
+		return false;
+	}
+
+}
@@ -0,0 +1,72 @@
+package com.challenge.myfinances.api.config;
+
+import java.util.function.ToDoubleFunction;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.boot.actuate.metrics.web.servlet.DefaultWebMvcTagsProvider;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTagsProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.HandlerMethod;
+
+import com.challenge.myfinances.model.service.UsuarioService;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/*
+ * Métricas expostas em /actuator/prometheus. Além do que o actuator já registra
+ * (http.server.requests, hikaricp.*, hibernate.*), identifica o método do controller
+ * em cada requisição e publica as estatísticas dos caches de usuário.
+ */
+@Configuration
+public class MetricasConfig {
+	
+	@Bean
+	public WebMvcTagsProvider webMvcTagsProvider() {
+		return new DefaultWebMvcTagsProvider() {
+			@Override
+			public Iterable<Tag> getTags(HttpServletRequest request, HttpServletResponse response, 
+					Object handler, Throwable exception) {
+				return Tags.of(super.getTags(request, response, handler, exception)).and(metodo(handler));
+			}
+		};
+	}
+	
+	@Bean
+	public MeterBinder metricasCacheUsuario(UsuarioService usuarioService) {
+		return registry -> usuarioService.obterEstatisticasCache().keySet().forEach(nome -> {
+			Tags tags = Tags.of("cache", "usuario." + nome);
+			
+			contador(registry, usuarioService, nome, "cache.gets", tags.and("result", "hit"), CacheStats::hitCount);
+			contador(registry, usuarioService, nome, "cache.gets", tags.and("result", "miss"), CacheStats::missCount);
+			contador(registry, usuarioService, nome, "cache.evictions", tags, CacheStats::evictionCount);
+			Gauge.builder("cache.hit.ratio", usuarioService, service -> service.obterEstatisticasCache().get(nome).hitRate())
+				.tags(tags)
+				.register(registry);
+		});
+	}
+	
+	private static void contador(MeterRegistry registry, UsuarioService usuarioService, 
+			String nome, String metrica, Tags tags, ToDoubleFunction<CacheStats> valor) {
+		FunctionCounter.builder(metrica, usuarioService, service -> valor.applyAsDouble(service.obterEstatisticasCache().get(nome)))
+			.tags(tags)
+			.register(registry);
+	}
+	
+	private static Tag metodo(Object handler) {
+		if(handler instanceof HandlerMethod) {
+			HandlerMethod metodo = (HandlerMethod) handler;
+			return Tag.of("handler", metodo.getBeanType().getSimpleName() + "." + metodo.getMethod().getName());
+		}
+		return Tag.of("handler", "none");
+	}
+
+}
@@ -0,0 +1,57 @@
+package com.challenge.myfinances.api.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import lombok.RequiredArgsConstructor;
+
+/*
+ * Tempo de cada método dos repositórios Spring Data (métrica myfinances.repositorio),
+ * com tags do repositório, método e exceção lançada.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class MetricasRepositorioAspect {
+	
+	public static final String METRICA = "myfinances.repositorio";
+	
+	private final MeterRegistry registry;
+	private final Map<Class<?>, String> repositorios = new ConcurrentHashMap<>();
+	
+	@Around("this(org.springframework.data.repository.Repository)")
+	public Object medir(ProceedingJoinPoint joinPoint) throws Throwable {
+		Timer.Sample amostra = Timer.start(registry);
+		String excecao = "none";
+		
+		try {
+			return joinPoint.proceed();
+		}catch(Throwable ex) {
+			excecao = ex.getClass().getSimpleName();
+			throw ex;
+		}finally {
+			amostra.stop(Timer.builder(METRICA)
+					.tag("repositorio", repositorios.computeIfAbsent(joinPoint.getThis().getClass(), this::nome))
+					.tag("metodo", joinPoint.getSignature().getName())
+					.tag("exception", excecao)
+					.register(registry));
+		}
+	}
+	
+	//o proxy implementa a interface declarada na aplicação (ex.: LancamentoRepository)
+	private String nome(Class<?> proxy) {
+		for(Class<?> interfaceProxy : proxy.getInterfaces())
+			if(interfaceProxy.getName().startsWith("com.challenge.myfinances"))
+				return interfaceProxy.getSimpleName();
+		return proxy.getSimpleName();
+	}
+
+}
@@ -0,0 +1,88 @@
+package com.challenge.myfinances.api.config;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import javax.sql.DataSource;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/*
+ * Com myfinances.replica.url configurada, o DataSource da aplicação passa a rotear as
+ * transações somente leitura para a réplica. Os dois pools são internos ao roteamento
+ * (um único DataSource no contexto) e configurados por spring.datasource.hikari.* e
+ * myfinances.replica.hikari.*. Sem a url vale o DataSource único do spring.datasource.
+ */
+@Configuration
+@ConditionalOnProperty("myfinances.replica.url")
+public class ReplicaDataSourceConfig {
+	
+	@Bean
+	public DataSource dataSource(DataSourceProperties properties, Environment environment,
+			LeituraConsistente leituraConsistente,
+			@Value("${myfinances.replica.url}") String url,
+			@Value("${myfinances.replica.username:${spring.datasource.username:}}") String username,
+			@Value("${myfinances.replica.password:${spring.datasource.password:}}") String password) {
+		HikariDataSource primario = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		configurar(primario, "primario", "spring.datasource.hikari", environment);
+		
+		HikariDataSource replica = DataSourceBuilder.create()
+				.type(HikariDataSource.class)
+				.driverClassName(properties.determineDriverClassName())
+				.url(url)
+				.username(username)
+				.password(password)
+				.build();
+		configurar(replica, "replica", "myfinances.replica.hikari", environment);
+		
+		return new RoteamentoDataSource(primario, replica, leituraConsistente);
+	}
+	
+	//a sessão do Hibernate (open-in-view) não pode segurar a conexão entre transações, senão
+	//a escrita seguinte a uma leitura usaria a conexão da réplica
+	@Bean
+	public HibernatePropertiesCustomizer liberarConexaoAposTransacao() {
+		return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING, 
+				PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+	}
+	
+	//os pools não são beans, então as métricas hikaricp.* são ligadas aqui
+	@Bean
+	public MeterBinder metricasPoolsReplica(DataSource dataSource) {
+		return registry -> {
+			RoteamentoDataSource roteamento = unwrap(dataSource);
+			for(DataSource pool : Arrays.asList(roteamento.getPrimario(), roteamento.getReplica()))
+				((HikariDataSource) pool).setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+		};
+	}
+	
+	private static RoteamentoDataSource unwrap(DataSource dataSource) {
+		try {
+			return dataSource.unwrap(RoteamentoDataSource.class);
+		}catch(SQLException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+	
+	private static void configurar(HikariDataSource pool, String nome, String prefixo, Environment environment) {
+		Binder.get(environment).bind(prefixo, Bindable.ofInstance(pool));
+		pool.setPoolName(nome);
+	}
+
+}
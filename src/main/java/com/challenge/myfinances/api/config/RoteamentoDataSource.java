@@ -0,0 +1,80 @@
+package com.challenge.myfinances.api.config;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Transações somente leitura usam a réplica; o resto, o primário. Se a réplica não
+ * entregar conexão, a leitura cai para o primário. A conexão física só é obtida na
+ * primeira instrução (LazyConnectionDataSourceProxy), quando a transação já está marcada.
+ */
+@Slf4j
+public class RoteamentoDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+	
+	private final DataSource primario;
+	private final DataSource replica;
+	private final LeituraConsistente leituraConsistente;
+	
+	public RoteamentoDataSource(DataSource primario, DataSource replica, LeituraConsistente leituraConsistente) {
+		this.primario = primario;
+		this.replica = replica;
+		this.leituraConsistente = leituraConsistente;
+		
+		setTargetDataSource(new AbstractDataSource() {
+			@Override
+			public Connection getConnection() throws SQLException {
+				return obterConexao();
+			}
+			
+			@Override
+			public Connection getConnection(String username, String password) throws SQLException {
+				return usarReplica() ? replica.getConnection(username, password) : primario.getConnection(username, password);
+			}
+		});
+		afterPropertiesSet();
+	}
+	
+	public DataSource getPrimario() {
+		return primario;
+	}
+	
+	public DataSource getReplica() {
+		return replica;
+	}
+	
+	@Override
+	public void close() throws IOException {
+		if(primario instanceof Closeable)
+			((Closeable) primario).close();
+		if(replica instanceof Closeable)
+			((Closeable) replica).close();
+	}
+	
+	private Connection obterConexao() throws SQLException {
+		if(!usarReplica())
+			return primario.getConnection();
+		
+		try {
+			return replica.getConnection();
+		}catch(SQLException ex) {
+			log.warn("Réplica indisponível, leitura feita no primário: {}", ex.getMessage());
+			return primario.getConnection();
+		}
+	}
+	
+	private boolean usarReplica() {
+		return TransactionSynchronizationManager.isCurrentTransactionReadOnly() 
+				&& !leituraConsistente.exigePrimario();
+	}
+
+}
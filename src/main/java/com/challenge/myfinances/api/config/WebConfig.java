@@ -1,14 +1,66 @@
 package com.challenge.myfinances.api.config;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @EnableWebMvc
+@EnableScheduling
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 	
+	//exportações longas são respostas assíncronas (StreamingResponseBody)
+	@Value("${myfinances.exportacao.timeout-ms:600000}")
+	private long exportacaoTimeout;
+	
+	//limite por usuário e endpoint; requisicoes-por-segundo=0 desliga
+	@Value("${myfinances.limite.requisicoes-por-segundo:20}")
+	private double requisicoesPorSegundo;
+	
+	@Value("${myfinances.limite.rajada:40}")
+	private int rajada;
+	
+	@Value("${myfinances.limite.maximo-chaves:100000}")
+	private long maximoChaves;
+	
+	private final ObjectProvider<LimitadorRequisicoes> limitador;
+	
+	public WebConfig(ObjectProvider<LimitadorRequisicoes> limitador) {
+		this.limitador = limitador;
+	}
+	
+	@Bean
+	@ConditionalOnExpression("${myfinances.limite.requisicoes-por-segundo:20} > 0")
+	public LimitadorRequisicoes limitadorRequisicoes() {
+		return new LimitadorRequisicoes(requisicoesPorSegundo, rajada, maximoChaves);
+	}
+	
+	@Override
+	public void addInterceptors( InterceptorRegistry registry ) {
+		limitador.ifAvailable(instancia -> registry.addInterceptor(new LimiteRequisicoesInterceptor(instancia))
+				.addPathPatterns("/api/lancamentos/**", "/api/usuarios/**"));
+	}
+	
+	//baldes parados saem em segundo plano, sem varrer o cache dentro de uma requisição
+	@Scheduled(fixedDelayString = "${myfinances.limite.limpeza-ms:10000}")
+	public void descartarBaldesCheios() {
+		limitador.ifAvailable(LimitadorRequisicoes::descartarCheios);
+	}
+	
+	@Override
+	public void configureAsyncSupport( AsyncSupportConfigurer configurer ) {
+		configurer.setDefaultTimeout(exportacaoTimeout);
+	}
+	
 	@Override
 	public void addCorsMappings( CorsRegistry registry ) {
 		registry.addMapping("/**").allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS");
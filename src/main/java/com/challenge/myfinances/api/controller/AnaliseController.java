@@ -0,0 +1,147 @@
+package com.challenge.myfinances.api.controller;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.challenge.myfinances.api.dto.TotalAnaliseDTO;
+import com.challenge.myfinances.model.entity.Dinheiro;
+import com.challenge.myfinances.model.enumeration.Agrupamento;
+import com.challenge.myfinances.model.enumeration.StatusLancamento;
+import com.challenge.myfinances.model.enumeration.TipoLancamento;
+import com.challenge.myfinances.model.exception.BusinessRuleException;
+import com.challenge.myfinances.model.repository.projection.LancamentoResumo;
+import com.challenge.myfinances.model.service.AnaliseService;
+import com.challenge.myfinances.model.service.FiltroAnalise;
+import com.challenge.myfinances.model.service.ResultadoAnalise;
+import com.challenge.myfinances.model.service.TotalAnalise;
+import com.challenge.myfinances.model.service.VersaoUsuarioService;
+
+import lombok.RequiredArgsConstructor;
+
+/*
+ * Consultas analíticas sobre os lançamentos do usuário, respondidas pelo motor
+ * em memória (AnaliseService) em vez de agregações no banco. A versão do banco só
+ * decide o 304; a resposta leva a versão das colunas que a calcularam, que pode ser
+ * mais antiga, mas nunca mais nova que o conteúdo.
+ */
+@RestController
+@RequestMapping("/api/usuarios/{id}/analise")
+@RequiredArgsConstructor
+public class AnaliseController {
+	
+	private final AnaliseService service;
+	private final VersaoUsuarioService versaoService;
+	
+	@GetMapping("/totais")
+	public ResponseEntity agrupar(@PathVariable Long id,
+			@RequestParam(value = "agrupamento", defaultValue = "MES") String agrupamento,
+			@RequestParam(value = "anoInicial", required = false) Integer anoInicial,
+			@RequestParam(value = "anoFinal", required = false) Integer anoFinal,
+			@RequestParam(value = "mes", required = false) Integer mes,
+			@RequestParam(value = "tipo", required = false) String tipo,
+			@RequestParam(value = "status", required = false) String status,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		long versao = versaoService.obterVersao(id);
+		String etag = RespostaCondicional.etag(id, versao, agrupamento, anoInicial, anoFinal, mes, tipo, status);
+		if(RespostaCondicional.naoModificado(ifNoneMatch, etag))
+			return RespostaCondicional.naoModificado(etag);
+		
+		try {
+			ResultadoAnalise<List<TotalAnalise>> totais = service.agrupar(id, 
+					toFiltro(anoInicial, anoFinal, mes, tipo, status), converter(Agrupamento.class, agrupamento, "agrupamento"), versao);
+			return RespostaCondicional.ok(
+					RespostaCondicional.etag(id, totais.getVersao(), agrupamento, anoInicial, anoFinal, mes, tipo, status),
+					totais.getValor().stream().map(this::toModel).collect(Collectors.toList()));
+		}catch(BusinessRuleException ex) {
+			return ResponseEntity.badRequest().body(ex.getMessage());
+		}
+	}
+	
+	@GetMapping("/maiores")
+	public ResponseEntity obterMaiores(@PathVariable Long id,
+			@RequestParam(value = "quantidade", required = false) Integer quantidade,
+			@RequestParam(value = "anoInicial", required = false) Integer anoInicial,
+			@RequestParam(value = "anoFinal", required = false) Integer anoFinal,
+			@RequestParam(value = "mes", required = false) Integer mes,
+			@RequestParam(value = "tipo", defaultValue = "DESPESA") String tipo,
+			@RequestParam(value = "status", required = false) String status,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		long versao = versaoService.obterVersao(id);
+		String etag = RespostaCondicional.etag(id, versao, quantidade, anoInicial, anoFinal, mes, tipo, status);
+		if(RespostaCondicional.naoModificado(ifNoneMatch, etag))
+			return RespostaCondicional.naoModificado(etag);
+		
+		try {
+			ResultadoAnalise<List<LancamentoResumo>> maiores = service.obterMaiores(id, 
+					toFiltro(anoInicial, anoFinal, mes, tipo, status), quantidade, versao);
+			return RespostaCondicional.ok(
+					RespostaCondicional.etag(id, maiores.getVersao(), quantidade, anoInicial, anoFinal, mes, tipo, status),
+					maiores.getValor().stream().map(LancamentoController::toModel).collect(Collectors.toList()));
+		}catch(BusinessRuleException ex) {
+			return ResponseEntity.badRequest().body(ex.getMessage());
+		}
+	}
+	
+	//sem tipo devolve o saldo (receitas - despesas) dos lançamentos selecionados
+	@GetMapping("/soma")
+	public ResponseEntity somar(@PathVariable Long id,
+			@RequestParam(value = "anoInicial", required = false) Integer anoInicial,
+			@RequestParam(value = "anoFinal", required = false) Integer anoFinal,
+			@RequestParam(value = "mes", required = false) Integer mes,
+			@RequestParam(value = "tipo", required = false) String tipo,
+			@RequestParam(value = "status", required = false) String status,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		long versao = versaoService.obterVersao(id);
+		String etag = RespostaCondicional.etag(id, versao, anoInicial, anoFinal, mes, tipo, status);
+		if(RespostaCondicional.naoModificado(ifNoneMatch, etag))
+			return RespostaCondicional.naoModificado(etag);
+		
+		try {
+			ResultadoAnalise<Dinheiro> soma = service.somar(id, toFiltro(anoInicial, anoFinal, mes, tipo, status), versao);
+			return RespostaCondicional.ok(
+					RespostaCondicional.etag(id, soma.getVersao(), anoInicial, anoFinal, mes, tipo, status), soma.getValor());
+		}catch(BusinessRuleException ex) {
+			return ResponseEntity.badRequest().body(ex.getMessage());
+		}
+	}
+	
+	private FiltroAnalise toFiltro(Integer anoInicial, Integer anoFinal, Integer mes, String tipo, String status) {
+		return FiltroAnalise.builder()
+				.anoInicial(anoInicial)
+				.anoFinal(anoFinal)
+				.mes(mes)
+				.tipo(tipo == null ? null : converter(TipoLancamento.class, tipo, "tipo"))
+				.status(status == null ? null : converter(StatusLancamento.class, status, "status"))
+				.build();
+	}
+	
+	private static <E extends Enum<E>> E converter(Class<E> tipo, String valor, String nome) {
+		try {
+			return Enum.valueOf(tipo, valor);
+		}catch(IllegalArgumentException ex) {
+			throw new BusinessRuleException("Informe um " + nome + " válido");
+		}
+	}
+	
+	private TotalAnaliseDTO toModel(TotalAnalise total) {
+		return TotalAnaliseDTO.builder()
+				.ano(total.getAno())
+				.mes(total.getMes())
+				.tipo(total.getTipo() == null ? null : total.getTipo().name())
+				.status(total.getStatus() == null ? null : total.getStatus().name())
+				.receitas(total.getReceitas())
+				.despesas(total.getDespesas())
+				.saldo(total.getReceitas().subtrair(total.getDespesas()))
+				.quantidade(total.getQuantidade())
+				.build();
+	}
+}
@@ -1,27 +1,55 @@
 package com.challenge.myfinances.api.controller;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.challenge.myfinances.api.config.AutenticacaoTokenFilter;
 import com.challenge.myfinances.api.dto.AtualizaStatusDTO;
+import com.challenge.myfinances.api.dto.AtualizaStatusLoteDTO;
 import com.challenge.myfinances.api.dto.LancamentoDTO;
+import com.challenge.myfinances.api.dto.PaginaDTO;
+import com.challenge.myfinances.api.dto.ResultadoAtualizacaoDTO;
+import com.challenge.myfinances.api.dto.SerieLancamentoDTO;
 import com.challenge.myfinances.model.entity.Lancamento;
+import com.challenge.myfinances.model.entity.Usuario;
+import com.challenge.myfinances.model.enumeration.ResultadoAtualizacao;
 import com.challenge.myfinances.model.enumeration.StatusLancamento;
 import com.challenge.myfinances.model.enumeration.TipoLancamento;
+import com.challenge.myfinances.model.enumeration.TipoSerie;
 import com.challenge.myfinances.model.exception.BusinessRuleException;
+import com.challenge.myfinances.model.exception.ConflitoVersaoException;
+import com.challenge.myfinances.model.repository.CursorLancamento;
+import com.challenge.myfinances.model.repository.projection.LancamentoResumo;
 import com.challenge.myfinances.model.service.LancamentoService;
 import com.challenge.myfinances.model.service.UsuarioService;
+import com.challenge.myfinances.model.service.VersaoUsuarioService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.RequiredArgsConstructor;
 
@@ -32,11 +60,18 @@ public class LancamentoController {
 	
 	private final LancamentoService service;
 	private final UsuarioService usuarioService;
+	private final VersaoUsuarioService versaoService;
+	private final ObjectMapper objectMapper;
 	
 	@GetMapping("/{id}")
-	public ResponseEntity get(@PathVariable Long id) {
+	public ResponseEntity get(@PathVariable Long id,
+			@RequestAttribute(name = AutenticacaoTokenFilter.ATRIBUTO_USUARIO, required = false) Long idUsuarioAutenticado) {
 		try {
-			return ResponseEntity.ok(toModel(service.obterPorId(id)));
+			LancamentoResumo lancamento = service.obterResumoPorId(id);
+			if(outroUsuario(lancamento.getIdUsuario(), idUsuarioAutenticado))
+				return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+			
+			return ResponseEntity.ok(toModel(lancamento));
 		}catch(BusinessRuleException ex) {
 			return ResponseEntity.badRequest().body(ex.getMessage());
 		}
@@ -50,7 +85,10 @@ public class LancamentoController {
 			@RequestParam(value = "descricao", required = false) String descricao,
 			@RequestParam(value = "mes", required = false) Integer mes,
 			@RequestParam(value = "ano", required = false) Integer ano,
-			@RequestParam(value = "tipo", required = false) String tipo
+			@RequestParam(value = "tipo", required = false) String tipo,
+			@RequestParam(value = "cursor", required = false) String cursor,
+			@RequestParam(value = "tamanho", required = false) Integer tamanho,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
 			) {
 		
 		try {
@@ -67,45 +105,161 @@ public class LancamentoController {
 			filtro.setTipo(tipo);			
 
 			Lancamento entity = toEntity(filtro);	
-			List<Lancamento> lancamentos = service.buscar(entity);
-			return ResponseEntity.ok(lancamentos);
+			
+			//versão lida antes da busca: uma gravação concorrente no máximo gera um ETag desatualizado
+			String etag = RespostaCondicional.etag(idUsuario, versaoService.obterVersao(idUsuario), 
+					descricao, mes, ano, tipo, cursor, tamanho);
+			if(RespostaCondicional.naoModificado(ifNoneMatch, etag))
+				return RespostaCondicional.naoModificado(etag);
+			
+			//sem cursor e sem tamanho mantém a resposta completa em lista
+			if(cursor == null && tamanho == null) {
+				List<LancamentoResumo> lancamentos = service.buscarResumos(entity);
+				return RespostaCondicional.ok(etag, lancamentos.stream().map(LancamentoController::toModel).collect(Collectors.toList()));
+			}
+			
+			Slice<LancamentoResumo> pagina = service.buscarPagina(entity, 
+					cursor != null ? CursorLancamento.decodificar(cursor) : null, tamanho);
+			return RespostaCondicional.ok(etag, toModel(pagina));
 			
 		} catch(BusinessRuleException ex) {
 			return ResponseEntity.badRequest().body(ex.getMessage());
 		}
 	}
 	
+	@GetMapping("/exportar")
+	public ResponseEntity<StreamingResponseBody> exportar(
+			@RequestParam(value = "usuario", required = true) Long idUsuario,
+			@RequestParam(value = "formato", defaultValue = "ndjson") String formato) {
+		
+		try {
+			usuarioService.obterReferencia(idUsuario);
+			
+			if(!formato.equals("ndjson") && !formato.equals("csv"))
+				throw new BusinessRuleException("Formato inválido, utilize ndjson ou csv");
+			
+		}catch(BusinessRuleException ex) {
+			return ResponseEntity.badRequest()
+					.body(saida -> saida.write(ex.getMessage().getBytes(StandardCharsets.UTF_8)));
+		}
+		
+		boolean csv = formato.equals("csv");
+		
+		//as linhas são escritas na resposta conforme são lidas do banco
+		StreamingResponseBody corpo = saida -> {
+			Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+			
+			if(csv)
+				writer.write("id,descricao,mes,ano,valor,tipo,status,usuario\n");
+			
+			service.exportar(idUsuario, lancamento -> {
+				try {
+					writer.write(csv ? toCsv(toModel(lancamento)) : objectMapper.writeValueAsString(toModel(lancamento)));
+					writer.write('\n');
+				}catch(IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+			});
+			
+			writer.flush();
+		};
+		
+		return ResponseEntity.ok()
+				.contentType(csv ? MediaType.parseMediaType("text/csv") : MediaType.parseMediaType("application/x-ndjson"))
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=lancamentos-" + idUsuario + "." + formato)
+				.body(corpo);
+	}
+	
 	@PostMapping
-	public ResponseEntity salvar(@RequestBody LancamentoDTO dto) {
+	public ResponseEntity salvar(@RequestBody LancamentoDTO dto,
+			@RequestAttribute(name = AutenticacaoTokenFilter.ATRIBUTO_USUARIO, required = false) Long idUsuarioAutenticado) {
+		if(!atribuirUsuario(dto, idUsuarioAutenticado))
+			return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+		
 		try {
 			Lancamento entidade = toEntity(dto);
 			entidade = service.salvar(entidade);
-			return new ResponseEntity<>(entidade, HttpStatus.CREATED);
+			return new ResponseEntity<>(toModel(entidade), HttpStatus.CREATED);
 		}catch(BusinessRuleException ex) {
 			return ResponseEntity.badRequest().body(ex.getMessage());
 		}
 	}
 	
 	
+	@PostMapping("/lote")
+	public ResponseEntity salvarEmLote(@RequestBody List<LancamentoDTO> dtos,
+			@RequestAttribute(name = AutenticacaoTokenFilter.ATRIBUTO_USUARIO, required = false) Long idUsuarioAutenticado) {
+		if(!dtos.stream().allMatch(dto -> atribuirUsuario(dto, idUsuarioAutenticado)))
+			return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+		
+		try {
+			List<Lancamento> lancamentos = dtos.stream().map(this::toEntity).collect(Collectors.toList());
+			lancamentos = service.salvarEmLote(lancamentos);
+			
+			List<LancamentoDTO> salvos = lancamentos.stream().map(this::toModel).collect(Collectors.toList());
+			return new ResponseEntity<>(salvos, HttpStatus.CREATED);
+		}catch(BusinessRuleException ex) {
+			return ResponseEntity.badRequest().body(ex.getMessage());
+		}
+	}
+	
+	@PostMapping("/serie")
+	public ResponseEntity salvarSerie(@RequestBody SerieLancamentoDTO dto,
+			@RequestAttribute(name = AutenticacaoTokenFilter.ATRIBUTO_USUARIO, required = false) Long idUsuarioAutenticado) {
+		LancamentoDTO modeloDto = LancamentoDTO.builder()
+				.descricao(dto.getDescricao())
+				.ano(dto.getAno())
+				.mes(dto.getMes())
+				.valor(dto.getValor())
+				.tipo(dto.getTipo())
+				.usuario(dto.getUsuario())
+				.build();
+		
+		if(!atribuirUsuario(modeloDto, idUsuarioAutenticado))
+			return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+		
+		try {
+			Lancamento modelo = toEntity(modeloDto);
+			
+			List<Lancamento> ocorrencias = service.salvarSerie(modelo, dto.getQuantidade(), 
+					converterTipoSerie(dto.getTipoSerie()));
+			
+			List<LancamentoDTO> salvos = ocorrencias.stream().map(this::toModel).collect(Collectors.toList());
+			return new ResponseEntity<>(salvos, HttpStatus.CREATED);
+		}catch(BusinessRuleException ex) {
+			return ResponseEntity.badRequest().body(ex.getMessage());
+		}
+	}
+	
 	@PutMapping("/{id}")
-	public ResponseEntity atualizar(@PathVariable Long id, @RequestBody LancamentoDTO dto) {
+	public ResponseEntity atualizar(@PathVariable Long id, @RequestBody LancamentoDTO dto,
+			@RequestAttribute(name = AutenticacaoTokenFilter.ATRIBUTO_USUARIO, required = false) Long idUsuarioAutenticado) {
 		try {
-			service.obterPorId(id);
+			Lancamento atual = service.obterPorId(id);
+			if(outroUsuario(atual.getUsuario().getId(), idUsuarioAutenticado) || !atribuirUsuario(dto, idUsuarioAutenticado))
+				return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+			
 			Lancamento atualizado = toEntity(dto);
 			atualizado.setId(id); 
-			return ResponseEntity.ok(service.atualizar(atualizado));	
+			return ResponseEntity.ok(toModel(service.atualizar(atualizado)));	
 		}catch(BusinessRuleException ex) {
 			return ResponseEntity.badRequest().body(ex.getMessage());
+		}catch(OptimisticLockingFailureException ex) {
+			return ResponseEntity.status(HttpStatus.CONFLICT)
+					.body("Lançamento alterado por outra operação, recarregue e tente novamente");
 		}
 	}
 	
 	@PutMapping("/{id}/atualizar-status")
 	public ResponseEntity atualizarStatusLancamento(@PathVariable Long id, 
-			@RequestBody AtualizaStatusDTO dto) {
+			@RequestBody AtualizaStatusDTO dto,
+			@RequestAttribute(name = AutenticacaoTokenFilter.ATRIBUTO_USUARIO, required = false) Long idUsuarioAutenticado) {
 		
 		try {
-			Lancamento lancamento = service.obterPorId(id);
-	
+			//sem token não há dono a conferir, e a atualização dispensa a leitura extra
+			if(idUsuarioAutenticado != null && outroUsuario(service.obterResumoPorId(id).getIdUsuario(), idUsuarioAutenticado))
+				return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+			
 			if(!dto.getStatus().equals(StatusLancamento.EFETIVADO.name()) 
 					&& !dto.getStatus().equals(StatusLancamento.CANCELADO.name())
 					&& !dto.getStatus().equals(StatusLancamento.PENDENTE.name())) {
@@ -116,18 +270,72 @@ public class LancamentoController {
 			
 			StatusLancamento status = StatusLancamento.valueOf(dto.getStatus());
 			
-			service.atualizarStatus(lancamento, status);
-			return ResponseEntity.ok(service.obterPorId(id));
+			return ResponseEntity.ok(toModel(service.atualizarStatus(id, dto.getVersao(), status)));
 		} 
 		catch (BusinessRuleException | NullPointerException ex) {
 			return ResponseEntity.badRequest().body(ex.getMessage());
 		}
+		catch (ConflitoVersaoException ex) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+		}
+	}
+	
+	@PutMapping("/atualizar-status")
+	public ResponseEntity atualizarStatusEmLote(@RequestBody AtualizaStatusLoteDTO dto,
+			@RequestAttribute(name = AutenticacaoTokenFilter.ATRIBUTO_USUARIO, required = false) Long idUsuarioAutenticado) {
+		
+		//com token, apenas lançamentos do próprio usuário são alterados
+		if(idUsuarioAutenticado != null) {
+			if(dto.getUsuario() != null && !dto.getUsuario().equals(idUsuarioAutenticado))
+				return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+			
+			dto.setUsuario(idUsuarioAutenticado);
+		}
+		
+		try {
+			Lancamento filtro = Lancamento.builder()
+					.ano(dto.getAno())
+					.mes(dto.getMes())
+					.status(dto.getStatusAtual() == null ? null : converterStatus(dto.getStatusAtual()))
+					.serie(dto.getSerie())
+					.usuario(dto.getUsuario() == null ? null : Usuario.builder().id(dto.getUsuario()).build())
+					.build();
+			
+			Map<Long, ResultadoAtualizacao> resultados = service
+					.atualizarStatusEmLote(filtro, dto.getIds(), converterStatus(dto.getStatus()));
+			
+			return ResponseEntity.ok(resultados.entrySet().stream()
+					.map(resultado -> new ResultadoAtualizacaoDTO(resultado.getKey(), resultado.getValue().name()))
+					.collect(Collectors.toList()));
+		}catch(BusinessRuleException ex) {
+			return ResponseEntity.badRequest().body(ex.getMessage());
+		}
 	}
 	
 	@DeleteMapping("/{id}")
-	public ResponseEntity deletar(@PathVariable Long id) {
+	public ResponseEntity deletar(@PathVariable Long id,
+			@RequestAttribute(name = AutenticacaoTokenFilter.ATRIBUTO_USUARIO, required = false) Long idUsuarioAutenticado) {
 		try {
-			service.deletar(service.obterPorId(id));
+			Lancamento lancamento = service.obterPorId(id);
+			if(outroUsuario(lancamento.getUsuario().getId(), idUsuarioAutenticado))
+				return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+			
+			service.deletar(lancamento);
+			return ResponseEntity.noContent().build();
+		}catch(BusinessRuleException ex) {
+			return ResponseEntity.badRequest().body(ex.getMessage());
+		}
+	}
+	
+	//exige token: só as ocorrências do próprio usuário são excluídas
+	@DeleteMapping("/serie/{serie}")
+	public ResponseEntity deletarSerie(@PathVariable Long serie,
+			@RequestAttribute(name = AutenticacaoTokenFilter.ATRIBUTO_USUARIO, required = false) Long idUsuarioAutenticado) {
+		if(idUsuarioAutenticado == null)
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Token não informado");
+		
+		try {
+			service.deletarSerie(serie, idUsuarioAutenticado);
 			return ResponseEntity.noContent().build();
 		}catch(BusinessRuleException ex) {
 			return ResponseEntity.badRequest().body(ex.getMessage());
@@ -144,9 +352,87 @@ public class LancamentoController {
 				.status(entity.getStatus().name())
 				.tipo(entity.getTipo().name())
 				.usuario(entity.getUsuario().getId())
+				.serie(entity.getSerie())
+				.parcela(entity.getParcela())
+				.versao(entity.getVersao())
 				.build();		
 	}
 	
+	//com token, apenas lançamentos do próprio usuário são lidos ou alterados
+	private static boolean outroUsuario(Long idUsuario, Long idUsuarioAutenticado) {
+		return idUsuarioAutenticado != null && !idUsuarioAutenticado.equals(idUsuario);
+	}
+	
+	//com token, o usuário do corpo deve ser o do token; sem usuário no corpo, vale o do token
+	private static boolean atribuirUsuario(LancamentoDTO dto, Long idUsuarioAutenticado) {
+		if(idUsuarioAutenticado == null)
+			return true;
+		
+		if(dto.getUsuario() == null)
+			dto.setUsuario(idUsuarioAutenticado);
+		
+		return dto.getUsuario().equals(idUsuarioAutenticado);
+	}
+	
+	private StatusLancamento converterStatus(String status) {
+		try {
+			return StatusLancamento.valueOf(status);
+		}catch(IllegalArgumentException | NullPointerException ex) {
+			throw new BusinessRuleException("Não foi possivel atualizar o status do lançamento,"
+					+ " envie um status válido");
+		}
+	}
+	
+	private TipoSerie converterTipoSerie(String tipoSerie) {
+		try {
+			return TipoSerie.valueOf(tipoSerie);
+		}catch(IllegalArgumentException | NullPointerException ex) {
+			throw new BusinessRuleException("Informe um tipo de série válido");
+		}
+	}
+	
+	private String toCsv(LancamentoDTO dto) {
+		String descricao = dto.getDescricao() == null ? "" : dto.getDescricao().replace("\"", "\"\"");
+		
+		return String.join(",", 
+				String.valueOf(dto.getId()),
+				"\"" + descricao + "\"",
+				String.valueOf(dto.getMes()),
+				String.valueOf(dto.getAno()),
+				dto.getValor().toString(),
+				dto.getTipo(),
+				dto.getStatus(),
+				String.valueOf(dto.getUsuario()));
+	}
+	
+	//estático para ser o único mapeamento do resumo, também usado pelo AnaliseController
+	public static LancamentoDTO toModel(LancamentoResumo resumo) {
+		return LancamentoDTO.builder()
+				.id(resumo.getId())
+				.descricao(resumo.getDescricao())
+				.ano(resumo.getAno())
+				.mes(resumo.getMes())
+				.valor(resumo.getValor())
+				.status(resumo.getStatus().name())
+				.tipo(resumo.getTipo().name())
+				.usuario(resumo.getIdUsuario())
+				.serie(resumo.getSerie())
+				.parcela(resumo.getParcela())
+				.versao(resumo.getVersao())
+				.build();
+	}
+	
+	public PaginaDTO<LancamentoDTO> toModel(Slice<LancamentoResumo> pagina) {
+		List<LancamentoResumo> lancamentos = pagina.getContent();
+		String proximoCursor = pagina.hasNext() 
+				? CursorLancamento.de(lancamentos.get(lancamentos.size() - 1)).codificar() : null;
+		
+		return PaginaDTO.<LancamentoDTO>builder()
+				.itens(lancamentos.stream().map(LancamentoController::toModel).collect(Collectors.toList()))
+				.proximoCursor(proximoCursor)
+				.build();
+	}
+	
 	public Lancamento toEntity(LancamentoDTO dto) {
 	
 		Lancamento lancamento = new Lancamento();
@@ -155,9 +441,10 @@ public class LancamentoController {
 		lancamento.setAno(dto.getAno());
 		lancamento.setMes(dto.getMes());
 		lancamento.setValor(dto.getValor());
+		lancamento.setVersao(dto.getVersao());
 		
 		if(dto.getUsuario() != null)
-			lancamento.setUsuario(usuarioService.obterPorId(dto.getUsuario()));
+			lancamento.setUsuario(usuarioService.obterReferencia(dto.getUsuario()));
 		
 		if(dto.getTipo() != null)
 			lancamento.setTipo(TipoLancamento.valueOf(dto.getTipo()));
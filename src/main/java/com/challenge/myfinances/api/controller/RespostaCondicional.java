@@ -0,0 +1,52 @@
+package com.challenge.myfinances.api.controller;
+
+import java.util.Arrays;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/*
+ * GET condicional pelas versões dos dados do usuário: o ETag é a versão e um
+ * If-None-Match igual responde 304 sem executar a consulta. Consultas com
+ * parâmetros somam ao ETag um hash dos parâmetros já convertidos, para que
+ * filtros, páginas e tamanhos diferentes não compartilhem a mesma versão.
+ */
+final class RespostaCondicional {
+	
+	private RespostaCondicional() {
+	}
+	
+	static String etag(Long idUsuario, long versao, Object... consulta) {
+		if(consulta.length == 0)
+			return "\"" + idUsuario + "-" + versao + "\"";
+		
+		return "\"" + idUsuario + "-" + versao + "-" + Integer.toHexString(Arrays.hashCode(consulta)) + "\"";
+	}
+	
+	//comparação fraca, como pede o If-None-Match: ignora o prefixo W/ das versões guardadas pelo cliente
+	static boolean naoModificado(String ifNoneMatch, String etag) {
+		if(ifNoneMatch == null)
+			return false;
+		
+		return Arrays.stream(ifNoneMatch.split(","))
+				.map(String::trim)
+				.map(valor -> valor.startsWith("W/") ? valor.substring(2) : valor)
+				.anyMatch(valor -> valor.equals("*") || valor.equals(etag));
+	}
+	
+	static ResponseEntity naoModificado(String etag) {
+		return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+				.eTag(etag)
+				.cacheControl(CacheControl.noCache())
+				.build();
+	}
+	
+	//no-cache: o cliente pode guardar a resposta, mas revalida a cada uso
+	static ResponseEntity ok(String etag, Object corpo) {
+		return ResponseEntity.ok()
+				.eTag(etag)
+				.cacheControl(CacheControl.noCache())
+				.body(corpo);
+	}
+}
@@ -1,8 +1,11 @@
 package com.challenge.myfinances.api.controller;
 
-import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -10,17 +13,31 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.challenge.myfinances.api.dto.EstatisticasCacheDTO;
+import com.challenge.myfinances.api.dto.FechamentoDTO;
+import com.challenge.myfinances.api.dto.SaldoPeriodoDTO;
+import com.challenge.myfinances.api.dto.UsuarioAutenticadoDTO;
 import com.challenge.myfinances.api.dto.UsuarioDTO;
 import com.challenge.myfinances.api.dto.UsuarioLoginDTO;
+import com.challenge.myfinances.model.entity.Dinheiro;
+import com.challenge.myfinances.model.entity.Fechamento;
 import com.challenge.myfinances.model.entity.Usuario;
 import com.challenge.myfinances.model.exception.BusinessRuleException;
 import com.challenge.myfinances.model.exception.ErroAutentificacaoException;
 import com.challenge.myfinances.model.repository.UsuarioRepository;
+import com.challenge.myfinances.model.repository.projection.SaldoPeriodo;
+import com.challenge.myfinances.model.service.FechamentoService;
 import com.challenge.myfinances.model.service.LancamentoService;
+import com.challenge.myfinances.model.service.SaldoService;
+import com.challenge.myfinances.model.service.TokenAcesso;
+import com.challenge.myfinances.model.service.TokenService;
 import com.challenge.myfinances.model.service.UsuarioService;
+import com.challenge.myfinances.model.service.VersaoUsuarioService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -31,6 +48,10 @@ public class UsuarioController {
 	
 	private final UsuarioService service;
 	private final LancamentoService lancamentoService;
+	private final SaldoService saldoService;
+	private final FechamentoService fechamentoService;
+	private final VersaoUsuarioService versaoService;
+	private final TokenService tokenService;
 	private final UsuarioRepository repository;
 	
 	@PostMapping
@@ -55,7 +76,15 @@ public class UsuarioController {
 
 		try {
 			Usuario usuarioAutenticado = service.autenticar(dto.getEmail(), dto.getSenha());
-			return ResponseEntity.ok(usuarioAutenticado);
+			TokenAcesso token = tokenService.gerar(usuarioAutenticado.getId());
+			
+			return ResponseEntity.ok(UsuarioAutenticadoDTO.builder()
+					.id(usuarioAutenticado.getId())
+					.nome(usuarioAutenticado.getNome())
+					.email(usuarioAutenticado.getEmail())
+					.token(token.getToken())
+					.expiraEm(token.getExpiraEm())
+					.build());
 		}
 		catch(ErroAutentificacaoException ex) {
 			return ResponseEntity.badRequest().body(ex.getMessage());
@@ -63,23 +92,126 @@ public class UsuarioController {
 	}
 	
 	@GetMapping("/{id}/saldo")
-	public ResponseEntity obterSaldo(@PathVariable Long id) {
+	public ResponseEntity obterSaldo(@PathVariable Long id,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 		try {
-			service.obterPorId(id);
+			service.obterReferencia(id);
 		}catch(BusinessRuleException ex) {
 			return ResponseEntity.notFound().build();
 		}
 		
-		BigDecimal saldo = lancamentoService.obterSaldoPorUsuario(id);
-		return ResponseEntity.ok(saldo);
+		String etag = RespostaCondicional.etag(id, versaoService.obterVersao(id));
+		if(RespostaCondicional.naoModificado(ifNoneMatch, etag))
+			return RespostaCondicional.naoModificado(etag);
+		
+		Dinheiro saldo = lancamentoService.obterSaldoPorUsuario(id);
+		return RespostaCondicional.ok(etag, saldo);
+	}
+	
+	@GetMapping("/{id}/saldo/mensal")
+	public ResponseEntity obterSaldoMensal(@PathVariable Long id,
+			@RequestParam(value = "anoInicial") Integer anoInicial,
+			@RequestParam(value = "mesInicial", defaultValue = "1") Integer mesInicial,
+			@RequestParam(value = "anoFinal") Integer anoFinal,
+			@RequestParam(value = "mesFinal", defaultValue = "12") Integer mesFinal,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		String etag = RespostaCondicional.etag(id, versaoService.obterVersao(id), 
+				anoInicial, mesInicial, anoFinal, mesFinal);
+		if(RespostaCondicional.naoModificado(ifNoneMatch, etag))
+			return RespostaCondicional.naoModificado(etag);
+		
+		try {
+			List<SaldoPeriodo> periodos = lancamentoService
+					.obterSaldoMensal(id, anoInicial, mesInicial, anoFinal, mesFinal);
+			return RespostaCondicional.ok(etag, toModel(periodos));
+		}catch(BusinessRuleException ex) {
+			return ResponseEntity.badRequest().body(ex.getMessage());
+		}
+	}
+	
+	@GetMapping("/{id}/saldo/anual")
+	public ResponseEntity obterSaldoAnual(@PathVariable Long id,
+			@RequestParam(value = "anoInicial") Integer anoInicial,
+			@RequestParam(value = "anoFinal") Integer anoFinal,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		String etag = RespostaCondicional.etag(id, versaoService.obterVersao(id), 
+				anoInicial, anoFinal);
+		if(RespostaCondicional.naoModificado(ifNoneMatch, etag))
+			return RespostaCondicional.naoModificado(etag);
+		
+		try {
+			List<SaldoPeriodo> periodos = lancamentoService.obterSaldoAnual(id, anoInicial, anoFinal);
+			return RespostaCondicional.ok(etag, toModel(periodos));
+		}catch(BusinessRuleException ex) {
+			return ResponseEntity.badRequest().body(ex.getMessage());
+		}
+	}
+	
+	@PostMapping("/{id}/saldo/recalcular")
+	public ResponseEntity recalcularSaldo(@PathVariable Long id) {
+		try {
+			service.obterReferencia(id);
+		}catch(BusinessRuleException ex) {
+			return ResponseEntity.notFound().build();
+		}
+		
+		return ResponseEntity.ok(saldoService.recalcular(id));
+	}
+	
+	@GetMapping("/{id}/fechamento")
+	public ResponseEntity obterFechamento(@PathVariable Long id) {
+		return fechamentoService.obterFechamento(id)
+				.map(fechamento -> ResponseEntity.ok(toModel(fechamento)))
+				.orElseGet(() -> ResponseEntity.notFound().build());
+	}
+	
+	@PostMapping("/{id}/fechamento")
+	public ResponseEntity fechar(@PathVariable Long id, @RequestBody FechamentoDTO dto) {
+		try {
+			service.obterReferencia(id);
+		}catch(BusinessRuleException ex) {
+			return ResponseEntity.notFound().build();
+		}
+		
+		try {
+			var fechamento = fechamentoService.fechar(id, dto.getAno(), dto.getMes());
+			return ResponseEntity.ok(toModel(fechamento));
+		}catch(BusinessRuleException ex) {
+			return ResponseEntity.badRequest().body(ex.getMessage());
+		}
+	}
+	
+	@DeleteMapping("/{id}/fechamento/{ano}/{mes}")
+	public ResponseEntity reabrir(@PathVariable Long id, @PathVariable Integer ano, @PathVariable Integer mes) {
+		try {
+			fechamentoService.reabrir(id, ano, mes);
+			return ResponseEntity.noContent().build();
+		}catch(BusinessRuleException ex) {
+			return ResponseEntity.badRequest().body(ex.getMessage());
+		}
 	}
 	
 	@DeleteMapping("/{id}")
 	public ResponseEntity deletar(@PathVariable Long id) {
-		repository.deleteById(id);
+		service.deletar(id);
 		return ResponseEntity.noContent().build();
 	}
 	
+	@GetMapping("/cache/estatisticas")
+	public ResponseEntity obterEstatisticasCache() {
+		Map<String, EstatisticasCacheDTO> estatisticas = new LinkedHashMap<>();
+		
+		service.obterEstatisticasCache().forEach((nome, stats) -> estatisticas.put(nome, 
+				EstatisticasCacheDTO.builder()
+					.acertos(stats.hitCount())
+					.falhas(stats.missCount())
+					.remocoes(stats.evictionCount())
+					.taxaAcerto(stats.hitRate())
+					.build()));
+		
+		return ResponseEntity.ok(estatisticas);
+	}
+	
 	@GetMapping
 	public ResponseEntity<List<Usuario>> all() {
 		
@@ -88,4 +220,24 @@ public class UsuarioController {
 		return ResponseEntity.ok(users);
 	}
 	
+	private FechamentoDTO toModel(Fechamento fechamento) {
+		return FechamentoDTO.builder()
+				.ano(fechamento.getAno())
+				.mes(fechamento.getMes())
+				.build();
+	}
+	
+	private List<SaldoPeriodoDTO> toModel(List<SaldoPeriodo> periodos) {
+		return periodos.stream()
+				.map(periodo -> SaldoPeriodoDTO.builder()
+						.ano(periodo.getAno())
+						.mes(periodo.getMes())
+						.status(periodo.getStatus().name())
+						.receitas(periodo.getReceitas())
+						.despesas(periodo.getDespesas())
+						.saldo(periodo.getReceitas().subtrair(periodo.getDespesas()))
+						.build())
+				.collect(Collectors.toList());
+	}
+	
 }
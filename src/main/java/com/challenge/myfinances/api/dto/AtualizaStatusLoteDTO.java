@@ -0,0 +1,26 @@
+package com.challenge.myfinances.api.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AtualizaStatusLoteDTO {
+	
+	//lançamentos a atualizar; quando vazio, o filtro abaixo seleciona os lançamentos
+	private List<Long> ids;
+	
+	private Long usuario;
+	private Long serie;
+	private Integer ano;
+	private Integer mes;
+	private String statusAtual;
+	
+	private String status;
+}
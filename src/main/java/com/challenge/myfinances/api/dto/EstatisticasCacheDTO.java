@@ -0,0 +1,18 @@
+package com.challenge.myfinances.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstatisticasCacheDTO {
+	
+	private long acertos;
+	private long falhas;
+	private long remocoes;
+	private double taxaAcerto;
+}
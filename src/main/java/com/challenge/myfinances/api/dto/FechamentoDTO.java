@@ -0,0 +1,16 @@
+package com.challenge.myfinances.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FechamentoDTO {
+	
+	private Integer ano;
+	private Integer mes;
+}
@@ -1,6 +1,6 @@
 package com.challenge.myfinances.api.dto;
 
-import java.math.BigDecimal;
+import com.challenge.myfinances.model.entity.Dinheiro;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -17,8 +17,11 @@ public class LancamentoDTO {
     private String descricao;
     private Integer mes;
     private Integer ano;
-    private BigDecimal valor;
+    private Dinheiro valor;
     private String tipo;
     private String status;
     private Long usuario;
+    private Long serie;
+    private Integer parcela;
+    private Long versao;
 }
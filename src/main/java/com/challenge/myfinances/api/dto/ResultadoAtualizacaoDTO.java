@@ -0,0 +1,14 @@
+package com.challenge.myfinances.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResultadoAtualizacaoDTO {
+	
+	private Long id;
+	private String resultado;
+}
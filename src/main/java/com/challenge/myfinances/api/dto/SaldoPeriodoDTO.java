@@ -0,0 +1,22 @@
+package com.challenge.myfinances.api.dto;
+
+import com.challenge.myfinances.model.entity.Dinheiro;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaldoPeriodoDTO {
+	
+	private Integer ano;
+	private Integer mes;
+	private String status;
+	private Dinheiro receitas;
+	private Dinheiro despesas;
+	private Dinheiro saldo;
+}
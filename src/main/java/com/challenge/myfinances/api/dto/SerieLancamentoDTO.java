@@ -0,0 +1,29 @@
+package com.challenge.myfinances.api.dto;
+
+import com.challenge.myfinances.model.entity.Dinheiro;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SerieLancamentoDTO {
+	
+	private String descricao;
+	
+	//mês e ano da primeira ocorrência; as demais seguem mês a mês
+	private Integer mes;
+	private Integer ano;
+	private Integer quantidade;
+	
+	//RECORRENTE: valor de cada ocorrência; PARCELADA: valor total, dividido entre as parcelas
+	private Dinheiro valor;
+	private String tipoSerie;
+	
+	private String tipo;
+	private Long usuario;
+}
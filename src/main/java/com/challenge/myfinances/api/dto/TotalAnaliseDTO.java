@@ -0,0 +1,24 @@
+package com.challenge.myfinances.api.dto;
+
+import com.challenge.myfinances.model.entity.Dinheiro;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TotalAnaliseDTO {
+	
+	private Integer ano;
+	private Integer mes;
+	private String tipo;
+	private String status;
+	private Dinheiro receitas;
+	private Dinheiro despesas;
+	private Dinheiro saldo;
+	private long quantidade;
+}
@@ -0,0 +1,25 @@
+package com.challenge.myfinances.api.dto;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UsuarioAutenticadoDTO {
+	
+	private Long id;
+	private String nome;
+	private String email;
+	private String token;
+	
+	@JsonFormat(shape = JsonFormat.Shape.STRING)
+	private Instant expiraEm;
+}
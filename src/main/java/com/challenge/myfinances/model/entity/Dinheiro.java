@@ -0,0 +1,138 @@
+package com.challenge.myfinances.model.entity;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/*
+ * Valor monetário em centavos (long). Somas e comparações não alocam BigDecimal;
+ * no banco continua NUMERIC(…, 2) (DinheiroConverter) e no JSON o número decimal de sempre.
+ */
+@JsonSerialize(using = Dinheiro.Serializador.class)
+@JsonDeserialize(using = Dinheiro.Desserializador.class)
+public final class Dinheiro implements Comparable<Dinheiro>, Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	static final int CASAS_DECIMAIS = 2;
+	
+	public static final Dinheiro ZERO = new Dinheiro(0);
+	
+	private final long centavos;
+	
+	private Dinheiro(long centavos) {
+		this.centavos = centavos;
+	}
+	
+	public static Dinheiro deCentavos(long centavos) {
+		return centavos == 0 ? ZERO : new Dinheiro(centavos);
+	}
+	
+	//casas além dos centavos são arredondadas como no NUMERIC(…, 2) do banco
+	public static Dinheiro valueOf(BigDecimal valor) {
+		if(valor == null)
+			return null;
+		
+		return deCentavos(valor.setScale(CASAS_DECIMAIS, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+	}
+	
+	public static Dinheiro valueOf(String valor) {
+		return valor == null || valor.trim().isEmpty() ? null : valueOf(new BigDecimal(valor.trim()));
+	}
+	
+	public long centavos() {
+		return centavos;
+	}
+	
+	public Dinheiro somar(Dinheiro outro) {
+		return deCentavos(Math.addExact(centavos, outro.centavos));
+	}
+	
+	public Dinheiro subtrair(Dinheiro outro) {
+		return deCentavos(Math.subtractExact(centavos, outro.centavos));
+	}
+	
+	public Dinheiro negar() {
+		return deCentavos(Math.negateExact(centavos));
+	}
+	
+	public int signum() {
+		return Long.signum(centavos);
+	}
+	
+	public BigDecimal toBigDecimal() {
+		return BigDecimal.valueOf(centavos, CASAS_DECIMAIS);
+	}
+
+	@Override
+	public int compareTo(Dinheiro outro) {
+		return Long.compare(centavos, outro.centavos);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof Dinheiro && ((Dinheiro) obj).centavos == centavos;
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(centavos);
+	}
+
+	//mesmo texto de BigDecimal.toPlainString() com duas casas, ex.: 1234.50 e -0.05
+	@Override
+	public String toString() {
+		long absoluto = Math.abs(centavos);
+		long fracao = absoluto % 100;
+		
+		return new StringBuilder(24)
+				.append(centavos < 0 ? "-" : "")
+				.append(absoluto / 100)
+				.append('.')
+				.append(fracao < 10 ? "0" : "")
+				.append(fracao)
+				.toString();
+	}
+	
+	static class Serializador extends JsonSerializer<Dinheiro> {
+		
+		@Override
+		public void serialize(Dinheiro valor, JsonGenerator gerador, SerializerProvider provider) throws IOException {
+			gerador.writeNumber(valor.toString());
+		}
+	}
+	
+	static class Desserializador extends JsonDeserializer<Dinheiro> {
+		
+		@Override
+		public Dinheiro deserialize(JsonParser parser, DeserializationContext contexto) throws IOException {
+			JsonToken token = parser.currentToken();
+			
+			try {
+				if(token == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() != JsonParser.NumberType.BIG_INTEGER)
+					return deCentavos(Math.multiplyExact(parser.getLongValue(), 100));
+				
+				if(token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT)
+					return valueOf(parser.getDecimalValue());
+				
+				if(token == JsonToken.VALUE_STRING)
+					return valueOf(parser.getText());
+			}catch(ArithmeticException | NumberFormatException ex) {
+				return (Dinheiro) contexto.handleWeirdStringValue(Dinheiro.class, parser.getText(), "valor monetário inválido");
+			}
+			
+			return (Dinheiro) contexto.handleUnexpectedToken(Dinheiro.class, parser);
+		}
+	}
+}
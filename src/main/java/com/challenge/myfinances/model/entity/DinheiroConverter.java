@@ -0,0 +1,21 @@
+package com.challenge.myfinances.model.entity;
+
+import java.math.BigDecimal;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+//Dinheiro <-> NUMERIC(…, 2), sem alterar as colunas nem as somas feitas no banco
+@Converter
+public class DinheiroConverter implements AttributeConverter<Dinheiro, BigDecimal> {
+
+	@Override
+	public BigDecimal convertToDatabaseColumn(Dinheiro valor) {
+		return valor == null ? null : valor.toBigDecimal();
+	}
+
+	@Override
+	public Dinheiro convertToEntityAttribute(BigDecimal valor) {
+		return Dinheiro.valueOf(valor);
+	}
+}
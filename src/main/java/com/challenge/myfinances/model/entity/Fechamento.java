@@ -0,0 +1,43 @@
+package com.challenge.myfinances.model.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+ * Último ano/mês fechado do usuário: todos os meses até ele (inclusive) estão
+ * fechados e têm seus totais em FechamentoTotal.
+ */
+@Data
+@Entity
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table( name = "fechamento", schema = "financas")
+public class Fechamento {
+
+    @Id
+    @Column(name = "id_usuario")
+    private Long idUsuario;
+
+    @Column(name = "ano")
+    private Integer ano;
+
+    @Column(name = "mes")
+    private Integer mes;
+
+    //período no formato aaaamm, o mesmo usado nas consultas (ano * 100 + mes)
+    public int getPeriodo() {
+    	return periodo(ano, mes);
+    }
+
+    public static int periodo(int ano, int mes) {
+    	return ano * 100 + mes;
+    }
+}
@@ -0,0 +1,62 @@
+package com.challenge.myfinances.model.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+
+import com.challenge.myfinances.model.enumeration.StatusLancamento;
+import com.challenge.myfinances.model.enumeration.TipoLancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+ * Total dos lançamentos de um mês fechado, por tipo e status.
+ */
+@Data
+@Entity
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table( name = "fechamento_total", schema = "financas", indexes = {
+		@Index(name = "uk_fechamento_total_usuario_periodo", columnList = "id_usuario, ano, mes, tipo, status", unique = true)
+})
+public class FechamentoTotal {
+
+    @Id
+    @Column(name = "id")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "fechamento_total_seq")
+    @SequenceGenerator(name = "fechamento_total_seq", sequenceName = "fechamento_total_seq", schema = "financas", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "id_usuario")
+    private Long idUsuario;
+
+    @Column(name = "ano")
+    private Integer ano;
+
+    @Column(name = "mes")
+    private Integer mes;
+
+    @Column(name = "tipo")
+    @Enumerated(EnumType.STRING)
+    private TipoLancamento tipo;
+
+    @Column(name = "status")
+    @Enumerated(EnumType.STRING)
+    private StatusLancamento status;
+
+    @Column(name = "total")
+    @Convert(converter = DinheiroConverter.class)
+    private Dinheiro total;
+}
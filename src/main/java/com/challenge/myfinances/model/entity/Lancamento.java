@@ -1,6 +1,5 @@
 package com.challenge.myfinances.model.entity;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 
 import javax.persistence.Column;
@@ -11,31 +10,42 @@ import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.PostLoad;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
-
-import org.springframework.data.jpa.convert.threeten.Jsr310JpaConverters;
+import javax.persistence.Transient;
+import javax.persistence.Version;
 
 import com.challenge.myfinances.model.enumeration.StatusLancamento;
 import com.challenge.myfinances.model.enumeration.TipoLancamento;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Data
 @Entity
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
-@Table( name = "lancamento", schema = "financas")
+@Table( name = "lancamento", schema = "financas", indexes = {
+		@Index(name = "idx_lancamento_usuario_periodo", columnList = "id_usuario, ano, mes, id"),
+		@Index(name = "idx_lancamento_usuario_tipo_status_valor", columnList = "id_usuario, tipo, status, valor"),
+		@Index(name = "idx_lancamento_serie", columnList = "id_serie")
+})
 public class Lancamento {
     
 	@Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lancamento_seq")
+    @SequenceGenerator(name = "lancamento_seq", sequenceName = "lancamento_seq", schema = "financas", allocationSize = 50)
     private Long id;
 
     @Column(name = "descricao")
@@ -48,10 +58,11 @@ public class Lancamento {
     private Integer ano;
 
     @Column(name = "valor")
-    private BigDecimal valor;
+    @Convert(converter = DinheiroConverter.class)
+    private Dinheiro valor;
 
+    //mapeado direto pelo Hibernate como date; o conversor para java.util.Date exigia timestamp
     @Column(name = "data_cadastro")
-    @Convert(converter = Jsr310JpaConverters.LocalDateConverter.class)
     private LocalDate dataCadastro;
 
     @Column(name = "tipo")
@@ -65,4 +76,35 @@ public class Lancamento {
     @ManyToOne
     @JoinColumn(name = "id_usuario")
     private Usuario usuario;
+    
+    //ocorrências de uma série recorrente ou parcelada: id da série e número da parcela (1..n)
+    @Column(name = "id_serie")
+    private Long serie;
+    
+    @Column(name = "parcela")
+    private Integer parcela;
+    
+    @Version
+    @Column(name = "versao")
+    private Long versao;
+    
+    //estado lido do banco, usado para calcular a variação do saldo materializado
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Lancamento estadoPersistido;
+    
+    @PostLoad
+    public void registrarEstadoPersistido() {
+    	this.estadoPersistido = Lancamento.builder()
+    			.id(id)
+    			.ano(ano)
+    			.mes(mes)
+    			.valor(valor)
+    			.tipo(tipo)
+    			.status(status)
+    			.usuario(usuario)
+    			.build();
+    }
 }
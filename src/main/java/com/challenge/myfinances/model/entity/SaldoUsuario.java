@@ -0,0 +1,37 @@
+package com.challenge.myfinances.model.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+ * Saldo materializado do usuário: acumula apenas os lançamentos EFETIVADOS
+ * e é mantido na mesma transação das escritas em LancamentoService.
+ */
+@Data
+@Entity
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table( name = "saldo_usuario", schema = "financas")
+public class SaldoUsuario {
+
+    @Id
+    @Column(name = "id_usuario")
+    private Long idUsuario;
+
+    @Column(name = "receitas")
+    @Convert(converter = DinheiroConverter.class)
+    private Dinheiro receitas;
+
+    @Column(name = "despesas")
+    @Convert(converter = DinheiroConverter.class)
+    private Dinheiro despesas;
+}
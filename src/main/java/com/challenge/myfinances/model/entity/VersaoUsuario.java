@@ -0,0 +1,31 @@
+package com.challenge.myfinances.model.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+ * Versão dos dados do usuário: muda a cada gravação de seus lançamentos,
+ * na mesma transação da gravação.
+ */
+@Data
+@Entity
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table( name = "versao_usuario", schema = "financas")
+public class VersaoUsuario {
+
+    @Id
+    @Column(name = "id_usuario")
+    private Long idUsuario;
+
+    @Column(name = "versao")
+    private Long versao;
+}
@@ -0,0 +1,8 @@
+package com.challenge.myfinances.model.enumeration;
+
+public enum Agrupamento {
+    ANO,
+    MES,
+    TIPO,
+    STATUS;
+}
@@ -0,0 +1,8 @@
+package com.challenge.myfinances.model.enumeration;
+
+public enum ResultadoAtualizacao {
+    ATUALIZADO,
+    INALTERADO,
+    NAO_ENCONTRADO,
+    PERIODO_FECHADO;
+}
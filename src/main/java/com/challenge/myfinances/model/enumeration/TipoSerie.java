@@ -0,0 +1,7 @@
+package com.challenge.myfinances.model.enumeration;
+
+//RECORRENTE repete o valor em todos os meses; PARCELADA divide o valor total entre as parcelas
+public enum TipoSerie {
+    RECORRENTE,
+    PARCELADA;
+}
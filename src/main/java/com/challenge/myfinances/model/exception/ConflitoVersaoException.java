@@ -0,0 +1,9 @@
+package com.challenge.myfinances.model.exception;
+
+public class ConflitoVersaoException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	public ConflitoVersaoException(String msg) {
+		super(msg);
+	}
+}
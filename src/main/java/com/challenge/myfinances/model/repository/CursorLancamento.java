@@ -0,0 +1,44 @@
+package com.challenge.myfinances.model.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.challenge.myfinances.model.entity.Lancamento;
+import com.challenge.myfinances.model.exception.BusinessRuleException;
+import com.challenge.myfinances.model.repository.projection.LancamentoResumo;
+
+import lombok.Value;
+
+/*
+ * Posição (ano, mes, id) do último lançamento de uma página. É enviado ao
+ * cliente de forma opaca e usado como chave da próxima consulta (keyset).
+ */
+@Value
+public class CursorLancamento {
+	
+	private Integer ano;
+	private Integer mes;
+	private Long id;
+	
+	public static CursorLancamento de(Lancamento lancamento) {
+		return new CursorLancamento(lancamento.getAno(), lancamento.getMes(), lancamento.getId());
+	}
+	
+	public static CursorLancamento de(LancamentoResumo lancamento) {
+		return new CursorLancamento(lancamento.getAno(), lancamento.getMes(), lancamento.getId());
+	}
+	
+	public String codificar() {
+		String valor = ano + ":" + mes + ":" + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	public static CursorLancamento decodificar(String cursor) {
+		try {
+			String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+			return new CursorLancamento(Integer.valueOf(partes[0]), Integer.valueOf(partes[1]), Long.valueOf(partes[2]));
+		}catch(IllegalArgumentException | ArrayIndexOutOfBoundsException ex) {
+			throw new BusinessRuleException("Cursor inválido");
+		}
+	}
+}
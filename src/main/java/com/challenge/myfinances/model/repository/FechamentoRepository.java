@@ -0,0 +1,32 @@
+package com.challenge.myfinances.model.repository;
+
+import java.util.Optional;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.challenge.myfinances.model.entity.Fechamento;
+
+public interface FechamentoRepository extends JpaRepository<Fechamento, Long> {
+
+	//serializa fechamentos e reaberturas concorrentes do mesmo usuário
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query( value = "select f from Fechamento f where f.idUsuario = :idUsuario" )
+	Optional<Fechamento> obterParaAtualizacao(@Param("idUsuario") Long idUsuario);
+
+	/*
+	 * Último período fechado (aaaamm) com a linha do usuário bloqueada até o fim da
+	 * transação. O bloqueio é no usuário, e não no fechamento, porque o primeiro
+	 * fechamento ainda não tem linha para bloquear.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query( value = 
+			  "select (select f.ano * 100 + f.mes from Fechamento f where f.idUsuario = u.id) "
+			+ "from Usuario u where u.id = :idUsuario"
+			)
+	Optional<Integer> bloquearEObterFechadoAte(@Param("idUsuario") Long idUsuario);
+}
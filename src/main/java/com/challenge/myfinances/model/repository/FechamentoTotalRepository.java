@@ -0,0 +1,54 @@
+package com.challenge.myfinances.model.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.challenge.myfinances.model.entity.Dinheiro;
+import com.challenge.myfinances.model.entity.FechamentoTotal;
+import com.challenge.myfinances.model.enumeration.StatusLancamento;
+import com.challenge.myfinances.model.enumeration.TipoLancamento;
+import com.challenge.myfinances.model.repository.projection.SaldoPeriodo;
+
+public interface FechamentoTotalRepository extends JpaRepository<FechamentoTotal, Long> {
+
+	@Query( value =
+			  "select sum(t.total) from FechamentoTotal t "
+			+ "where t.idUsuario = :idUsuario and t.tipo = :tipo and t.status = :status"
+			)
+	Dinheiro obterTotal(
+			@Param("idUsuario") Long idUsuario,
+			@Param("tipo") TipoLancamento tipo,
+			@Param("status") StatusLancamento status);
+
+	@Query( value =
+			  "select t.ano as ano, t.mes as mes, t.status as status, "
+			+ "sum(case when t.tipo = :receita then t.total else 0 end) as receitas, "
+			+ "sum(case when t.tipo = :despesa then t.total else 0 end) as despesas "
+			+ "from FechamentoTotal t "
+			+ "where t.idUsuario = :idUsuario and t.ano between :anoInicial and :anoFinal "
+			+ "and (t.ano * 100 + t.mes) between :inicio and :fim "
+			+ "group by t.ano, t.mes, t.status order by t.ano, t.mes, t.status"
+			)
+	List<SaldoPeriodo> obterSaldoMensal(
+			@Param("idUsuario") Long idUsuario,
+			@Param("anoInicial") Integer anoInicial,
+			@Param("anoFinal") Integer anoFinal,
+			@Param("inicio") Integer inicio,
+			@Param("fim") Integer fim,
+			@Param("receita") TipoLancamento receita,
+			@Param("despesa") TipoLancamento despesa);
+
+	@Modifying
+	@Query( value =
+			  "delete from FechamentoTotal t "
+			+ "where t.idUsuario = :idUsuario and t.ano >= :ano and (t.ano * 100 + t.mes) >= :inicio"
+			)
+	int removerAPartirDe(
+			@Param("idUsuario") Long idUsuario,
+			@Param("ano") Integer ano,
+			@Param("inicio") Integer inicio);
+}
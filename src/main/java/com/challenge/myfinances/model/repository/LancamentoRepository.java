@@ -1,24 +1,128 @@
 package com.challenge.myfinances.model.repository;
 
-import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.challenge.myfinances.model.entity.Dinheiro;
 import com.challenge.myfinances.model.entity.Lancamento;
 import com.challenge.myfinances.model.enumeration.StatusLancamento;
 import com.challenge.myfinances.model.enumeration.TipoLancamento;
+import com.challenge.myfinances.model.repository.projection.LancamentoResumo;
+import com.challenge.myfinances.model.repository.projection.SaldoPeriodo;
 
-public interface LancamentoRepository extends JpaRepository<Lancamento, Long> {
+public interface LancamentoRepository extends JpaRepository<Lancamento, Long>, 
+		JpaSpecificationExecutor<Lancamento>, LancamentoRepositoryCustom {
+	
+	@Query( value =
+			  "select new com.challenge.myfinances.model.repository.projection.LancamentoResumo("
+			+ "l.id, l.descricao, l.mes, l.ano, l.valor, l.tipo, l.status, l.usuario.id, l.serie, l.parcela, l.versao) "
+			+ "from Lancamento l where l.id = :id"
+			)
+	Optional<LancamentoResumo> obterResumo(@Param("id") Long id);
 	
 	@Query( value =
 			  "select sum(l.valor) from Lancamento l join l.usuario u "
 			+ "where u.id = :idUsuario and l.tipo = :tipo and l.status = :status group by u"
 			)
-	BigDecimal obterSaldoPorTipoLancamentoEUsuario(
+	Dinheiro obterSaldoPorTipoLancamentoEUsuario(
 			@Param("idUsuario") Long idUsuario,
 			@Param("tipo") TipoLancamento tipo,
 			@Param("status") StatusLancamento status);
 	
+	//total dos meses posteriores ao último período fechado (aaaamm)
+	@Query( value =
+			  "select sum(l.valor) from Lancamento l "
+			+ "where l.usuario.id = :idUsuario and l.tipo = :tipo and l.status = :status "
+			+ "and l.ano >= :ano and (l.ano * 100 + l.mes) > :fechadoAte"
+			)
+	Dinheiro obterSaldoPorTipoLancamentoEUsuarioApos(
+			@Param("idUsuario") Long idUsuario,
+			@Param("tipo") TipoLancamento tipo,
+			@Param("status") StatusLancamento status,
+			@Param("ano") Integer ano,
+			@Param("fechadoAte") Integer fechadoAte);
+	
+	@Query( value =
+			  "select l.ano, l.mes, l.tipo, l.status, sum(l.valor) from Lancamento l "
+			+ "where l.usuario.id = :idUsuario and l.ano between :anoInicial and :anoFinal "
+			+ "and (l.ano * 100 + l.mes) between :inicio and :fim "
+			+ "group by l.ano, l.mes, l.tipo, l.status"
+			)
+	List<Object[]> obterTotaisPorPeriodo(
+			@Param("idUsuario") Long idUsuario,
+			@Param("anoInicial") Integer anoInicial,
+			@Param("anoFinal") Integer anoFinal,
+			@Param("inicio") Integer inicio,
+			@Param("fim") Integer fim);
+	
+	@Query( value =
+			  "select u.id, l.tipo, sum(l.valor) from Lancamento l join l.usuario u "
+			+ "where l.status = :status group by u.id, l.tipo"
+			)
+	List<Object[]> obterTotaisPorUsuarioETipo(@Param("status") StatusLancamento status);
+	
+	@Query( value =
+			  "select l.ano as ano, l.mes as mes, l.status as status, "
+			+ "sum(case when l.tipo = :receita then l.valor else 0 end) as receitas, "
+			+ "sum(case when l.tipo = :despesa then l.valor else 0 end) as despesas "
+			+ "from Lancamento l "
+			+ "where l.usuario.id = :idUsuario and l.ano between :anoInicial and :anoFinal "
+			+ "and (l.ano * 100 + l.mes) between :inicio and :fim "
+			+ "group by l.ano, l.mes, l.status order by l.ano, l.mes, l.status"
+			)
+	List<SaldoPeriodo> obterSaldoMensal(
+			@Param("idUsuario") Long idUsuario,
+			@Param("anoInicial") Integer anoInicial,
+			@Param("anoFinal") Integer anoFinal,
+			@Param("inicio") Integer inicio,
+			@Param("fim") Integer fim,
+			@Param("receita") TipoLancamento receita,
+			@Param("despesa") TipoLancamento despesa);
+	
+	@Query( value =
+			  "select l.ano as ano, l.status as status, "
+			+ "sum(case when l.tipo = :receita then l.valor else 0 end) as receitas, "
+			+ "sum(case when l.tipo = :despesa then l.valor else 0 end) as despesas "
+			+ "from Lancamento l "
+			+ "where l.usuario.id = :idUsuario and l.ano between :anoInicial and :anoFinal "
+			+ "group by l.ano, l.status order by l.ano, l.status"
+			)
+	List<SaldoPeriodo> obterSaldoAnual(
+			@Param("idUsuario") Long idUsuario,
+			@Param("anoInicial") Integer anoInicial,
+			@Param("anoFinal") Integer anoFinal,
+			@Param("receita") TipoLancamento receita,
+			@Param("despesa") TipoLancamento despesa);
+	
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query( value =
+			  "update Lancamento l set l.status = :novo, l.versao = l.versao + 1 "
+			+ "where l.id in :ids and l.status = :anterior"
+			)
+	int atualizarStatus(
+			@Param("ids") Collection<Long> ids,
+			@Param("anterior") StatusLancamento anterior,
+			@Param("novo") StatusLancamento novo);
+	
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query( value =
+			  "update Lancamento l set l.status = :status, l.versao = l.versao + 1 "
+			+ "where l.id = :id and l.versao = :versao"
+			)
+	int atualizarStatusNaVersao(
+			@Param("id") Long id,
+			@Param("versao") Long versao,
+			@Param("status") StatusLancamento status);
+	
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query( value = "delete from Lancamento l where l.id in :ids")
+	int excluir(@Param("ids") Collection<Long> ids);
+	
 }
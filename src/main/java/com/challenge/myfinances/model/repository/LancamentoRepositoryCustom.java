@@ -0,0 +1,24 @@
+package com.challenge.myfinances.model.repository;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.challenge.myfinances.model.entity.Lancamento;
+import com.challenge.myfinances.model.repository.projection.LancamentoResumo;
+
+public interface LancamentoRepositoryCustom {
+	
+	List<LancamentoResumo> buscarResumos(Specification<Lancamento> filtro, CursorLancamento cursor, Integer limite);
+	
+	List<LancamentoResumo> bloquearResumos(Specification<Lancamento> filtro, Integer limite);
+	
+	long percorrerPorUsuario(Long idUsuario, Consumer<Lancamento> consumidor);
+	
+	long percorrerValoresPorUsuario(Long idUsuario, Consumer<Object[]> consumidor);
+	
+	List<Lancamento> inserirEmLote(List<Lancamento> lancamentos);
+	
+	Long proximaSerie();
+}
@@ -0,0 +1,198 @@
+package com.challenge.myfinances.model.repository;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.challenge.myfinances.model.entity.Lancamento;
+import com.challenge.myfinances.model.repository.projection.LancamentoResumo;
+
+public class LancamentoRepositoryImpl implements LancamentoRepositoryCustom {
+	
+	@PersistenceContext
+	private EntityManager entityManager;
+	
+	@Value("${myfinances.exportacao.fetch-size:500}")
+	private int fetchSize;
+	
+	@Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+	private int batchSize;
+
+	/*
+	 * Busca apenas as colunas do modelo de leitura, ordenadas por (ano, mes, id).
+	 * Com cursor, a página seguinte começa logo após (ano, mes, id) do cursor (keyset),
+	 * então o custo não cresce com a profundidade como acontece com OFFSET.
+	 */
+	@Override
+	public List<LancamentoResumo> buscarResumos(Specification<Lancamento> filtro, CursorLancamento cursor, Integer limite) {
+		return consultarResumos(filtro, cursor, limite).getResultList();
+	}
+	
+	/*
+	 * Mesma seleção com as linhas bloqueadas (select ... for update) até o fim da
+	 * transação: o que foi lido é o que as gravações em conjunto vão alterar, sem
+	 * que uma edição concorrente mude valor, tipo ou status no meio do caminho.
+	 * Deve ser chamado dentro de uma transação.
+	 */
+	@Override
+	public List<LancamentoResumo> bloquearResumos(Specification<Lancamento> filtro, Integer limite) {
+		return consultarResumos(filtro, null, limite)
+				.setLockMode(LockModeType.PESSIMISTIC_WRITE)
+				.getResultList();
+	}
+	
+	private TypedQuery<LancamentoResumo> consultarResumos(Specification<Lancamento> filtro, CursorLancamento cursor, Integer limite) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<LancamentoResumo> query = cb.createQuery(LancamentoResumo.class);
+		Root<Lancamento> root = query.from(Lancamento.class);
+		
+		query.select(cb.construct(LancamentoResumo.class, 
+				root.get("id"), root.get("descricao"), root.get("mes"), root.get("ano"), root.get("valor"),
+				root.get("tipo"), root.get("status"), root.get("usuario").get("id"), root.get("serie"), root.get("parcela"),
+				root.get("versao")));
+		
+		List<Predicate> predicados = new ArrayList<>();
+		Predicate predicadoFiltro = filtro.toPredicate(root, query, cb);
+		
+		if(predicadoFiltro != null)
+			predicados.add(predicadoFiltro);
+		
+		if(cursor != null)
+			predicados.add(apos(cb, root, cursor));
+		
+		query.where(predicados.toArray(new Predicate[0]))
+			.orderBy(cb.asc(root.get("ano")), cb.asc(root.get("mes")), cb.asc(root.get("id")));
+		
+		TypedQuery<LancamentoResumo> consulta = entityManager.createQuery(query);
+		
+		if(limite != null)
+			consulta.setMaxResults(limite);
+		
+		return consulta;
+	}
+	
+	/*
+	 * Percorre os lançamentos do usuário com um cursor do JDBC (fetch size), entregando
+	 * cada linha ao consumidor e liberando o contexto de persistência a cada lote,
+	 * de forma que a memória não cresce com o tamanho do histórico.
+	 * Deve ser chamado dentro de uma transação.
+	 */
+	@Override
+	public long percorrerPorUsuario(Long idUsuario, Consumer<Lancamento> consumidor) {
+		long lidos = 0;
+		
+		try(Stream<Lancamento> lancamentos = entityManager.createQuery(
+				"select l from Lancamento l join fetch l.usuario u "
+				+ "where u.id = :idUsuario order by l.ano, l.mes, l.id", Lancamento.class)
+				.setParameter("idUsuario", idUsuario)
+				.setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+				.setHint(QueryHints.HINT_READONLY, true)
+				.getResultStream()) {
+			
+			Iterator<Lancamento> iterator = lancamentos.iterator();
+			
+			while(iterator.hasNext()) {
+				consumidor.accept(iterator.next());
+				
+				if(++lidos % fetchSize == 0)
+					entityManager.clear();
+			}
+		}
+		
+		return lidos;
+	}
+	
+	/*
+	 * Apenas as colunas numéricas (id, ano, mes, valor, tipo, status) em ordem de id,
+	 * sem instanciar entidades: é a carga do motor de análise em memória.
+	 */
+	@Override
+	public long percorrerValoresPorUsuario(Long idUsuario, Consumer<Object[]> consumidor) {
+		long lidos = 0;
+		
+		try(Stream<Object[]> linhas = entityManager.createQuery(
+				"select l.id, l.ano, l.mes, l.valor, l.tipo, l.status from Lancamento l "
+				+ "where l.usuario.id = :idUsuario order by l.id", Object[].class)
+				.setParameter("idUsuario", idUsuario)
+				.setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+				.setHint(QueryHints.HINT_READONLY, true)
+				.getResultStream()) {
+			
+			Iterator<Object[]> iterator = linhas.iterator();
+			
+			while(iterator.hasNext()) {
+				consumidor.accept(iterator.next());
+				lidos++;
+			}
+		}
+		
+		return lidos;
+	}
+	
+	/*
+	 * Insere os lançamentos em lotes do tamanho do batch do JDBC. O flush/clear a cada
+	 * lote envia os INSERTs agrupados e evita que o contexto de persistência cresça.
+	 * Deve ser chamado dentro de uma transação.
+	 */
+	@Override
+	public List<Lancamento> inserirEmLote(List<Lancamento> lancamentos) {
+		int inseridos = 0;
+		
+		for(Lancamento lancamento : lancamentos) {
+			entityManager.persist(lancamento);
+			
+			if(++inseridos % batchSize == 0) {
+				entityManager.flush();
+				entityManager.clear();
+			}
+		}
+		
+		entityManager.flush();
+		entityManager.clear();
+		return lancamentos;
+	}
+	
+	//a sintaxe do próximo valor da sequence varia entre H2 e PostgreSQL, por isso vem do dialeto
+	@Override
+	public Long proximaSerie() {
+		Dialect dialeto = entityManager.getEntityManagerFactory()
+				.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+		
+		return ((Number) entityManager
+				.createNativeQuery(dialeto.getSequenceNextValString("financas.serie_lancamento_seq"))
+				.getSingleResult()).longValue();
+	}
+	
+	// (ano, mes, id) > (cursor.ano, cursor.mes, cursor.id)
+	private Predicate apos(CriteriaBuilder cb, Root<Lancamento> root, CursorLancamento cursor) {
+		Path<Integer> ano = root.get("ano");
+		Path<Integer> mes = root.get("mes");
+		Path<Long> id = root.get("id");
+		
+		return cb.and(
+				cb.greaterThanOrEqualTo(ano, cursor.getAno()),
+				cb.or(
+					cb.greaterThan(ano, cursor.getAno()),
+					cb.and(cb.equal(ano, cursor.getAno()), cb.greaterThan(mes, cursor.getMes())),
+					cb.and(cb.equal(ano, cursor.getAno()), cb.equal(mes, cursor.getMes()), cb.greaterThan(id, cursor.getId()))));
+	}
+
+}
@@ -0,0 +1,31 @@
+package com.challenge.myfinances.model.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.challenge.myfinances.model.entity.Dinheiro;
+import com.challenge.myfinances.model.entity.SaldoUsuario;
+
+public interface SaldoUsuarioRepository extends JpaRepository<SaldoUsuario, Long> {
+
+	@Query( value = "select s.receitas - s.despesas from SaldoUsuario s where s.idUsuario = :idUsuario" )
+	Optional<Dinheiro> obterSaldo(@Param("idUsuario") Long idUsuario);
+
+	@Query( value = "select s.idUsuario from SaldoUsuario s" )
+	List<Long> obterUsuarios();
+
+	@Modifying
+	@Query( value =
+			  "update SaldoUsuario s set s.receitas = s.receitas + :receitas, s.despesas = s.despesas + :despesas "
+			+ "where s.idUsuario = :idUsuario"
+			)
+	int acumular(
+			@Param("idUsuario") Long idUsuario,
+			@Param("receitas") Dinheiro receitas,
+			@Param("despesas") Dinheiro despesas);
+}
@@ -1,12 +1,24 @@
 package com.challenge.myfinances.model.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import javax.persistence.LockModeType;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.challenge.myfinances.model.entity.Usuario;
 
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     Optional<Usuario> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    //select ... for update, em ordem de id para que transações concorrentes não se travem
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query( value = "select u.id from Usuario u where u.id in :usuarios order by u.id" )
+    List<Long> bloquear(@Param("usuarios") Collection<Long> usuarios);
 }
@@ -0,0 +1,21 @@
+package com.challenge.myfinances.model.repository;
+
+import java.util.Collection;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.challenge.myfinances.model.entity.VersaoUsuario;
+
+public interface VersaoUsuarioRepository extends JpaRepository<VersaoUsuario, Long> {
+
+	@Query( value = "select v.versao from VersaoUsuario v where v.idUsuario = :idUsuario" )
+	Optional<Long> obterVersao(@Param("idUsuario") Long idUsuario);
+
+	@Modifying
+	@Query( value = "update VersaoUsuario v set v.versao = v.versao + 1 where v.idUsuario in :usuarios" )
+	int incrementar(@Param("usuarios") Collection<Long> usuarios);
+}
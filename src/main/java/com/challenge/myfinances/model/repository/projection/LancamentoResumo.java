@@ -0,0 +1,27 @@
+package com.challenge.myfinances.model.repository.projection;
+
+import com.challenge.myfinances.model.entity.Dinheiro;
+import com.challenge.myfinances.model.enumeration.StatusLancamento;
+import com.challenge.myfinances.model.enumeration.TipoLancamento;
+
+import lombok.Value;
+
+/*
+ * Modelo de leitura do lançamento: apenas as colunas expostas pela API e o id do
+ * usuário (coluna id_usuario), sem carregar a entidade Usuario.
+ */
+@Value
+public class LancamentoResumo {
+	
+	private Long id;
+	private String descricao;
+	private Integer mes;
+	private Integer ano;
+	private Dinheiro valor;
+	private TipoLancamento tipo;
+	private StatusLancamento status;
+	private Long idUsuario;
+	private Long serie;
+	private Integer parcela;
+	private Long versao;
+}
@@ -0,0 +1,21 @@
+package com.challenge.myfinances.model.repository.projection;
+
+import com.challenge.myfinances.model.entity.Dinheiro;
+import com.challenge.myfinances.model.enumeration.StatusLancamento;
+
+/*
+ * Totais de um período (ano ou ano/mês) por status, calculados direto no banco.
+ * Na visão anual o mês vem nulo.
+ */
+public interface SaldoPeriodo {
+	
+	Integer getAno();
+	
+	Integer getMes();
+	
+	StatusLancamento getStatus();
+	
+	Dinheiro getReceitas();
+	
+	Dinheiro getDespesas();
+}
@@ -0,0 +1,25 @@
+package com.challenge.myfinances.model.repository.projection;
+
+import com.challenge.myfinances.model.entity.Dinheiro;
+import com.challenge.myfinances.model.enumeration.StatusLancamento;
+
+import lombok.Value;
+
+/*
+ * Saldo de um período montado em memória, ex.: o ano somado a partir dos meses
+ * fechados e abertos.
+ */
+@Value
+public class SaldoPeriodoAcumulado implements SaldoPeriodo {
+	
+	private Integer ano;
+	private Integer mes;
+	private StatusLancamento status;
+	private Dinheiro receitas;
+	private Dinheiro despesas;
+	
+	public static SaldoPeriodoAcumulado somar(SaldoPeriodo a, SaldoPeriodo b) {
+		return new SaldoPeriodoAcumulado(a.getAno(), a.getMes(), a.getStatus(), 
+				a.getReceitas().somar(b.getReceitas()), a.getDespesas().somar(b.getDespesas()));
+	}
+}
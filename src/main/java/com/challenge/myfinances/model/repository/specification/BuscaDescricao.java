@@ -0,0 +1,45 @@
+package com.challenge.myfinances.model.repository.specification;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+
+/*
+ * Estratégia de comparação da descrição na busca de lançamentos.
+ * Configurada por myfinances.busca.descricao (padrão TRIGRAMA).
+ */
+public enum BuscaDescricao {
+	
+	/*
+	 * lower(descricao) like 'termo%': atendida por índice B-tree
+	 * (no PostgreSQL, índice em lower(descricao) text_pattern_ops).
+	 */
+	PREFIXO {
+		@Override
+		Predicate predicado(CriteriaBuilder cb, Expression<String> descricao, String termo) {
+			return cb.like(descricao, escapar(termo) + "%", ESCAPE);
+		}
+	},
+	
+	/*
+	 * lower(descricao) like '%termo%': só é eficiente com índice de trigramas
+	 * (pg_trgm GIN em lower(descricao)) no PostgreSQL.
+	 */
+	TRIGRAMA {
+		@Override
+		Predicate predicado(CriteriaBuilder cb, Expression<String> descricao, String termo) {
+			return cb.like(descricao, "%" + escapar(termo) + "%", ESCAPE);
+		}
+	};
+	
+	private static final char ESCAPE = '\\';
+	
+	abstract Predicate predicado(CriteriaBuilder cb, Expression<String> descricao, String termo);
+	
+	private static String escapar(String termo) {
+		return termo.toLowerCase()
+				.replace("\\", "\\\\")
+				.replace("%", "\\%")
+				.replace("_", "\\_");
+	}
+}
@@ -0,0 +1,78 @@
+package com.challenge.myfinances.model.repository.specification;
+
+import java.util.Collection;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.challenge.myfinances.model.entity.Lancamento;
+import com.challenge.myfinances.model.enumeration.StatusLancamento;
+import com.challenge.myfinances.model.enumeration.TipoLancamento;
+
+/*
+ * Filtros da busca de lançamentos. Usuário, ano, mês, tipo e status são sempre
+ * igualdades, na ordem do índice idx_lancamento_usuario_periodo.
+ */
+public final class LancamentoSpecifications {
+	
+	private LancamentoSpecifications() {
+	}
+	
+	public static Specification<Lancamento> filtrar(Lancamento filtro, BuscaDescricao buscaDescricao) {
+		Specification<Lancamento> especificacao = Specification.where(null);
+		
+		if(filtro.getUsuario() != null)
+			especificacao = especificacao.and(doUsuario(filtro.getUsuario().getId()));
+		
+		if(filtro.getAno() != null)
+			especificacao = especificacao.and(doAno(filtro.getAno()));
+		
+		if(filtro.getMes() != null)
+			especificacao = especificacao.and(doMes(filtro.getMes()));
+		
+		if(filtro.getTipo() != null)
+			especificacao = especificacao.and(doTipo(filtro.getTipo()));
+		
+		if(filtro.getStatus() != null)
+			especificacao = especificacao.and(doStatus(filtro.getStatus()));
+		
+		if(filtro.getSerie() != null)
+			especificacao = especificacao.and(daSerie(filtro.getSerie()));
+		
+		if(filtro.getDescricao() != null && !filtro.getDescricao().trim().isEmpty())
+			especificacao = especificacao.and(comDescricao(filtro.getDescricao().trim(), buscaDescricao));
+		
+		return especificacao;
+	}
+	
+	public static Specification<Lancamento> comIds(Collection<Long> ids) {
+		return (root, query, cb) -> root.get("id").in(ids);
+	}
+	
+	public static Specification<Lancamento> doUsuario(Long idUsuario) {
+		return (root, query, cb) -> cb.equal(root.get("usuario").get("id"), idUsuario);
+	}
+	
+	public static Specification<Lancamento> doAno(Integer ano) {
+		return (root, query, cb) -> cb.equal(root.get("ano"), ano);
+	}
+	
+	public static Specification<Lancamento> doMes(Integer mes) {
+		return (root, query, cb) -> cb.equal(root.get("mes"), mes);
+	}
+	
+	public static Specification<Lancamento> doTipo(TipoLancamento tipo) {
+		return (root, query, cb) -> cb.equal(root.get("tipo"), tipo);
+	}
+	
+	public static Specification<Lancamento> doStatus(StatusLancamento status) {
+		return (root, query, cb) -> cb.equal(root.get("status"), status);
+	}
+	
+	public static Specification<Lancamento> daSerie(Long serie) {
+		return (root, query, cb) -> cb.equal(root.get("serie"), serie);
+	}
+	
+	public static Specification<Lancamento> comDescricao(String termo, BuscaDescricao buscaDescricao) {
+		return (root, query, cb) -> buscaDescricao.predicado(cb, cb.lower(root.get("descricao")), termo);
+	}
+}
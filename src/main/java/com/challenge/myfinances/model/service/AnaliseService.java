@@ -0,0 +1,23 @@
+package com.challenge.myfinances.model.service;
+
+import java.util.List;
+
+import com.challenge.myfinances.model.entity.Dinheiro;
+import com.challenge.myfinances.model.entity.Lancamento;
+import com.challenge.myfinances.model.enumeration.Agrupamento;
+import com.challenge.myfinances.model.repository.projection.LancamentoResumo;
+
+public interface AnaliseService {
+	
+	/*
+	 * versaoMinima é a versão do usuário já conhecida por quem consulta: colunas
+	 * carregadas antes dela são recarregadas.
+	 */
+	ResultadoAnalise<List<TotalAnalise>> agrupar(Long idUsuario, FiltroAnalise filtro, Agrupamento agrupamento, long versaoMinima);
+	
+	ResultadoAnalise<List<LancamentoResumo>> obterMaiores(Long idUsuario, FiltroAnalise filtro, Integer quantidade, long versaoMinima);
+	
+	ResultadoAnalise<Dinheiro> somar(Long idUsuario, FiltroAnalise filtro, long versaoMinima);
+	
+	void registrarAlteracoes(List<Lancamento> anteriores, List<Lancamento> atuais);
+}
@@ -0,0 +1,27 @@
+package com.challenge.myfinances.model.service;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.challenge.myfinances.model.entity.Dinheiro;
+import com.challenge.myfinances.model.entity.Fechamento;
+import com.challenge.myfinances.model.enumeration.StatusLancamento;
+import com.challenge.myfinances.model.enumeration.TipoLancamento;
+import com.challenge.myfinances.model.repository.projection.SaldoPeriodo;
+
+public interface FechamentoService {
+	
+	Fechamento fechar(Long idUsuario, Integer ano, Integer mes);
+	
+	void reabrir(Long idUsuario, Integer ano, Integer mes);
+	
+	Optional<Fechamento> obterFechamento(Long idUsuario);
+	
+	int obterFechadoAte(Long idUsuario);
+	
+	void validarPeriodoAberto(Long idUsuario, Integer ano, Integer mes);
+	
+	List<SaldoPeriodo> obterSaldoMensal(Long idUsuario, int inicio, int fim);
+	
+	Dinheiro obterTotal(Long idUsuario, TipoLancamento tipo, StatusLancamento status);
+}
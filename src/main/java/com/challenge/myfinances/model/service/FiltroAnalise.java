@@ -0,0 +1,19 @@
+package com.challenge.myfinances.model.service;
+
+import com.challenge.myfinances.model.enumeration.StatusLancamento;
+import com.challenge.myfinances.model.enumeration.TipoLancamento;
+
+import lombok.Builder;
+import lombok.Value;
+
+//campos nulos não restringem a seleção
+@Value
+@Builder
+public class FiltroAnalise {
+	
+	private Integer anoInicial;
+	private Integer anoFinal;
+	private Integer mes;
+	private TipoLancamento tipo;
+	private StatusLancamento status;
+}
@@ -1,26 +1,58 @@
 package com.challenge.myfinances.model.service;
 
-import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
+import org.springframework.data.domain.Slice;
+
+import com.challenge.myfinances.model.entity.Dinheiro;
 import com.challenge.myfinances.model.entity.Lancamento;
+import com.challenge.myfinances.model.enumeration.ResultadoAtualizacao;
 import com.challenge.myfinances.model.enumeration.StatusLancamento;
+import com.challenge.myfinances.model.enumeration.TipoSerie;
+import com.challenge.myfinances.model.repository.CursorLancamento;
+import com.challenge.myfinances.model.repository.projection.LancamentoResumo;
+import com.challenge.myfinances.model.repository.projection.SaldoPeriodo;
 
 public interface LancamentoService {
 	
 	Lancamento salvar(Lancamento lancamento);
 	
+	List<Lancamento> salvarEmLote(List<Lancamento> lancamentos);
+	
+	List<Lancamento> salvarSerie(Lancamento modelo, Integer quantidade, TipoSerie tipoSerie);
+	
 	Lancamento atualizar(Lancamento lancamento);
 	
 	void deletar(Lancamento lancamento);
 	
+	int deletarSerie(Long serie, Long idUsuario);
+	
 	List<Lancamento> buscar(Lancamento lancamentofiltro);
 	
+	List<LancamentoResumo> buscarResumos(Lancamento lancamentofiltro);
+	
+	Slice<LancamentoResumo> buscarPagina(Lancamento lancamentofiltro, CursorLancamento cursor, Integer tamanho);
+	
+	long exportar(Long idUsuario, Consumer<Lancamento> consumidor);
+	
 	void atualizarStatus(Lancamento lancamento, StatusLancamento status);
 	
+	LancamentoResumo atualizarStatus(Long id, Long versao, StatusLancamento status);
+	
+	Map<Long, ResultadoAtualizacao> atualizarStatusEmLote(Lancamento filtro, List<Long> ids, StatusLancamento status);
+	
 	void validar(Lancamento lancamento);
 	
 	Lancamento obterPorId(Long id);
 	
-	BigDecimal obterSaldoPorUsuario(Long id);
+	LancamentoResumo obterResumoPorId(Long id);
+	
+	Dinheiro obterSaldoPorUsuario(Long id);
+	
+	List<SaldoPeriodo> obterSaldoMensal(Long idUsuario, Integer anoInicial, Integer mesInicial, 
+			Integer anoFinal, Integer mesFinal);
+	
+	List<SaldoPeriodo> obterSaldoAnual(Long idUsuario, Integer anoInicial, Integer anoFinal);
 }
@@ -0,0 +1,14 @@
+package com.challenge.myfinances.model.service;
+
+import java.util.Set;
+
+import lombok.Value;
+
+/*
+ * Publicado a cada gravação de lançamentos, com os usuários afetados.
+ */
+@Value
+public class LancamentosAlteradosEvent {
+	
+	private final Set<Long> usuarios;
+}
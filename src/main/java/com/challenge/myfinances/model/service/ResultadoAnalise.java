@@ -0,0 +1,14 @@
+package com.challenge.myfinances.model.service;
+
+import lombok.Value;
+
+/*
+ * Resultado de AnaliseService com a versão do usuário das colunas que o calcularam:
+ * o conteúdo é no mínimo dessa versão, então ela pode identificar a resposta (ETag).
+ */
+@Value
+public class ResultadoAnalise<T> {
+	
+	private long versao;
+	private T valor;
+}
@@ -0,0 +1,19 @@
+package com.challenge.myfinances.model.service;
+
+import java.util.List;
+
+import com.challenge.myfinances.model.entity.Dinheiro;
+import com.challenge.myfinances.model.entity.Lancamento;
+
+public interface SaldoService {
+	
+	void registrarAlteracao(Lancamento anterior, Lancamento atual);
+	
+	void registrarAlteracoes(List<Lancamento> anteriores, List<Lancamento> atuais);
+	
+	Dinheiro obterSaldo(Long idUsuario);
+	
+	Dinheiro recalcular(Long idUsuario);
+	
+	void recalcularTodos();
+}
@@ -0,0 +1,12 @@
+package com.challenge.myfinances.model.service;
+
+import java.time.Instant;
+
+import lombok.Value;
+
+@Value
+public class TokenAcesso {
+	
+	private String token;
+	private Instant expiraEm;
+}
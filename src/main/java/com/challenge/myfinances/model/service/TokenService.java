@@ -0,0 +1,6 @@
+package com.challenge.myfinances.model.service;
+
+public interface TokenService {
+	TokenAcesso gerar(Long idUsuario);
+	Long obterIdUsuario(String token);
+}
@@ -0,0 +1,23 @@
+package com.challenge.myfinances.model.service;
+
+import com.challenge.myfinances.model.entity.Dinheiro;
+import com.challenge.myfinances.model.enumeration.StatusLancamento;
+import com.challenge.myfinances.model.enumeration.TipoLancamento;
+
+import lombok.Value;
+
+/*
+ * Um grupo do resultado de AnaliseService.agrupar: apenas as chaves do
+ * agrupamento pedido são preenchidas (ex.: ano e mes para MES).
+ */
+@Value
+public class TotalAnalise {
+	
+	private Integer ano;
+	private Integer mes;
+	private TipoLancamento tipo;
+	private StatusLancamento status;
+	private Dinheiro receitas;
+	private Dinheiro despesas;
+	private long quantidade;
+}
@@ -1,10 +1,17 @@
 package com.challenge.myfinances.model.service;
 
+import java.util.Map;
+
 import com.challenge.myfinances.model.entity.Usuario;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 
 public interface UsuarioService {
     Usuario autenticar(String email, String senha);
     Usuario cadastrar(Usuario usuario);
     void validarEmail(String email);
 	Usuario obterPorId(Long id);
+	Usuario obterReferencia(Long id);
+	void deletar(Long id);
+	Map<String, CacheStats> obterEstatisticasCache();
+	void limparCache();
 }
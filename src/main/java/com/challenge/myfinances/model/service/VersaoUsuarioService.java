@@ -0,0 +1,10 @@
+package com.challenge.myfinances.model.service;
+
+import java.util.Set;
+
+public interface VersaoUsuarioService {
+	
+	long obterVersao(Long idUsuario);
+	
+	void incrementar(Set<Long> usuarios);
+}
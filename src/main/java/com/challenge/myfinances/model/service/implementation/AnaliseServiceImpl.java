@@ -0,0 +1,244 @@
+package com.challenge.myfinances.model.service.implementation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.challenge.myfinances.model.entity.Dinheiro;
+import com.challenge.myfinances.model.entity.Lancamento;
+import com.challenge.myfinances.model.enumeration.Agrupamento;
+import com.challenge.myfinances.model.enumeration.StatusLancamento;
+import com.challenge.myfinances.model.enumeration.TipoLancamento;
+import com.challenge.myfinances.model.exception.BusinessRuleException;
+import com.challenge.myfinances.model.repository.LancamentoRepository;
+import com.challenge.myfinances.model.repository.projection.LancamentoResumo;
+import com.challenge.myfinances.model.repository.specification.LancamentoSpecifications;
+import com.challenge.myfinances.model.service.AnaliseService;
+import com.challenge.myfinances.model.service.FiltroAnalise;
+import com.challenge.myfinances.model.service.ResultadoAnalise;
+import com.challenge.myfinances.model.service.TotalAnalise;
+import com.challenge.myfinances.model.service.VersaoUsuarioService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+@Service
+public class AnaliseServiceImpl implements AnaliseService {
+	
+	static final int QUANTIDADE_PADRAO = 10;
+	static final int QUANTIDADE_MAXIMA = 100;
+	
+	private final LancamentoRepository repository;
+	private final VersaoUsuarioService versaoService;
+	
+	/*
+	 * Colunas por usuário, carregadas no primeiro uso e mantidas pelas gravações do
+	 * LancamentoService. O peso de cada usuário é a memória dos seus arrays: acima do
+	 * limite os menos usados saem e voltam a ser carregados na próxima consulta.
+	 * Gravações de outras instâncias não chegam aqui: as colunas ficam com a versão
+	 * antiga e são recarregadas quando a consulta pede uma versão mais nova.
+	 */
+	private final Cache<Long, LancamentosColunares> colunas;
+	
+	@Autowired
+	public AnaliseServiceImpl(LancamentoRepository repository, VersaoUsuarioService versaoService,
+			@Value("${myfinances.analise.memoria-maxima-mb:64}") long memoriaMaximaMb,
+			@Value("${myfinances.analise.expiracao-segundos:600}") long expiracaoSegundos) {
+		this.repository = repository;
+		this.versaoService = versaoService;
+		this.colunas = Caffeine.newBuilder()
+				.maximumWeight(memoriaMaximaMb * 1024 * 1024)
+				.weigher((Long idUsuario, LancamentosColunares lancamentos) ->
+						(int) Math.min(Integer.MAX_VALUE, lancamentos.bytes()))
+				.expireAfterWrite(expiracaoSegundos, TimeUnit.SECONDS)
+				.build();
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public ResultadoAnalise<List<TotalAnalise>> agrupar(Long idUsuario, FiltroAnalise filtro, Agrupamento agrupamento,
+			long versaoMinima) {
+		validar(filtro);
+		if(agrupamento == null)
+			throw new BusinessRuleException("Informe um agrupamento válido");
+	
+		LancamentosColunares lancamentos = obterColunas(idUsuario, versaoMinima);
+		return new ResultadoAnalise<>(lancamentos.versao(), lancamentos.agrupar(filtro, agrupamento));
+	}
+	
+	/*
+	 * Os ids vêm das colunas; descrição e demais campos, de uma única consulta
+	 * pelos ids, reordenada pela posição no ranking.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public ResultadoAnalise<List<LancamentoResumo>> obterMaiores(Long idUsuario, FiltroAnalise filtro, Integer quantidade,
+			long versaoMinima) {
+		validar(filtro);
+		int limite = quantidade == null ? QUANTIDADE_PADRAO : quantidade;
+		if(limite < 1 || limite > QUANTIDADE_MAXIMA)
+			throw new BusinessRuleException("Informe uma quantidade entre 1 e " + QUANTIDADE_MAXIMA);
+	
+		LancamentosColunares lancamentos = obterColunas(idUsuario, versaoMinima);
+		long[] ids = lancamentos.maiores(filtro, limite);
+		if(ids.length == 0)
+			return new ResultadoAnalise<>(lancamentos.versao(), new ArrayList<>());
+	
+		Map<Long, Integer> posicoes = new HashMap<>();
+		for(int i = 0; i < ids.length; i++)
+			posicoes.put(ids[i], i);
+	
+		List<LancamentoResumo> resumos = repository.buscarResumos(
+				LancamentoSpecifications.comIds(posicoes.keySet()), null, null);
+		resumos.sort(Comparator.comparing(resumo -> posicoes.get(resumo.getId())));
+		return new ResultadoAnalise<>(lancamentos.versao(), resumos);
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public ResultadoAnalise<Dinheiro> somar(Long idUsuario, FiltroAnalise filtro, long versaoMinima) {
+		validar(filtro);
+		LancamentosColunares lancamentos = obterColunas(idUsuario, versaoMinima);
+		return new ResultadoAnalise<>(lancamentos.versao(), Dinheiro.deCentavos(lancamentos.somar(filtro)));
+	}
+	
+	/*
+	 * Aplica nas colunas já carregadas o estado final dos lançamentos gravados. Com
+	 * transação ativa só depois do commit, para não expor nem manter gravações desfeitas.
+	 * A versão gravada por esta transação é lida antes do commit, com o registro ainda
+	 * bloqueado pelo incremento: se as colunas estavam na versão imediatamente anterior,
+	 * passam para ela; senão ficam na antiga e a próxima consulta recarrega.
+	 */
+	@Override
+	public void registrarAlteracoes(List<Lancamento> anteriores, List<Lancamento> atuais) {
+		Map<Long, Long> usuariosAtuais = new HashMap<>();
+		Map<Long, List<Alteracao>> alteracoes = new HashMap<>();
+	
+		for(Lancamento atual : atuais)
+			if(atual != null && atual.getId() != null && atual.getUsuario() != null) {
+				usuariosAtuais.put(atual.getId(), atual.getUsuario().getId());
+				alteracoes.computeIfAbsent(atual.getUsuario().getId(), id -> new ArrayList<>())
+					.add(new Alteracao(atual, false));
+			}
+	
+		//exclusões e lançamentos que passaram para outro usuário
+		for(Lancamento anterior : anteriores)
+			if(anterior != null && anterior.getId() != null && anterior.getUsuario() != null
+					&& !Objects.equals(usuariosAtuais.get(anterior.getId()), anterior.getUsuario().getId()))
+				alteracoes.computeIfAbsent(anterior.getUsuario().getId(), id -> new ArrayList<>())
+					.add(new Alteracao(anterior, true));
+	
+		if(alteracoes.isEmpty())
+			return;
+	
+		if(TransactionSynchronizationManager.isSynchronizationActive())
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				
+				private final Map<Long, Long> versoes = new HashMap<>();
+				
+				@Override
+				public void beforeCommit(boolean readOnly) {
+					//só para quem está no cache: os demais não têm versão a avançar
+					alteracoes.keySet().stream()
+						.filter(idUsuario -> colunas.getIfPresent(idUsuario) != null)
+						.forEach(idUsuario -> versoes.put(idUsuario, versaoService.obterVersao(idUsuario)));
+				}
+				
+				@Override
+				public void afterCommit() {
+					aplicar(alteracoes, versoes);
+				}
+			});
+		else
+			aplicar(alteracoes, new HashMap<>());
+	}
+	
+	//usuários fora do cache são ignorados: a próxima carga já lê o estado gravado
+	private void aplicar(Map<Long, List<Alteracao>> alteracoes, Map<Long, Long> versoes) {
+		alteracoes.forEach((idUsuario, doUsuario) ->
+			colunas.asMap().computeIfPresent(idUsuario, (id, lancamentos) -> {
+				doUsuario.forEach(alteracao -> alteracao.aplicar(lancamentos));
+				Long versao = versoes.get(id);
+				if(versao != null)
+					lancamentos.avancarVersao(versao - 1, versao);
+				return lancamentos;
+			}));
+	}
+	
+	/*
+	 * Colunas mais antigas que a versão pedida perderam gravações (de outra instância
+	 * ou ainda não aplicadas) e são recarregadas; entre duas cargas concorrentes fica
+	 * a de versão maior.
+	 */
+	private LancamentosColunares obterColunas(Long idUsuario, long versaoMinima) {
+		LancamentosColunares lancamentos = colunas.get(idUsuario, this::carregar);
+		if(lancamentos.versao() >= versaoMinima)
+			return lancamentos;
+	
+		return colunas.asMap().merge(idUsuario, carregar(idUsuario),
+				(atuais, novas) -> novas.versao() > atuais.versao() ? novas : atuais);
+	}
+	
+	//a versão é lida antes dos lançamentos: o que vier depois só deixa o conteúdo mais novo
+	private LancamentosColunares carregar(Long idUsuario) {
+		LancamentosColunares lancamentos = new LancamentosColunares(versaoService.obterVersao(idUsuario));
+	
+		repository.percorrerValoresPorUsuario(idUsuario, linha -> lancamentos.gravar(
+				(Long) linha[0],
+				(Integer) linha[1],
+				(Integer) linha[2],
+				((Dinheiro) linha[3]).centavos(),
+				(TipoLancamento) linha[4],
+				(StatusLancamento) linha[5]));
+	
+		return lancamentos;
+	}
+	
+	private void validar(FiltroAnalise filtro) {
+		if(filtro.getMes() != null && (filtro.getMes() < 1 || filtro.getMes() > 12))
+			throw new BusinessRuleException("Informe um Mês válido");
+	
+		if(filtro.getAnoInicial() != null && filtro.getAnoFinal() != null
+				&& filtro.getAnoInicial() > filtro.getAnoFinal())
+			throw new BusinessRuleException("O período inicial deve ser anterior ao período final");
+	}
+	
+	//estado do lançamento copiado no momento da gravação, aplicado após o commit
+	private static final class Alteracao {
+	
+		private final long id;
+		private final int ano;
+		private final int mes;
+		private final long centavos;
+		private final TipoLancamento tipo;
+		private final StatusLancamento status;
+		private final boolean remocao;
+	
+		private Alteracao(Lancamento lancamento, boolean remocao) {
+			this.id = lancamento.getId();
+			this.remocao = remocao;
+			this.ano = remocao ? 0 : lancamento.getAno();
+			this.mes = remocao ? 0 : lancamento.getMes();
+			this.centavos = remocao ? 0 : lancamento.getValor().centavos();
+			this.tipo = lancamento.getTipo();
+			this.status = lancamento.getStatus();
+		}
+	
+		private void aplicar(LancamentosColunares lancamentos) {
+			if(remocao)
+				lancamentos.remover(id);
+			else
+				lancamentos.gravar(id, ano, mes, centavos, tipo, status);
+		}
+	}
+}
@@ -0,0 +1,209 @@
+package com.challenge.myfinances.model.service.implementation;
+
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.challenge.myfinances.model.entity.Dinheiro;
+import com.challenge.myfinances.model.entity.Fechamento;
+import com.challenge.myfinances.model.entity.FechamentoTotal;
+import com.challenge.myfinances.model.enumeration.StatusLancamento;
+import com.challenge.myfinances.model.enumeration.TipoLancamento;
+import com.challenge.myfinances.model.exception.BusinessRuleException;
+import com.challenge.myfinances.model.repository.FechamentoRepository;
+import com.challenge.myfinances.model.repository.FechamentoTotalRepository;
+import com.challenge.myfinances.model.repository.LancamentoRepository;
+import com.challenge.myfinances.model.repository.projection.SaldoPeriodo;
+import com.challenge.myfinances.model.service.FechamentoService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+@Service
+public class FechamentoServiceImpl implements FechamentoService {
+	
+	private final FechamentoRepository repository;
+	private final FechamentoTotalRepository totalRepository;
+	private final LancamentoRepository lancamentoRepository;
+	
+	/*
+	 * Último período fechado (aaaamm) por usuário, 0 quando não há fechamento, para
+	 * as leituras. Também guarda a ausência. As gravações não usam o cache: leem do
+	 * banco com o usuário bloqueado (ver obterFechadoAte).
+	 */
+	private final Cache<Long, Integer> fechadosAte;
+	
+	@Autowired
+	public FechamentoServiceImpl(FechamentoRepository repository, FechamentoTotalRepository totalRepository,
+			LancamentoRepository lancamentoRepository,
+			@Value("${myfinances.cache.fechamento.tamanho-maximo:10000}") long tamanhoMaximo,
+			@Value("${myfinances.cache.fechamento.expiracao-segundos:600}") long expiracaoSegundos) {
+		this.repository = repository;
+		this.totalRepository = totalRepository;
+		this.lancamentoRepository = lancamentoRepository;
+		this.fechadosAte = Caffeine.newBuilder()
+				.maximumSize(tamanhoMaximo)
+				.expireAfterWrite(expiracaoSegundos, TimeUnit.SECONDS)
+				.build();
+	}
+	
+	/*
+	 * Fecha todos os meses ainda abertos até o ano/mês informado (inclusive),
+	 * guardando os totais de cada mês por tipo e status.
+	 */
+	@Override
+	@Transactional
+	public Fechamento fechar(Long idUsuario, Integer ano, Integer mes) {
+		validarMes(ano, mes);
+		
+		int periodo = Fechamento.periodo(ano, mes);
+		YearMonth atual = YearMonth.now();
+		if(periodo >= Fechamento.periodo(atual.getYear(), atual.getMonthValue()))
+			throw new BusinessRuleException("Apenas meses encerrados podem ser fechados");
+		
+		int fechadoAte = obterFechadoAte(idUsuario);
+		Fechamento fechamento = repository.obterParaAtualizacao(idUsuario)
+				.orElseGet(() -> Fechamento.builder().idUsuario(idUsuario).build());
+		
+		if(periodo <= fechadoAte)
+			throw new BusinessRuleException(String.format("Período já fechado até %02d/%d", 
+					fechamento.getMes(), fechamento.getAno()));
+		
+		List<FechamentoTotal> totais = lancamentoRepository
+				.obterTotaisPorPeriodo(idUsuario, fechadoAte / 100, ano, fechadoAte + 1, periodo).stream()
+				.map(total -> FechamentoTotal.builder()
+						.idUsuario(idUsuario)
+						.ano((Integer) total[0])
+						.mes((Integer) total[1])
+						.tipo((TipoLancamento) total[2])
+						.status((StatusLancamento) total[3])
+						.total((Dinheiro) total[4])
+						.build())
+				.collect(Collectors.toList());
+		totalRepository.saveAll(totais);
+		
+		fechamento.setAno(ano);
+		fechamento.setMes(mes);
+		Fechamento salvo = repository.save(fechamento);
+		invalidarCache(idUsuario);
+		return salvo;
+	}
+	
+	/*
+	 * Reabre o ano/mês informado e todos os posteriores. Os totais desses meses
+	 * são descartados e recalculados no próximo fechamento.
+	 */
+	@Override
+	@Transactional
+	public void reabrir(Long idUsuario, Integer ano, Integer mes) {
+		validarMes(ano, mes);
+		
+		int periodo = Fechamento.periodo(ano, mes);
+		obterFechadoAte(idUsuario);
+		Fechamento fechamento = repository.obterParaAtualizacao(idUsuario)
+				.filter(f -> f.getPeriodo() >= periodo)
+				.orElseThrow(() -> new BusinessRuleException("O período informado não está fechado"));
+		
+		totalRepository.removerAPartirDe(idUsuario, ano, periodo);
+		
+		YearMonth anterior = YearMonth.of(ano, mes).minusMonths(1);
+		fechamento.setAno(anterior.getYear());
+		fechamento.setMes(anterior.getMonthValue());
+		repository.save(fechamento);
+		invalidarCache(idUsuario);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Optional<Fechamento> obterFechamento(Long idUsuario) {
+		return repository.findById(idUsuario);
+	}
+
+	/*
+	 * Em uma transação de gravação, lê do banco bloqueando o usuário, a mesma linha que
+	 * fechar e reabrir bloqueiam: um fechamento espera as gravações em andamento e as
+	 * gravações seguintes já enxergam o período fechado, em qualquer instância. A
+	 * leitura vale para o resto da transação. Fora dela (leituras), usa o cache.
+	 */
+	@Override
+	public int obterFechadoAte(Long idUsuario) {
+		if(!TransactionSynchronizationManager.isActualTransactionActive() 
+				|| TransactionSynchronizationManager.isCurrentTransactionReadOnly())
+			return fechadosAte.get(idUsuario, id -> repository.findById(id).map(Fechamento::getPeriodo).orElse(0));
+		
+		return lidosNaTransacao().computeIfAbsent(idUsuario, 
+				id -> repository.bloquearEObterFechadoAte(id).orElse(0));
+	}
+
+	@Override
+	public void validarPeriodoAberto(Long idUsuario, Integer ano, Integer mes) {
+		if(ano != null && mes != null && Fechamento.periodo(ano, mes) <= obterFechadoAte(idUsuario))
+			throw new BusinessRuleException(String.format(
+					"O período %02d/%d está fechado, reabra-o para alterar seus lançamentos", mes, ano));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<SaldoPeriodo> obterSaldoMensal(Long idUsuario, int inicio, int fim) {
+		return totalRepository.obterSaldoMensal(idUsuario, inicio / 100, fim / 100, inicio, fim, 
+				TipoLancamento.RECEITA, TipoLancamento.DESPESA);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Dinheiro obterTotal(Long idUsuario, TipoLancamento tipo, StatusLancamento status) {
+		Dinheiro total = totalRepository.obterTotal(idUsuario, tipo, status);
+		return total == null ? Dinheiro.ZERO : total;
+	}
+	
+	private void validarMes(Integer ano, Integer mes) {
+		if(mes == null || mes < 1 || mes > 12)
+			throw new BusinessRuleException("Informe um Mês válido");
+		
+		if(ano == null || ano.toString().length() != 4)
+			throw new BusinessRuleException("Informe um Ano válido");
+	}
+	
+	@SuppressWarnings("unchecked")
+	private Map<Long, Integer> lidosNaTransacao() {
+		Map<Long, Integer> lidos = (Map<Long, Integer>) TransactionSynchronizationManager.getResource(this);
+		if(lidos != null)
+			return lidos;
+		
+		Map<Long, Integer> novos = new HashMap<>();
+		TransactionSynchronizationManager.bindResource(this, novos);
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+			@Override
+			public void afterCompletion(int status) {
+				TransactionSynchronizationManager.unbindResourceIfPossible(FechamentoServiceImpl.this);
+			}
+		});
+		return novos;
+	}
+	
+	//invalida de novo ao fim da transação para não manter um valor lido antes do commit
+	private void invalidarCache(Long idUsuario) {
+		fechadosAte.invalidate(idUsuario);
+		Map<?, ?> lidos = (Map<?, ?>) TransactionSynchronizationManager.getResource(this);
+		if(lidos != null)
+			lidos.remove(idUsuario);
+		
+		if(TransactionSynchronizationManager.isSynchronizationActive())
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCompletion(int status) {
+					fechadosAte.invalidate(idUsuario);
+				}
+			});
+	}
+}
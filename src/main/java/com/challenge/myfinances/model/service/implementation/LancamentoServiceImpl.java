@@ -1,21 +1,50 @@
 package com.challenge.myfinances.model.service.implementation;
 
-import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
-import org.springframework.data.domain.Example;
-import org.springframework.data.domain.ExampleMatcher;
-import org.springframework.data.domain.ExampleMatcher.StringMatcher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.challenge.myfinances.model.entity.Dinheiro;
+import com.challenge.myfinances.model.entity.Fechamento;
 import com.challenge.myfinances.model.entity.Lancamento;
+import com.challenge.myfinances.model.entity.Usuario;
+import com.challenge.myfinances.model.enumeration.ResultadoAtualizacao;
 import com.challenge.myfinances.model.enumeration.StatusLancamento;
 import com.challenge.myfinances.model.enumeration.TipoLancamento;
+import com.challenge.myfinances.model.enumeration.TipoSerie;
 import com.challenge.myfinances.model.exception.BusinessRuleException;
+import com.challenge.myfinances.model.exception.ConflitoVersaoException;
+import com.challenge.myfinances.model.repository.CursorLancamento;
 import com.challenge.myfinances.model.repository.LancamentoRepository;
+import com.challenge.myfinances.model.repository.projection.LancamentoResumo;
+import com.challenge.myfinances.model.repository.projection.SaldoPeriodo;
+import com.challenge.myfinances.model.repository.projection.SaldoPeriodoAcumulado;
+import com.challenge.myfinances.model.repository.specification.BuscaDescricao;
+import com.challenge.myfinances.model.repository.specification.LancamentoSpecifications;
+import com.challenge.myfinances.model.service.AnaliseService;
+import com.challenge.myfinances.model.service.FechamentoService;
 import com.challenge.myfinances.model.service.LancamentoService;
+import com.challenge.myfinances.model.service.LancamentosAlteradosEvent;
+import com.challenge.myfinances.model.service.SaldoService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -23,14 +52,114 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class LancamentoServiceImpl implements LancamentoService {
 	
+	static final int TAMANHO_PAGINA_PADRAO = 50;
+	static final int TAMANHO_PAGINA_MAXIMO = 500;
+	static final int TAMANHO_LOTE_MAXIMO = 10_000;
+	static final int QUANTIDADE_MAXIMA_SERIE = 360;
+	
+	//quantidade de ids por cláusula "in" nas consultas em lote
+	static final int TAMANHO_BLOCO = 1_000;
+	
 	private final LancamentoRepository repository;
+	private final SaldoService saldoService;
+	private final FechamentoService fechamentoService;
+	private final AnaliseService analiseService;
+	private final ApplicationEventPublisher eventos;
+	
+	//padrão TRIGRAMA: mantém a busca original por "contém" quando a propriedade não é informada
+	@Value("${myfinances.busca.descricao:TRIGRAMA}")
+	private BuscaDescricao buscaDescricao = BuscaDescricao.TRIGRAMA;
 
 	@Override
 	@Transactional
 	public Lancamento salvar(Lancamento lancamento) {
 		validar(lancamento);
+		validarPeriodoAberto(lancamento);
 		lancamento.setStatus(StatusLancamento.PENDENTE);
-		return repository.save(lancamento);
+		Lancamento salvo = repository.save(lancamento);
+		saldoService.registrarAlteracao(null, salvo);
+		analiseService.registrarAlteracoes(Collections.emptyList(), Collections.singletonList(salvo));
+		publicarAlteracao(Collections.singletonList(salvo));
+		return salvo;
+	}
+
+	@Override
+	@Transactional
+	public List<Lancamento> salvarEmLote(List<Lancamento> lancamentos) {
+		if(lancamentos == null || lancamentos.isEmpty())
+			throw new BusinessRuleException("Informe ao menos um lançamento");
+		
+		if(lancamentos.size() > TAMANHO_LOTE_MAXIMO)
+			throw new BusinessRuleException("Informe no máximo " + TAMANHO_LOTE_MAXIMO + " lançamentos por lote");
+		
+		for(int i = 0; i < lancamentos.size(); i++) {
+			try {
+				validar(lancamentos.get(i));
+				validarPeriodoAberto(lancamentos.get(i));
+			}catch(BusinessRuleException ex) {
+				throw new BusinessRuleException("Lançamento " + (i + 1) + ": " + ex.getMessage());
+			}
+			lancamentos.get(i).setStatus(StatusLancamento.PENDENTE);
+		}
+		
+		//lançamentos novos entram como PENDENTE, portanto não alteram o saldo materializado
+		List<Lancamento> inseridos = repository.inserirEmLote(lancamentos);
+		analiseService.registrarAlteracoes(Collections.emptyList(), inseridos);
+		publicarAlteracao(inseridos);
+		return inseridos;
+	}
+
+	/*
+	 * Expande a série em uma ocorrência por mês a partir do ano/mês do modelo. A validação
+	 * é feita uma vez, no modelo: as ocorrências só mudam o período (posterior ao primeiro,
+	 * portanto também aberto), o valor e a parcela. Todas são gravadas no mesmo lote.
+	 */
+	@Override
+	@Transactional
+	public List<Lancamento> salvarSerie(Lancamento modelo, Integer quantidade, TipoSerie tipoSerie) {
+		if(tipoSerie == null)
+			throw new BusinessRuleException("Informe um tipo de série válido");
+		
+		if(quantidade == null || quantidade < 2 || quantidade > QUANTIDADE_MAXIMA_SERIE)
+			throw new BusinessRuleException("Informe uma quantidade entre 2 e " + QUANTIDADE_MAXIMA_SERIE);
+		
+		validar(modelo);
+		validarPeriodoAberto(modelo);
+		
+		int primeiroMes = modelo.getAno() * 12 + modelo.getMes() - 1;
+		if((primeiroMes + quantidade - 1) / 12 > 9999)
+			throw new BusinessRuleException("Informe um Ano válido");
+		
+		//no parcelamento, os centavos que sobram da divisão vão para as primeiras parcelas
+		long total = modelo.getValor().centavos();
+		long valor = tipoSerie == TipoSerie.PARCELADA ? total / quantidade : total;
+		long resto = tipoSerie == TipoSerie.PARCELADA ? total % quantidade : 0;
+		
+		if(valor == 0)
+			throw new BusinessRuleException("O valor não pode ser dividido em " + quantidade + " parcelas");
+		
+		Long serie = repository.proximaSerie();
+		List<Lancamento> ocorrencias = new ArrayList<>(quantidade);
+		
+		for(int i = 0; i < quantidade; i++)
+			ocorrencias.add(Lancamento.builder()
+					.descricao(modelo.getDescricao())
+					.ano((primeiroMes + i) / 12)
+					.mes((primeiroMes + i) % 12 + 1)
+					.valor(Dinheiro.deCentavos(i < resto ? valor + 1 : valor))
+					.tipo(modelo.getTipo())
+					.status(StatusLancamento.PENDENTE)
+					.dataCadastro(modelo.getDataCadastro())
+					.usuario(modelo.getUsuario())
+					.serie(serie)
+					.parcela(i + 1)
+					.build());
+		
+		//ocorrências novas entram como PENDENTE, portanto não alteram o saldo materializado
+		List<Lancamento> inseridos = repository.inserirEmLote(ocorrencias);
+		analiseService.registrarAlteracoes(Collections.emptyList(), inseridos);
+		publicarAlteracao(inseridos);
+		return inseridos;
 	}
 
 	@Override
@@ -38,24 +167,106 @@ public class LancamentoServiceImpl implements LancamentoService {
 	public Lancamento atualizar(Lancamento lancamento) {
 		Objects.requireNonNull(lancamento.getId()); //garante que o lancamento tem id;
 		validar(lancamento);
-		return repository.save(lancamento);
+		
+		//sem versão informada, vale a versão atual (última gravação prevalece)
+		if(lancamento.getVersao() == null)
+			lancamento.setVersao(obterPorId(lancamento.getId()).getVersao());
+		
+		validarPeriodoAberto(lancamento);
+		Lancamento atualizado = repository.save(lancamento);
+		//o período de origem também precisa estar aberto; o merge ainda não foi gravado e é desfeito com a exceção
+		validarPeriodoAberto(atualizado.getEstadoPersistido());
+		saldoService.registrarAlteracao(atualizado.getEstadoPersistido(), atualizado);
+		analiseService.registrarAlteracoes(Collections.singletonList(atualizado.getEstadoPersistido()), 
+				Collections.singletonList(atualizado));
+		//o usuário de origem também muda de versão quando o lançamento troca de usuário
+		publicarAlteracao(Arrays.asList(atualizado.getEstadoPersistido(), atualizado));
+		atualizado.registrarEstadoPersistido();
+		return atualizado;
 	}
 
 	@Override
 	@Transactional 
 	public void deletar(Lancamento lancamento) {
 		Objects.requireNonNull(lancamento.getId());
+		Lancamento persistido = lancamento.getEstadoPersistido() != null ? lancamento.getEstadoPersistido() : lancamento;
+		validarPeriodoAberto(persistido);
 		repository.delete(lancamento);
+		saldoService.registrarAlteracao(persistido, null);
+		analiseService.registrarAlteracoes(Collections.singletonList(persistido), Collections.emptyList());
+		publicarAlteracao(Collections.singletonList(lancamento));
+	}
+
+	/*
+	 * Exclui as ocorrências da série que pertencem ao usuário em DELETEs por bloco de
+	 * ids; ocorrências de outro usuário nunca são excluídas. Com alguma ocorrência em período fechado, nada é excluído.
+	 * As ocorrências são lidas bloqueadas: o estorno no saldo e na análise é o do estado
+	 * que de fato sai, mesmo com uma edição concorrente.
+	 */
+	@Override
+	@Transactional
+	public int deletarSerie(Long serie, Long idUsuario) {
+		if(idUsuario == null)
+			throw new BusinessRuleException("Informe o usuário da série");
+		
+		//usuário antes dos lançamentos, na mesma ordem das demais gravações
+		fechamentoService.obterFechadoAte(idUsuario);
+		List<LancamentoResumo> ocorrencias = repository.bloquearResumos(
+				LancamentoSpecifications.daSerie(serie).and(LancamentoSpecifications.doUsuario(idUsuario)), null);
+		if(ocorrencias.isEmpty())
+			throw new BusinessRuleException("Série não encontrada");
+		
+		List<Lancamento> anteriores = new ArrayList<>();
+		for(LancamentoResumo ocorrencia : ocorrencias) {
+			fechamentoService.validarPeriodoAberto(ocorrencia.getIdUsuario(), ocorrencia.getAno(), ocorrencia.getMes());
+			anteriores.add(toLancamento(ocorrencia, ocorrencia.getStatus()));
+		}
+		
+		List<Long> ids = ocorrencias.stream().map(LancamentoResumo::getId).collect(Collectors.toList());
+		for(List<Long> bloco : particionar(ids))
+			repository.excluir(bloco);
+		
+		saldoService.registrarAlteracoes(anteriores, Collections.emptyList());
+		analiseService.registrarAlteracoes(anteriores, Collections.emptyList());
+		publicarAlteracao(anteriores);
+		return ocorrencias.size();
 	}
 
 	@Override
 	@Transactional(readOnly = true)
 	public List<Lancamento> buscar(Lancamento lancamentofiltro) {
-		Example<Lancamento> example = Example.of( lancamentofiltro, 
-				ExampleMatcher.matching()
-				.withIgnoreCase()
-				.withStringMatcher(StringMatcher.CONTAINING));
-		return repository.findAll(example);
+		return repository.findAll(LancamentoSpecifications.filtrar(lancamentofiltro, buscaDescricao), 
+				Sort.by("ano", "mes", "id"));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<LancamentoResumo> buscarResumos(Lancamento lancamentofiltro) {
+		return repository.buscarResumos(
+				LancamentoSpecifications.filtrar(lancamentofiltro, buscaDescricao), null, null);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Slice<LancamentoResumo> buscarPagina(Lancamento lancamentofiltro, CursorLancamento cursor, Integer tamanho) {
+		int limite = tamanho == null ? TAMANHO_PAGINA_PADRAO 
+				: Math.min(Math.max(tamanho, 1), TAMANHO_PAGINA_MAXIMO);
+		
+		//busca um registro a mais apenas para saber se existe próxima página
+		List<LancamentoResumo> lancamentos = repository.buscarResumos(
+				LancamentoSpecifications.filtrar(lancamentofiltro, buscaDescricao), cursor, limite + 1);
+		boolean possuiProxima = lancamentos.size() > limite;
+		
+		if(possuiProxima)
+			lancamentos = lancamentos.subList(0, limite);
+		
+		return new SliceImpl<>(lancamentos, PageRequest.of(0, limite), possuiProxima);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public long exportar(Long idUsuario, Consumer<Lancamento> consumidor) {
+		return repository.percorrerPorUsuario(idUsuario, consumidor);
 	}
 
 	@Override
@@ -65,6 +276,141 @@ public class LancamentoServiceImpl implements LancamentoService {
 		 atualizar(lancamento);
 	}
 
+	/*
+	 * Troca de status com um único UPDATE condicionado à versão. O estado anterior
+	 * vem da projeção (necessária para o saldo) e o novo estado é devolvido sem reler.
+	 */
+	@Override
+	@Transactional
+	public LancamentoResumo atualizarStatus(Long id, Long versao, StatusLancamento status) {
+		LancamentoResumo atual = obterResumoPorId(id);
+		fechamentoService.validarPeriodoAberto(atual.getIdUsuario(), atual.getAno(), atual.getMes());
+		Long versaoEsperada = versao == null ? atual.getVersao() : versao;
+		
+		if(!versaoEsperada.equals(atual.getVersao()) 
+				|| repository.atualizarStatusNaVersao(id, versaoEsperada, status) == 0)
+			throw new ConflitoVersaoException("Lançamento alterado por outra operação, recarregue e tente novamente");
+		
+		Lancamento atualizado = toLancamento(atual, status);
+		if(atual.getStatus() != status)
+			saldoService.registrarAlteracao(toLancamento(atual, atual.getStatus()), atualizado);
+		analiseService.registrarAlteracoes(Collections.emptyList(), Collections.singletonList(atualizado));
+		publicarAlteracao(Collections.singletonList(atualizado));
+		
+		return new LancamentoResumo(atual.getId(), atual.getDescricao(), atual.getMes(), atual.getAno(), 
+				atual.getValor(), atual.getTipo(), status, atual.getIdUsuario(), atual.getSerie(), atual.getParcela(), 
+				atual.getVersao() + 1);
+	}
+	
+	/*
+	 * Atualiza o status dos lançamentos informados (ids) ou selecionados pelo filtro
+	 * com UPDATEs em conjunto, agrupados pelo status anterior. Os lançamentos são lidos
+	 * já bloqueados, então as variações de saldo e da análise saem exatamente do
+	 * estado que os UPDATEs alteram.
+	 */
+	@Override
+	@Transactional
+	public Map<Long, ResultadoAtualizacao> atualizarStatusEmLote(Lancamento filtro, List<Long> ids, 
+			StatusLancamento status) {
+		if(status == null)
+			throw new BusinessRuleException("Informe um status válido");
+		
+		Map<Long, ResultadoAtualizacao> resultados = new LinkedHashMap<>();
+		List<LancamentoResumo> atuais = new ArrayList<>();
+		
+		//usuário antes dos lançamentos, na mesma ordem das demais gravações
+		if(filtro.getUsuario() != null && filtro.getUsuario().getId() != null)
+			fechamentoService.obterFechadoAte(filtro.getUsuario().getId());
+		
+		if(ids != null && !ids.isEmpty()) {
+			if(ids.size() > TAMANHO_LOTE_MAXIMO)
+				throw new BusinessRuleException("Informe no máximo " + TAMANHO_LOTE_MAXIMO + " lançamentos por lote");
+			
+			ids.forEach(id -> resultados.put(id, ResultadoAtualizacao.NAO_ENCONTRADO));
+			for(List<Long> bloco : particionar(new ArrayList<>(resultados.keySet())))
+				atuais.addAll(repository.bloquearResumos(
+						LancamentoSpecifications.filtrar(filtro, buscaDescricao)
+							.and(LancamentoSpecifications.comIds(bloco)), null));
+		}
+		else {
+			if((filtro.getUsuario() == null || filtro.getUsuario().getId() == null) && filtro.getSerie() == null)
+				throw new BusinessRuleException("Informe os lançamentos, um usuário ou uma série");
+			
+			atuais = repository.bloquearResumos(
+					LancamentoSpecifications.filtrar(filtro, buscaDescricao), TAMANHO_LOTE_MAXIMO + 1);
+			if(atuais.size() > TAMANHO_LOTE_MAXIMO)
+				throw new BusinessRuleException("O filtro seleciona mais de " + TAMANHO_LOTE_MAXIMO + " lançamentos");
+		}
+		
+		Map<StatusLancamento, List<Long>> porStatusAnterior = new EnumMap<>(StatusLancamento.class);
+		List<Lancamento> anteriores = new ArrayList<>();
+		List<Lancamento> atualizados = new ArrayList<>();
+		
+		for(LancamentoResumo atual : atuais) {
+			if(atual.getStatus() == status) {
+				resultados.put(atual.getId(), ResultadoAtualizacao.INALTERADO);
+				continue;
+			}
+			
+			if(Fechamento.periodo(atual.getAno(), atual.getMes()) <= fechamentoService.obterFechadoAte(atual.getIdUsuario())) {
+				resultados.put(atual.getId(), ResultadoAtualizacao.PERIODO_FECHADO);
+				continue;
+			}
+			
+			resultados.put(atual.getId(), ResultadoAtualizacao.ATUALIZADO);
+			porStatusAnterior.computeIfAbsent(atual.getStatus(), s -> new ArrayList<>()).add(atual.getId());
+			anteriores.add(toLancamento(atual, atual.getStatus()));
+			atualizados.add(toLancamento(atual, status));
+		}
+		
+		porStatusAnterior.forEach((anterior, idsAtualizados) -> {
+			for(List<Long> bloco : particionar(idsAtualizados))
+				if(repository.atualizarStatus(bloco, anterior, status) != bloco.size())
+					throw new BusinessRuleException("Lançamentos alterados por outra operação, tente novamente");
+		});
+		
+		saldoService.registrarAlteracoes(anteriores, atualizados);
+		analiseService.registrarAlteracoes(anteriores, atualizados);
+		publicarAlteracao(atualizados);
+		return resultados;
+	}
+	
+	//avisa os interessados (ex.: roteamento de leitura para a réplica) quais usuários tiveram gravações
+	private void publicarAlteracao(List<Lancamento> lancamentos) {
+		Set<Long> usuarios = lancamentos.stream()
+				.filter(lancamento -> lancamento != null && lancamento.getUsuario() != null 
+						&& lancamento.getUsuario().getId() != null)
+				.map(lancamento -> lancamento.getUsuario().getId())
+				.collect(Collectors.toSet());
+		
+		if(!usuarios.isEmpty())
+			eventos.publishEvent(new LancamentosAlteradosEvent(usuarios));
+	}
+	
+	private void validarPeriodoAberto(Lancamento lancamento) {
+		if(lancamento != null && lancamento.getUsuario() != null)
+			fechamentoService.validarPeriodoAberto(lancamento.getUsuario().getId(), lancamento.getAno(), lancamento.getMes());
+	}
+	
+	private static List<List<Long>> particionar(List<Long> ids) {
+		List<List<Long>> blocos = new ArrayList<>();
+		for(int i = 0; i < ids.size(); i += TAMANHO_BLOCO)
+			blocos.add(ids.subList(i, Math.min(i + TAMANHO_BLOCO, ids.size())));
+		return blocos;
+	}
+	
+	private static Lancamento toLancamento(LancamentoResumo resumo, StatusLancamento status) {
+		return Lancamento.builder()
+				.id(resumo.getId())
+				.ano(resumo.getAno())
+				.mes(resumo.getMes())
+				.valor(resumo.getValor())
+				.tipo(resumo.getTipo())
+				.status(status)
+				.usuario(Usuario.builder().id(resumo.getIdUsuario()).build())
+				.build();
+	}
+
 	@Override
 	public void validar(Lancamento lancamento) {
 		
@@ -80,7 +426,7 @@ public class LancamentoServiceImpl implements LancamentoService {
 		if(lancamento.getUsuario() == null || lancamento.getUsuario().getId() == null)
 			throw new BusinessRuleException("Informe um usuário");
 		
-		if(lancamento.getValor() == null || lancamento.getValor().compareTo(BigDecimal.ZERO) < 1)
+		if(lancamento.getValor() == null || lancamento.getValor().signum() < 1)
 			throw new BusinessRuleException("Informe um valor Válido");
 		
 		if(lancamento.getTipo() == null)
@@ -96,15 +442,68 @@ public class LancamentoServiceImpl implements LancamentoService {
 
 	@Override
 	@Transactional(readOnly = true)
-	public BigDecimal obterSaldoPorUsuario(Long id) {
-		BigDecimal receitas = repository.obterSaldoPorTipoLancamentoEUsuario(id, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO);
-		BigDecimal despesas = repository.obterSaldoPorTipoLancamentoEUsuario(id, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO);
+	public LancamentoResumo obterResumoPorId(Long id) {
+		return repository.obterResumo(id)
+				.orElseThrow( () -> new BusinessRuleException("Lançamento não encontrado"));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Dinheiro obterSaldoPorUsuario(Long id) {
+		return saldoService.obterSaldo(id);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<SaldoPeriodo> obterSaldoMensal(Long idUsuario, Integer anoInicial, Integer mesInicial,
+			Integer anoFinal, Integer mesFinal) {
+		
+		if(mesInicial == null || mesInicial < 1 || mesInicial > 12 
+				|| mesFinal == null || mesFinal < 1 || mesFinal > 12)
+			throw new BusinessRuleException("Informe um Mês válido");
+		
+		int inicio = Fechamento.periodo(anoInicial, mesInicial);
+		int fim = Fechamento.periodo(anoFinal, mesFinal);
+		validarPeriodo(inicio, fim);
+		
+		//meses fechados vêm dos totais do fechamento, só os abertos são somados a partir dos lançamentos
+		int fechadoAte = fechamentoService.obterFechadoAte(idUsuario);
+		if(fechadoAte < inicio)
+			return repository.obterSaldoMensal(idUsuario, anoInicial, anoFinal, inicio, fim,
+					TipoLancamento.RECEITA, TipoLancamento.DESPESA);
+		
+		List<SaldoPeriodo> saldos = new ArrayList<>(
+				fechamentoService.obterSaldoMensal(idUsuario, inicio, Math.min(fechadoAte, fim)));
+		
+		if(fechadoAte < fim)
+			saldos.addAll(repository.obterSaldoMensal(idUsuario, fechadoAte / 100, anoFinal, fechadoAte + 1, fim,
+					TipoLancamento.RECEITA, TipoLancamento.DESPESA));
+		
+		return saldos;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<SaldoPeriodo> obterSaldoAnual(Long idUsuario, Integer anoInicial, Integer anoFinal) {
+		validarPeriodo(anoInicial, anoFinal);
 		
-		if(receitas == null) receitas = BigDecimal.ZERO;
+		if(fechamentoService.obterFechadoAte(idUsuario) < Fechamento.periodo(anoInicial, 1))
+			return repository.obterSaldoAnual(idUsuario, anoInicial, anoFinal,
+					TipoLancamento.RECEITA, TipoLancamento.DESPESA);
 		
-		if(despesas == null) despesas = BigDecimal.ZERO;
+		//com meses fechados no intervalo, o ano é a soma dos seus meses (fechados e abertos)
+		Map<String, SaldoPeriodo> anos = new TreeMap<>();
+		for(SaldoPeriodo mes : obterSaldoMensal(idUsuario, anoInicial, 1, anoFinal, 12))
+			anos.merge(mes.getAno() + mes.getStatus().name(), 
+					new SaldoPeriodoAcumulado(mes.getAno(), null, mes.getStatus(), mes.getReceitas(), mes.getDespesas()),
+					SaldoPeriodoAcumulado::somar);
 		
-		return receitas.subtract(despesas);
+		return new ArrayList<>(anos.values());
+	}
+	
+	private void validarPeriodo(Integer inicio, Integer fim) {
+		if(inicio > fim)
+			throw new BusinessRuleException("O período inicial deve ser anterior ao período final");
 	}
 
 }
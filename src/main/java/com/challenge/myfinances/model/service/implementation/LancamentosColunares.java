@@ -0,0 +1,361 @@
+package com.challenge.myfinances.model.service.implementation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.challenge.myfinances.model.entity.Dinheiro;
+import com.challenge.myfinances.model.enumeration.Agrupamento;
+import com.challenge.myfinances.model.enumeration.StatusLancamento;
+import com.challenge.myfinances.model.enumeration.TipoLancamento;
+import com.challenge.myfinances.model.service.FiltroAnalise;
+import com.challenge.myfinances.model.service.TotalAnalise;
+
+/*
+ * Lançamentos de um usuário em colunas de tipos primitivos, ordenadas por id: valor
+ * em centavos, mês (ano * 12 + mes - 1) e os ordinais de tipo e status. As consultas
+ * percorrem os arrays sem criar objetos por linha e somam nas posições do tipo, sem
+ * desvio por receita/despesa. Gravações e consultas concorrentes são separadas por uma
+ * trava de leitura/escrita.
+ *
+ * A versão é a do usuário (VersaoUsuario) quando as colunas foram carregadas, ou a
+ * última cuja gravação foi aplicada sobre exatamente a versão anterior: o conteúdo
+ * nunca é mais antigo que ela, e é ela que identifica as respostas (ETag).
+ */
+final class LancamentosColunares {
+	
+	//id + centavos + mês + tipo + status
+	static final int BYTES_POR_LINHA = Long.BYTES + Long.BYTES + Integer.BYTES + 2;
+	
+	private static final int CAPACIDADE_INICIAL = 16;
+	private static final TipoLancamento[] TIPOS = TipoLancamento.values();
+	private static final StatusLancamento[] STATUS = StatusLancamento.values();
+	
+	//sinal de cada tipo no saldo: receitas somam, despesas subtraem
+	private static final long[] SINAIS = new long[TIPOS.length];
+	private static final long[] SEM_SINAL = new long[TIPOS.length];
+	
+	static {
+		for(TipoLancamento tipo : TIPOS) {
+			SINAIS[tipo.ordinal()] = tipo == TipoLancamento.RECEITA ? 1 : -1;
+			SEM_SINAL[tipo.ordinal()] = 1;
+		}
+	}
+	
+	private final ReadWriteLock trava = new ReentrantReadWriteLock();
+	
+	private long[] ids = new long[CAPACIDADE_INICIAL];
+	private long[] centavos = new long[CAPACIDADE_INICIAL];
+	private int[] meses = new int[CAPACIDADE_INICIAL];
+	private byte[] tipos = new byte[CAPACIDADE_INICIAL];
+	private byte[] status = new byte[CAPACIDADE_INICIAL];
+	private int tamanho;
+	private volatile long versao;
+	
+	LancamentosColunares(long versao) {
+		this.versao = versao;
+	}
+	
+	long versao() {
+		return versao;
+	}
+	
+	//só avança se nenhuma gravação ficou de fora entre a versão atual e a nova
+	void avancarVersao(long anterior, long nova) {
+		if(versao == anterior)
+			versao = nova;
+	}
+	
+	int tamanho() {
+		return tamanho;
+	}
+	
+	//memória ocupada pelos arrays (inclui a capacidade ainda livre)
+	long bytes() {
+		return (long) ids.length * BYTES_POR_LINHA;
+	}
+	
+	/*
+	 * Inclui ou substitui o lançamento pelo id. Como a linha inteira é regravada,
+	 * aplicar a mesma alteração duas vezes não muda o resultado.
+	 */
+	void gravar(long id, int ano, int mes, long valor, TipoLancamento tipo, StatusLancamento situacao) {
+		trava.writeLock().lock();
+		try {
+			//a carga e os lançamentos novos chegam em ordem crescente de id
+			int posicao = tamanho == 0 || id > ids[tamanho - 1] ? -(tamanho + 1)
+					: Arrays.binarySearch(ids, 0, tamanho, id);
+			
+			if(posicao < 0) {
+				posicao = -(posicao + 1);
+				
+				if(tamanho == ids.length)
+					crescer();
+				
+				deslocar(posicao, posicao + 1, tamanho - posicao);
+				ids[posicao] = id;
+				tamanho++;
+			}
+			
+			centavos[posicao] = valor;
+			meses[posicao] = ano * 12 + mes - 1;
+			tipos[posicao] = (byte) tipo.ordinal();
+			status[posicao] = (byte) situacao.ordinal();
+		}finally {
+			trava.writeLock().unlock();
+		}
+	}
+	
+	void remover(long id) {
+		trava.writeLock().lock();
+		try {
+			int posicao = Arrays.binarySearch(ids, 0, tamanho, id);
+			
+			if(posicao >= 0) {
+				deslocar(posicao + 1, posicao, tamanho - posicao - 1);
+				tamanho--;
+			}
+		}finally {
+			trava.writeLock().unlock();
+		}
+	}
+	
+	//sem tipo no filtro devolve o saldo (receitas - despesas), com tipo o total do tipo
+	long somar(FiltroAnalise filtro) {
+		Selecao selecao = new Selecao(filtro);
+		long[] sinais = filtro.getTipo() == null ? SINAIS : SEM_SINAL;
+		long total = 0;
+		
+		trava.readLock().lock();
+		try {
+			for(int i = 0; i < tamanho; i++)
+				if(selecao.aceita(meses[i], tipos[i], status[i]))
+					total += centavos[i] * sinais[tipos[i]];
+		}finally {
+			trava.readLock().unlock();
+		}
+		
+		return total;
+	}
+	
+	/*
+	 * Totais por tipo e quantidade por grupo em arrays indexados pela chave do grupo
+	 * (ano, mês ou ordinal), devolvidos em ordem crescente da chave.
+	 */
+	List<TotalAnalise> agrupar(FiltroAnalise filtro, Agrupamento agrupamento) {
+		Selecao selecao = new Selecao(filtro);
+		int mesInicial = 0;
+		long[] totais;
+		long[] quantidades;
+		
+		trava.readLock().lock();
+		try {
+			int grupos;
+			
+			if(agrupamento == Agrupamento.ANO || agrupamento == Agrupamento.MES) {
+				if(tamanho == 0)
+					return new ArrayList<>();
+				
+				//os grupos cobrem apenas o intervalo do filtro que tem lançamentos
+				int menor = Integer.MAX_VALUE;
+				int maior = Integer.MIN_VALUE;
+				for(int i = 0; i < tamanho; i++) {
+					menor = Math.min(menor, meses[i]);
+					maior = Math.max(maior, meses[i]);
+				}
+				menor = Math.max(menor, selecao.inicio);
+				maior = Math.min(maior, selecao.fim);
+				
+				if(menor > maior)
+					return new ArrayList<>();
+				
+				mesInicial = menor - menor % 12;
+				grupos = agrupamento == Agrupamento.MES ? maior - mesInicial + 1 : maior / 12 - menor / 12 + 1;
+			}
+			else
+				grupos = agrupamento == Agrupamento.TIPO ? TIPOS.length : STATUS.length;
+			
+			totais = new long[grupos * TIPOS.length];
+			quantidades = new long[grupos];
+			
+			for(int i = 0; i < tamanho; i++) {
+				if(!selecao.aceita(meses[i], tipos[i], status[i]))
+					continue;
+				
+				int grupo;
+				switch(agrupamento) {
+				case ANO:
+					grupo = (meses[i] - mesInicial) / 12;
+					break;
+				case MES:
+					grupo = meses[i] - mesInicial;
+					break;
+				case TIPO:
+					grupo = tipos[i];
+					break;
+				default:
+					grupo = status[i];
+				}
+				
+				totais[grupo * TIPOS.length + tipos[i]] += centavos[i];
+				quantidades[grupo]++;
+			}
+		}finally {
+			trava.readLock().unlock();
+		}
+		
+		List<TotalAnalise> resultado = new ArrayList<>();
+		for(int grupo = 0; grupo < quantidades.length; grupo++) {
+			if(quantidades[grupo] == 0)
+				continue;
+			
+			Integer ano = null;
+			Integer mes = null;
+			if(agrupamento == Agrupamento.ANO)
+				ano = mesInicial / 12 + grupo;
+			else if(agrupamento == Agrupamento.MES) {
+				ano = (mesInicial + grupo) / 12;
+				mes = (mesInicial + grupo) % 12 + 1;
+			}
+			
+			resultado.add(new TotalAnalise(ano, mes,
+					agrupamento == Agrupamento.TIPO ? TIPOS[grupo] : null,
+					agrupamento == Agrupamento.STATUS ? STATUS[grupo] : null,
+					Dinheiro.deCentavos(totais[grupo * TIPOS.length + TipoLancamento.RECEITA.ordinal()]),
+					Dinheiro.deCentavos(totais[grupo * TIPOS.length + TipoLancamento.DESPESA.ordinal()]),
+					quantidades[grupo]));
+		}
+		
+		return resultado;
+	}
+	
+	/*
+	 * Ids dos "quantidade" maiores valores selecionados, do maior para o menor (empate
+	 * pelo menor id). Um heap de mínimo com as posições mantém apenas os candidatos;
+	 * com o heap cheio, valores abaixo do menor candidato são descartados antes do filtro.
+	 */
+	long[] maiores(FiltroAnalise filtro, int quantidade) {
+		Selecao selecao = new Selecao(filtro);
+		
+		trava.readLock().lock();
+		try {
+			int[] heap = new int[Math.min(quantidade, tamanho)];
+			int ocupados = 0;
+			
+			for(int i = 0; i < tamanho && heap.length > 0; i++) {
+				if(ocupados == heap.length && centavos[i] < centavos[heap[0]])
+					continue;
+				
+				if(!selecao.aceita(meses[i], tipos[i], status[i]))
+					continue;
+				
+				if(ocupados < heap.length) {
+					heap[ocupados] = i;
+					subir(heap, ocupados++);
+				}
+				else if(vemDepois(heap[0], i)) {
+					heap[0] = i;
+					descer(heap, ocupados);
+				}
+			}
+			
+			//retirar sempre o menor preenche o resultado de trás para frente
+			long[] resultado = new long[ocupados];
+			for(int j = ocupados - 1; j >= 0; j--) {
+				resultado[j] = ids[heap[0]];
+				heap[0] = heap[--ocupados];
+				descer(heap, ocupados);
+			}
+			
+			return resultado;
+		}finally {
+			trava.readLock().unlock();
+		}
+	}
+	
+	//"a" vem depois de "b" na ordem do resultado (valor decrescente, id crescente)
+	private boolean vemDepois(int a, int b) {
+		return centavos[a] < centavos[b] || (centavos[a] == centavos[b] && ids[a] > ids[b]);
+	}
+	
+	private void subir(int[] heap, int filho) {
+		while(filho > 0) {
+			int pai = (filho - 1) / 2;
+			if(!vemDepois(heap[filho], heap[pai]))
+				return;
+	
+			trocar(heap, filho, pai);
+			filho = pai;
+		}
+	}
+	
+	private void descer(int[] heap, int ocupados) {
+		int pai = 0;
+	
+		while(true) {
+			int menor = pai;
+			int esquerdo = 2 * pai + 1;
+			int direito = esquerdo + 1;
+	
+			if(esquerdo < ocupados && vemDepois(heap[esquerdo], heap[menor]))
+				menor = esquerdo;
+			if(direito < ocupados && vemDepois(heap[direito], heap[menor]))
+				menor = direito;
+			if(menor == pai)
+				return;
+	
+			trocar(heap, pai, menor);
+			pai = menor;
+		}
+	}
+	
+	private static void trocar(int[] heap, int a, int b) {
+		int temporario = heap[a];
+		heap[a] = heap[b];
+		heap[b] = temporario;
+	}
+	
+	private void crescer() {
+		int capacidade = ids.length * 2;
+		ids = Arrays.copyOf(ids, capacidade);
+		centavos = Arrays.copyOf(centavos, capacidade);
+		meses = Arrays.copyOf(meses, capacidade);
+		tipos = Arrays.copyOf(tipos, capacidade);
+		status = Arrays.copyOf(status, capacidade);
+	}
+	
+	private void deslocar(int origem, int destino, int quantidade) {
+		System.arraycopy(ids, origem, ids, destino, quantidade);
+		System.arraycopy(centavos, origem, centavos, destino, quantidade);
+		System.arraycopy(meses, origem, meses, destino, quantidade);
+		System.arraycopy(tipos, origem, tipos, destino, quantidade);
+		System.arraycopy(status, origem, status, destino, quantidade);
+	}
+	
+	//o filtro convertido para comparações entre primitivos: meses em ano * 12 + mes - 1 e máscaras de ordinais
+	private static final class Selecao {
+		
+		private final int inicio;
+		private final int fim;
+		private final int mes;
+		private final int tipos;
+		private final int status;
+		
+		private Selecao(FiltroAnalise filtro) {
+			inicio = filtro.getAnoInicial() == null ? 0 : filtro.getAnoInicial() * 12;
+			fim = filtro.getAnoFinal() == null ? Integer.MAX_VALUE : filtro.getAnoFinal() * 12 + 11;
+			mes = filtro.getMes() == null ? -1 : filtro.getMes() - 1;
+			tipos = filtro.getTipo() == null ? -1 : 1 << filtro.getTipo().ordinal();
+			status = filtro.getStatus() == null ? -1 : 1 << filtro.getStatus().ordinal();
+		}
+		
+		private boolean aceita(int mesLancamento, byte tipoLancamento, byte statusLancamento) {
+			return mesLancamento >= inicio && mesLancamento <= fim
+					&& (tipos >>> tipoLancamento & 1) != 0
+					&& (status >>> statusLancamento & 1) != 0
+					&& (mes < 0 || mesLancamento % 12 == mes);
+		}
+	}
+}
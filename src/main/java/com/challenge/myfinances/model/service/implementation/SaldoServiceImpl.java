@@ -0,0 +1,167 @@
+package com.challenge.myfinances.model.service.implementation;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.challenge.myfinances.model.entity.Dinheiro;
+import com.challenge.myfinances.model.entity.Lancamento;
+import com.challenge.myfinances.model.entity.SaldoUsuario;
+import com.challenge.myfinances.model.enumeration.StatusLancamento;
+import com.challenge.myfinances.model.enumeration.TipoLancamento;
+import com.challenge.myfinances.model.repository.LancamentoRepository;
+import com.challenge.myfinances.model.repository.SaldoUsuarioRepository;
+import com.challenge.myfinances.model.repository.UsuarioRepository;
+import com.challenge.myfinances.model.service.FechamentoService;
+import com.challenge.myfinances.model.service.SaldoService;
+import com.challenge.myfinances.model.service.VersaoUsuarioService;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class SaldoServiceImpl implements SaldoService {
+
+	private final SaldoUsuarioRepository repository;
+	private final LancamentoRepository lancamentoRepository;
+	private final FechamentoService fechamentoService;
+	private final VersaoUsuarioService versaoService;
+	private final UsuarioRepository usuarioRepository;
+	
+	//posições das variações (em centavos) acumuladas por usuário
+	private static final int RECEITAS = 0;
+	private static final int DESPESAS = 1;
+
+	/*
+	 * Aplica no saldo materializado a diferença entre o estado anterior e o atual
+	 * de um lançamento. Qualquer um dos dois pode ser nulo (inclusão / exclusão).
+	 */
+	@Override
+	@Transactional
+	public void registrarAlteracao(Lancamento anterior, Lancamento atual) {
+		registrarAlteracoes(
+				anterior == null ? Collections.emptyList() : Collections.singletonList(anterior), 
+				atual == null ? Collections.emptyList() : Collections.singletonList(atual));
+	}
+
+	/*
+	 * Versão em lote: as variações são somadas por usuário (em centavos, sem alocar
+	 * por lançamento) antes de tocar o saldo, resultando em um único UPDATE por usuário.
+	 */
+	@Override
+	@Transactional
+	public void registrarAlteracoes(List<Lancamento> anteriores, List<Lancamento> atuais) {
+		Map<Long, long[]> variacoes = new HashMap<>();
+		anteriores.forEach(anterior -> acumular(variacoes, anterior, true));
+		atuais.forEach(atual -> acumular(variacoes, atual, false));
+
+		variacoes.forEach((idUsuario, variacao) -> {
+			if(variacao[RECEITAS] == 0 && variacao[DESPESAS] == 0)
+				return;
+
+			int atualizados = repository.acumular(idUsuario,
+					Dinheiro.deCentavos(variacao[RECEITAS]), Dinheiro.deCentavos(variacao[DESPESAS]));
+
+			//usuário ainda sem saldo materializado, reconstrói a partir dos lançamentos
+			if(atualizados == 0)
+				recalcular(idUsuario);
+		});
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Dinheiro obterSaldo(Long idUsuario) {
+		return repository.obterSaldo(idUsuario)
+				.orElseGet(() -> calcular(idUsuario, TipoLancamento.RECEITA)
+						.subtrair(calcular(idUsuario, TipoLancamento.DESPESA)));
+	}
+
+	@Override
+	@Transactional
+	public Dinheiro recalcular(Long idUsuario) {
+		SaldoUsuario saldo = repository.findById(idUsuario).orElseGet(() -> novoSaldo(idUsuario));
+
+		saldo.setReceitas(calcular(idUsuario, TipoLancamento.RECEITA));
+		saldo.setDespesas(calcular(idUsuario, TipoLancamento.DESPESA));
+		repository.save(saldo);
+		//o saldo corrigido precisa de um novo ETag
+		versaoService.incrementar(Collections.singleton(idUsuario));
+
+		return saldo.getReceitas().subtrair(saldo.getDespesas());
+	}
+
+	@Override
+	@Transactional
+	public void recalcularTodos() {
+		Map<Long, SaldoUsuario> saldos = new HashMap<>();
+		List<Object[]> totais = lancamentoRepository.obterTotaisPorUsuarioETipo(StatusLancamento.EFETIVADO);
+
+		for(Object[] total : totais) {
+			SaldoUsuario saldo = saldos.computeIfAbsent((Long) total[0], this::saldoZerado);
+
+			if(total[1] == TipoLancamento.RECEITA)
+				saldo.setReceitas((Dinheiro) total[2]);
+			else
+				saldo.setDespesas((Dinheiro) total[2]);
+		}
+
+		//usuários com saldo antes ou depois da reconstrução precisam de um novo ETag
+		Set<Long> usuarios = new HashSet<>(repository.obterUsuarios());
+		usuarios.addAll(saldos.keySet());
+
+		repository.deleteAllInBatch();
+		repository.saveAll(saldos.values());
+		if(!usuarios.isEmpty())
+			versaoService.incrementar(usuarios);
+	}
+
+	/*
+	 * Primeiro saldo do usuário: com o usuário bloqueado, uma gravação concorrente que
+	 * também não encontrou o saldo espera esta terminar e passa a encontrá-lo, em vez
+	 * de inserir a mesma chave.
+	 */
+	private SaldoUsuario novoSaldo(Long idUsuario) {
+		usuarioRepository.bloquear(Collections.singleton(idUsuario));
+		return repository.findById(idUsuario)
+				.orElseGet(() -> SaldoUsuario.builder().idUsuario(idUsuario).build());
+	}
+
+	private void acumular(Map<Long, long[]> variacoes, Lancamento lancamento, boolean estorno) {
+		if(lancamento == null || lancamento.getStatus() != StatusLancamento.EFETIVADO)
+			return;
+
+		long valor = estorno ? -lancamento.getValor().centavos() : lancamento.getValor().centavos();
+		long[] variacao = variacoes.computeIfAbsent(lancamento.getUsuario().getId(), id -> new long[2]);
+		variacao[lancamento.getTipo() == TipoLancamento.RECEITA ? RECEITAS : DESPESAS] += valor;
+	}
+
+	private SaldoUsuario saldoZerado(Long idUsuario) {
+		return new SaldoUsuario(idUsuario, Dinheiro.ZERO, Dinheiro.ZERO);
+	}
+
+	/*
+	 * Com períodos fechados, soma os totais do fechamento aos lançamentos
+	 * dos meses ainda abertos.
+	 */
+	private Dinheiro calcular(Long idUsuario, TipoLancamento tipo) {
+		int fechadoAte = fechamentoService.obterFechadoAte(idUsuario);
+		
+		if(fechadoAte == 0) {
+			Dinheiro total = lancamentoRepository
+					.obterSaldoPorTipoLancamentoEUsuario(idUsuario, tipo, StatusLancamento.EFETIVADO);
+			return total == null ? Dinheiro.ZERO : total;
+		}
+		
+		Dinheiro aberto = lancamentoRepository.obterSaldoPorTipoLancamentoEUsuarioApos(
+				idUsuario, tipo, StatusLancamento.EFETIVADO, fechadoAte / 100, fechadoAte);
+		Dinheiro fechado = fechamentoService.obterTotal(idUsuario, tipo, StatusLancamento.EFETIVADO);
+		return aberto == null ? fechado : fechado.somar(aberto);
+	}
+
+}
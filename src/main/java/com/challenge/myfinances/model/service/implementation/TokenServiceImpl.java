@@ -0,0 +1,102 @@
+package com.challenge.myfinances.model.service.implementation;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.challenge.myfinances.model.exception.ErroAutentificacaoException;
+import com.challenge.myfinances.model.service.TokenAcesso;
+import com.challenge.myfinances.model.service.TokenService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Token autocontido no formato idUsuario.expiraEm.assinatura, onde a assinatura
+ * é o HMAC-SHA256 de "idUsuario.expiraEm". Validar não consulta o banco.
+ */
+@Slf4j
+@Service
+public class TokenServiceImpl implements TokenService {
+	
+	private static final String ALGORITMO = "HmacSHA256";
+	
+	private final SecretKeySpec chave;
+	private final long expiracaoSegundos;
+	
+	//Mac não é thread-safe
+	private final ThreadLocal<Mac> mac;
+	
+	@Autowired
+	public TokenServiceImpl(@Value("${myfinances.token.segredo:}") String segredo, 
+			@Value("${myfinances.token.expiracao-segundos:3600}") long expiracaoSegundos) {
+		this.chave = new SecretKeySpec(obterSegredo(segredo), ALGORITMO);
+		this.expiracaoSegundos = expiracaoSegundos;
+		this.mac = ThreadLocal.withInitial(this::criarMac);
+	}
+
+	@Override
+	public TokenAcesso gerar(Long idUsuario) {
+		Instant expiraEm = Instant.now().plusSeconds(expiracaoSegundos);
+		String conteudo = idUsuario + "." + expiraEm.getEpochSecond();
+		
+		return new TokenAcesso(conteudo + "." + assinar(conteudo), expiraEm);
+	}
+
+	@Override
+	public Long obterIdUsuario(String token) {
+		int separador = token == null ? -1 : token.lastIndexOf('.');
+		if(separador < 0)
+			throw new ErroAutentificacaoException("Token inválido");
+		
+		String conteudo = token.substring(0, separador);
+		byte[] assinatura = token.substring(separador + 1).getBytes(StandardCharsets.US_ASCII);
+		
+		if(!MessageDigest.isEqual(assinatura, assinar(conteudo).getBytes(StandardCharsets.US_ASCII)))
+			throw new ErroAutentificacaoException("Token inválido");
+		
+		String[] partes = conteudo.split("\\.");
+		if(partes.length != 2)
+			throw new ErroAutentificacaoException("Token inválido");
+		
+		if(Instant.now().getEpochSecond() >= Long.parseLong(partes[1]))
+			throw new ErroAutentificacaoException("Token expirado");
+		
+		return Long.valueOf(partes[0]);
+	}
+	
+	private String assinar(String conteudo) {
+		byte[] assinatura = mac.get().doFinal(conteudo.getBytes(StandardCharsets.UTF_8));
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(assinatura);
+	}
+	
+	private Mac criarMac() {
+		try {
+			Mac instancia = Mac.getInstance(ALGORITMO);
+			instancia.init(chave);
+			return instancia;
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	private static byte[] obterSegredo(String segredo) {
+		if(!segredo.isEmpty())
+			return segredo.getBytes(StandardCharsets.UTF_8);
+		
+		log.warn("myfinances.token.segredo não configurado, tokens valem apenas para esta instância");
+		byte[] aleatorio = new byte[32];
+		new SecureRandom().nextBytes(aleatorio);
+		return aleatorio;
+	}
+
+}
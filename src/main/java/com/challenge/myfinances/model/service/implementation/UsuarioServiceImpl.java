@@ -1,8 +1,12 @@
 package com.challenge.myfinances.model.service.implementation;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -11,21 +15,44 @@ import com.challenge.myfinances.model.exception.BusinessRuleException;
 import com.challenge.myfinances.model.exception.ErroAutentificacaoException;
 import com.challenge.myfinances.model.repository.UsuarioRepository;
 import com.challenge.myfinances.model.service.UsuarioService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 
 @Service
 public class UsuarioServiceImpl implements UsuarioService{
 
 	private UsuarioRepository repository;
 	
+	/*
+	 * Usuários já lidos do banco, por id e por email. Só guardam usuários
+	 * existentes: consultas sem resultado sempre vão ao banco.
+	 */
+	private Cache<Long, Usuario> usuariosPorId;
+	private Cache<String, Usuario> usuariosPorEmail;
+	
 	@Autowired
-	public UsuarioServiceImpl(UsuarioRepository repository) {
+	public UsuarioServiceImpl(UsuarioRepository repository, 
+			@Value("${myfinances.cache.usuario.tamanho-maximo:10000}") long tamanhoMaximo,
+			@Value("${myfinances.cache.usuario.expiracao-segundos:600}") long expiracaoSegundos) {
 		this.repository = repository;
+		this.usuariosPorId = criarCache(tamanhoMaximo, expiracaoSegundos);
+		this.usuariosPorEmail = criarCache(tamanhoMaximo, expiracaoSegundos);
+	}
+	
+	private static <K> Cache<K, Usuario> criarCache(long tamanhoMaximo, long expiracaoSegundos) {
+		return Caffeine.newBuilder()
+				.maximumSize(tamanhoMaximo)
+				.expireAfterWrite(expiracaoSegundos, TimeUnit.SECONDS)
+				.recordStats()
+				.build();
 	}
 	
 	@Override
 	public Usuario autenticar(String email, String senha) {
 		
-		Optional<Usuario> usuario = repository.findByEmail(email);
+		Optional<Usuario> usuario = email == null ? repository.findByEmail(email) 
+				: Optional.ofNullable(usuariosPorEmail.get(email, chave -> repository.findByEmail(chave).orElse(null)));
 		
 		if(!usuario.isPresent())
 			throw new ErroAutentificacaoException("Usuário não encontrado para o email informado");
@@ -40,19 +67,62 @@ public class UsuarioServiceImpl implements UsuarioService{
 	@Transactional
 	public Usuario cadastrar(Usuario usuario) {
 		validarEmail(usuario.getEmail());
-		return repository.save(usuario);
+		Usuario salvo = repository.save(usuario);
+		
+		usuariosPorId.invalidate(salvo.getId());
+		if(salvo.getEmail() != null)
+			usuariosPorEmail.invalidate(salvo.getEmail());
+		return salvo;
 	}
 
 	@Override
 	public void validarEmail(String email) {
-		boolean exist = repository.existsByEmail(email);
+		boolean exist = (email != null && usuariosPorEmail.getIfPresent(email) != null) 
+				|| repository.existsByEmail(email);
         if(exist) throw new BusinessRuleException("Já existe um usuario cadastrado com esse email");
 	}
 
 	@Override
 	public Usuario obterPorId(Long id) {
-		return repository.findById(id)
-				.orElseThrow(() -> new BusinessRuleException("Usuário não encontrado"));
+		Usuario usuario = usuariosPorId.get(id, chave -> repository.findById(chave).orElse(null));
+		
+		if(usuario == null)
+			throw new BusinessRuleException("Usuário não encontrado");
+		
+		return usuario;
+	}
+
+	/*
+	 * Referência (proxy) para associar o usuário a outra entidade sem carregá-lo.
+	 * A existência é conferida no banco apenas quando o usuário não está em cache.
+	 */
+	@Override
+	public Usuario obterReferencia(Long id) {
+		obterPorId(id);
+		return repository.getOne(id);
+	}
+
+	@Override
+	@Transactional
+	public void deletar(Long id) {
+		repository.deleteById(id);
+		
+		usuariosPorId.invalidate(id);
+		usuariosPorEmail.asMap().values().removeIf(usuario -> id.equals(usuario.getId()));
+	}
+
+	@Override
+	public Map<String, CacheStats> obterEstatisticasCache() {
+		Map<String, CacheStats> estatisticas = new LinkedHashMap<>();
+		estatisticas.put("porId", usuariosPorId.stats());
+		estatisticas.put("porEmail", usuariosPorEmail.stats());
+		return estatisticas;
+	}
+
+	@Override
+	public void limparCache() {
+		usuariosPorId.invalidateAll();
+		usuariosPorEmail.invalidateAll();
 	}
 	
 }
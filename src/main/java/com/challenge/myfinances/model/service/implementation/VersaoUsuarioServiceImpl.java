@@ -0,0 +1,67 @@
+package com.challenge.myfinances.model.service.implementation;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.challenge.myfinances.model.entity.VersaoUsuario;
+import com.challenge.myfinances.model.repository.UsuarioRepository;
+import com.challenge.myfinances.model.repository.VersaoUsuarioRepository;
+import com.challenge.myfinances.model.service.LancamentosAlteradosEvent;
+import com.challenge.myfinances.model.service.VersaoUsuarioService;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class VersaoUsuarioServiceImpl implements VersaoUsuarioService {
+
+	private final VersaoUsuarioRepository repository;
+	private final UsuarioRepository usuarioRepository;
+
+	@Override
+	@Transactional(readOnly = true)
+	public long obterVersao(Long idUsuario) {
+		return repository.obterVersao(idUsuario).orElse(0L);
+	}
+
+	/*
+	 * Um único UPDATE para todos os usuários; quem ainda não tem registro
+	 * entra direto na versão 1. Para criar o registro os usuários são bloqueados
+	 * antes, senão duas primeiras gravações concorrentes inserem a mesma chave:
+	 * com o bloqueio, a segunda enxerga o registro da primeira. O UPDATE é
+	 * repetido depois do bloqueio para incluir esses registros recém-criados;
+	 * pular uma versão não importa, ela só precisa mudar.
+	 */
+	@Override
+	@Transactional
+	public void incrementar(Set<Long> usuarios) {
+		if(repository.incrementar(usuarios) == usuarios.size())
+			return;
+		
+		usuarioRepository.bloquear(usuarios);
+		if(repository.incrementar(usuarios) == usuarios.size())
+			return;
+		
+		Set<Long> existentes = repository.findAllById(usuarios).stream()
+				.map(VersaoUsuario::getIdUsuario)
+				.collect(Collectors.toSet());
+		
+		List<VersaoUsuario> novas = usuarios.stream()
+				.filter(usuario -> !existentes.contains(usuario))
+				.map(usuario -> new VersaoUsuario(usuario, 1L))
+				.collect(Collectors.toList());
+		repository.saveAll(novas);
+	}
+
+	//ouvinte síncrono: a nova versão é gravada na mesma transação dos lançamentos
+	@EventListener
+	@Transactional
+	public void registrarAlteracao(LancamentosAlteradosEvent evento) {
+		incrementar(evento.getUsuarios());
+	}
+}
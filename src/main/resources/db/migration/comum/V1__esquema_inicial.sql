@@ -0,0 +1,30 @@
+-- Esquema inicial. Bancos já existentes (criados pelo Hibernate) entram como baseline nesta versão,
+-- então os tipos são os que o Hibernate gerava para as entidades: varchar(255), numeric(19, 2) e date.
+
+create table financas.usuario (
+    id bigint not null,
+    nome varchar(255),
+    email varchar(255),
+    senha varchar(255),
+    constraint pk_usuario primary key (id)
+);
+
+create table financas.lancamento (
+    id bigint not null,
+    descricao varchar(255),
+    mes integer,
+    ano integer,
+    valor numeric(19, 2),
+    data_cadastro date,
+    tipo varchar(255),
+    status varchar(255),
+    id_usuario bigint,
+    constraint pk_lancamento primary key (id)
+);
+
+-- antes da chave estrangeira: o H2 reaproveita este índice em vez de criar um só com id_usuario
+create index idx_lancamento_usuario_periodo
+    on financas.lancamento (id_usuario, ano, mes, id);
+
+alter table financas.lancamento 
+    add constraint fk_lancamento_usuario foreign key (id_usuario) references financas.usuario (id);
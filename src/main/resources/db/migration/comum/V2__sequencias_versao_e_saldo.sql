@@ -0,0 +1,16 @@
+-- Ids por sequence (inserts em lote, allocationSize = 50), versão otimista de Lancamento
+-- e saldo materializado por usuário. Idempotente para bancos que já aplicaram os scripts avulsos.
+
+create sequence if not exists financas.usuario_seq start with 1 increment by 50;
+
+create sequence if not exists financas.lancamento_seq start with 1 increment by 50;
+
+-- registros existentes começam na versão 0
+alter table financas.lancamento add column if not exists versao bigint not null default 0;
+
+create table if not exists financas.saldo_usuario (
+    id_usuario bigint not null,
+    receitas numeric(19, 2) not null default 0,
+    despesas numeric(19, 2) not null default 0,
+    constraint pk_saldo_usuario primary key (id_usuario)
+);
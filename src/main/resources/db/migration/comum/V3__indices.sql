@@ -0,0 +1,16 @@
+-- Índices para as consultas de UsuarioRepository e LancamentoRepository.
+
+-- findByEmail / existsByEmail (e e-mail único)
+create unique index if not exists uk_usuario_email
+    on financas.usuario (email);
+
+-- busca (usuário + ano/mes, ordenada por ano, mes, id), paginação por cursor e saldo mensal/anual.
+-- Já criado na V1; aqui para os bancos que entraram como baseline
+create index if not exists idx_lancamento_usuario_periodo
+    on financas.lancamento (id_usuario, ano, mes, id);
+
+-- saldo por usuário/tipo/status: valor no índice dispensa a leitura da tabela
+drop index if exists financas.idx_lancamento_usuario_tipo_status;
+
+create index if not exists idx_lancamento_usuario_tipo_status_valor
+    on financas.lancamento (id_usuario, tipo, status, valor);
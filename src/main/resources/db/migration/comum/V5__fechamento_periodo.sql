@@ -0,0 +1,25 @@
+-- Fechamento de períodos: até qual ano/mês cada usuário está fechado e os totais
+-- dos meses fechados por tipo e status. Lançamentos de meses fechados não mudam.
+
+create table financas.fechamento (
+    id_usuario bigint not null,
+    ano integer not null,
+    mes integer not null,
+    constraint pk_fechamento primary key (id_usuario)
+);
+
+create sequence financas.fechamento_total_seq start with 1 increment by 50;
+
+create table financas.fechamento_total (
+    id bigint not null,
+    id_usuario bigint not null,
+    ano integer not null,
+    mes integer not null,
+    tipo varchar(20) not null,
+    status varchar(20) not null,
+    total numeric(19, 2) not null,
+    constraint pk_fechamento_total primary key (id)
+);
+
+create unique index uk_fechamento_total_usuario_periodo
+    on financas.fechamento_total (id_usuario, ano, mes, tipo, status);
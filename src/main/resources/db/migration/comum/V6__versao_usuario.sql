@@ -0,0 +1,8 @@
+-- Versão dos dados de cada usuário, incrementada a cada gravação de lançamentos
+-- (ETag das consultas). Usuário sem registro está na versão 0.
+
+create table financas.versao_usuario (
+    id_usuario bigint not null,
+    versao bigint not null,
+    constraint pk_versao_usuario primary key (id_usuario)
+);
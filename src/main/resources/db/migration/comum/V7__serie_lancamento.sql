@@ -0,0 +1,12 @@
+-- Séries de lançamentos (recorrentes e parcelados) gravadas de uma vez: todas as
+-- ocorrências compartilham o id da série e guardam o seu número dentro dela.
+
+create sequence financas.serie_lancamento_seq start with 1 increment by 1;
+
+alter table financas.lancamento add column id_serie bigint;
+
+alter table financas.lancamento add column parcela integer;
+
+-- atualização de status e exclusão da série inteira
+create index idx_lancamento_serie
+    on financas.lancamento (id_serie);
@@ -0,0 +1,7 @@
+-- Somente H2, equivalente às sequences de postgresql/V4.
+
+-- bancos anteriores às sequences: continua depois do maior id. O otimizador pooled do Hibernate
+-- (allocationSize = 50) usa os ids de valor - 49 até o valor lido, por isso maior id + 50
+alter sequence financas.usuario_seq restart with (select coalesce(max(id), 0) + 50 from financas.usuario);
+
+alter sequence financas.lancamento_seq restart with (select coalesce(max(id), 0) + 50 from financas.lancamento);
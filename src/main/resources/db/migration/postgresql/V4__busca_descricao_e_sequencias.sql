@@ -0,0 +1,17 @@
+-- Somente PostgreSQL.
+
+-- myfinances.busca.descricao=PREFIXO
+create index if not exists idx_lancamento_usuario_descricao
+    on financas.lancamento (id_usuario, lower(descricao) text_pattern_ops);
+
+-- myfinances.busca.descricao=TRIGRAMA
+create extension if not exists pg_trgm;
+
+create index if not exists idx_lancamento_descricao_trgm
+    on financas.lancamento using gin (lower(descricao) gin_trgm_ops);
+
+-- bancos anteriores às sequences: continua depois do maior id. O otimizador pooled do Hibernate
+-- (allocationSize = 50) usa os ids de valor - 49 até o valor lido, por isso maior id + 50
+select setval('financas.usuario_seq', greatest((select coalesce(max(id), 0) from financas.usuario), nextval('financas.usuario_seq')) + 50, false);
+
+select setval('financas.lancamento_seq', greatest((select coalesce(max(id), 0) from financas.lancamento), nextval('financas.lancamento_seq')) + 50, false);
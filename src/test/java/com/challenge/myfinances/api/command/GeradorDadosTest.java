@@ -0,0 +1,57 @@
+package com.challenge.myfinances.api.command;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import com.challenge.myfinances.model.entity.Lancamento;
+import com.challenge.myfinances.model.entity.Usuario;
+import com.challenge.myfinances.model.enumeration.StatusLancamento;
+import com.challenge.myfinances.model.enumeration.TipoLancamento;
+
+public class GeradorDadosTest {
+	
+	@Test
+	public void deveGerarOsMesmosDadosParaAMesmaSemente() {
+		//ação
+		List<Lancamento> primeira = gerar(new GeradorDados(7, 10, 1_000, 2020));
+		List<Lancamento> segunda = gerar(new GeradorDados(7, 10, 1_000, 2020));
+		List<Lancamento> outraSemente = gerar(new GeradorDados(8, 10, 1_000, 2020));
+		
+		//verificação
+		Assertions.assertThat(primeira).isEqualTo(segunda);
+		Assertions.assertThat(primeira).isNotEqualTo(outraSemente);
+	}
+	
+	@Test
+	public void deveGerarLancamentosDentroDosLimites() {
+		//ação
+		List<Lancamento> lancamentos = gerar(new GeradorDados(42, 10, 10_000, 2020));
+		
+		//verificação
+		Assertions.assertThat(lancamentos).hasSize(10_000);
+		Assertions.assertThat(lancamentos).allSatisfy(lancamento -> {
+			Assertions.assertThat(lancamento.getAno()).isBetween(2016, 2020);
+			Assertions.assertThat(lancamento.getMes()).isBetween(1, 12);
+			Assertions.assertThat(lancamento.getValor().signum()).isPositive();
+			Assertions.assertThat(lancamento.getUsuario().getId()).isBetween(1L, 10L);
+		});
+		Assertions.assertThat(lancamentos).extracting(Lancamento::getTipo)
+			.contains(TipoLancamento.RECEITA, TipoLancamento.DESPESA);
+		Assertions.assertThat(lancamentos).extracting(Lancamento::getStatus)
+			.contains(StatusLancamento.values());
+		
+		//mais despesas que receitas
+		Assertions.assertThat(lancamentos.stream().filter(l -> l.getTipo() == TipoLancamento.DESPESA).count())
+			.isGreaterThan(lancamentos.stream().filter(l -> l.getTipo() == TipoLancamento.RECEITA).count());
+	}
+	
+	private List<Lancamento> gerar(GeradorDados gerador) {
+		List<Lancamento> lancamentos = new ArrayList<>();
+		Usuario[] usuarios = gerador.gerarUsuarios(1, usuario -> {});
+		gerador.gerarLancamentos(usuarios, 1, lancamentos::add);
+		return lancamentos;
+	}
+}
@@ -0,0 +1,27 @@
+package com.challenge.myfinances.api.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+/*
+ * Verificações de quantidade de instruções SQL para MockMvc:
+ * mvc.perform(get(...)).andExpect(ConsultasSql.noMaximo(2));
+ */
+public final class ConsultasSql {
+	
+	private ConsultasSql() {
+	}
+	
+	public static ResultMatcher noMaximo(int quantidade) {
+		return resultado -> assertThat(contador(resultado.getRequest().getAttribute(ContadorConsultas.ATRIBUTO)).getQuantidade())
+				.as("instruções SQL em %s %s", resultado.getRequest().getMethod(), resultado.getRequest().getRequestURI())
+				.isLessThanOrEqualTo(quantidade);
+	}
+	
+	private static ContadorConsultas contador(Object atributo) {
+		assertThat(atributo).as("contador de consultas (ConsultasPorRequisicaoFilter ativo?)").isInstanceOf(ContadorConsultas.class);
+		return (ContadorConsultas) atributo;
+	}
+
+}
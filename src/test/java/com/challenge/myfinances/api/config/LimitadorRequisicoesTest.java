@@ -0,0 +1,93 @@
+package com.challenge.myfinances.api.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+public class LimitadorRequisicoesTest {
+	
+	static final long MILISSEGUNDO = TimeUnit.MILLISECONDS.toNanos(1);
+	
+	@Test
+	public void devePermitirARajadaEReabastecerNaTaxaInformada() {
+		//cenário: 10 por segundo (um token a cada 100 ms), rajada de 3
+		LimitadorRequisicoes limitador = new LimitadorRequisicoes(10, 3, 100);
+		
+		//ação
+		List<Long> esperas = new ArrayList<>();
+		for(int i = 0; i < 4; i++)
+			esperas.add(limitador.consumir(1L, "buscar", 0));
+		long aposUmToken = limitador.consumir(1L, "buscar", 100 * MILISSEGUNDO);
+		long semToken = limitador.consumir(1L, "buscar", 150 * MILISSEGUNDO);
+		
+		//verificação
+		Assertions.assertThat(esperas).containsExactly(0L, 0L, 0L, 100 * MILISSEGUNDO);
+		Assertions.assertThat(aposUmToken).isZero();
+		Assertions.assertThat(semToken).isEqualTo(50 * MILISSEGUNDO);
+	}
+	
+	@Test
+	public void deveLimitarCadaUsuarioEEndpointSeparadamente() {
+		//cenário
+		LimitadorRequisicoes limitador = new LimitadorRequisicoes(1, 1, 100);
+		limitador.consumir(1L, "buscar", 0);
+		
+		//ação e verificação
+		Assertions.assertThat(limitador.consumir(1L, "buscar", 0)).isPositive();
+		Assertions.assertThat(limitador.consumir(1L, "saldo", 0)).isZero();
+		Assertions.assertThat(limitador.consumir(2L, "buscar", 0)).isZero();
+		Assertions.assertThat(limitador.chaves()).isEqualTo(3);
+	}
+	
+	@Test
+	public void deveDescartarSomenteOsBaldesJaReabastecidos() {
+		//cenário: um token a cada 100 ms, rajada de 2
+		LimitadorRequisicoes limitador = new LimitadorRequisicoes(10, 2, 100);
+		limitador.consumir(1L, "buscar", 0);
+		limitador.consumir(2L, "buscar", 0);
+		limitador.consumir(2L, "buscar", 50 * MILISSEGUNDO);
+		
+		//ação
+		limitador.descartarCheios(100 * MILISSEGUNDO);
+		
+		//verificação: o balde do usuário 2 ainda não voltou a ficar cheio
+		Assertions.assertThat(limitador.chaves()).isEqualTo(1);
+		Assertions.assertThat(limitador.consumir(2L, "buscar", 100 * MILISSEGUNDO)).isZero();
+		Assertions.assertThat(limitador.consumir(2L, "buscar", 100 * MILISSEGUNDO)).isPositive();
+	}
+	
+	@Test
+	public void deveManterALimitacaoSobConcorrencia() throws Exception {
+		//cenário
+		LimitadorRequisicoes limitador = new LimitadorRequisicoes(1, 50, 100);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Callable<Integer>> tarefas = new ArrayList<>();
+		for(int i = 0; i < 8; i++)
+			tarefas.add(() -> {
+				int permitidas = 0;
+				for(int j = 0; j < 100; j++)
+					if(limitador.consumir(1L, "buscar", 0) == 0)
+						permitidas++;
+				return permitidas;
+			});
+		
+		//ação
+		int permitidas = 0;
+		try {
+			for(Future<Integer> resultado : executor.invokeAll(tarefas))
+				permitidas += resultado.get();
+		}finally {
+			executor.shutdown();
+		}
+		
+		//verificação: no mesmo instante, exatamente a rajada passa
+		Assertions.assertThat(permitidas).isEqualTo(50);
+	}
+}
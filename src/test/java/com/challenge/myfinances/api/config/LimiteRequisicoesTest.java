@@ -0,0 +1,94 @@
+package com.challenge.myfinances.api.config;
+
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.challenge.myfinances.api.controller.AnaliseController;
+import com.challenge.myfinances.model.entity.Dinheiro;
+import com.challenge.myfinances.model.service.AnaliseService;
+import com.challenge.myfinances.model.service.ResultadoAnalise;
+import com.challenge.myfinances.model.service.TokenService;
+import com.challenge.myfinances.model.service.VersaoUsuarioService;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@WebMvcTest(controllers = AnaliseController.class, properties = {
+		"myfinances.limite.requisicoes-por-segundo=0.001",
+		"myfinances.limite.rajada=2"
+})
+@AutoConfigureMockMvc
+public class LimiteRequisicoesTest {
+	
+	static final String API = "/api/usuarios/1/analise";
+	
+	@MockBean
+	AnaliseService service;
+	
+	@MockBean
+	VersaoUsuarioService versaoService;
+	
+	@MockBean
+	TokenService tokenService;
+	
+	@Autowired
+	MockMvc mvc;
+	
+	@Before
+	public void setUp() {
+		Mockito.when(service.somar(Mockito.anyLong(), Mockito.any(), Mockito.anyLong()))
+			.thenReturn(new ResultadoAnalise<>(0L, Dinheiro.ZERO));
+		Mockito.when(service.agrupar(Mockito.anyLong(), Mockito.any(), Mockito.any(), Mockito.anyLong()))
+			.thenReturn(new ResultadoAnalise<>(0L, Collections.emptyList()));
+	}
+	
+	@Test
+	public void deveResponder429ComRetryAfterAcimaDoLimiteDoUsuarioNoEndpoint() throws Exception {
+		//cenário
+		Mockito.when(tokenService.obterIdUsuario("token")).thenReturn(1L);
+		
+		//ação e verificação: a rajada passa, a próxima requisição do mesmo usuário e endpoint não
+		for(int i = 0; i < 2; i++)
+			mvc.perform(MockMvcRequestBuilders.get(API.concat("/soma")).header(HttpHeaders.AUTHORIZATION, "Bearer token"))
+				.andExpect(MockMvcResultMatchers.status().isOk());
+		
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/soma")).header(HttpHeaders.AUTHORIZATION, "Bearer token"))
+			.andExpect(MockMvcResultMatchers.status().isTooManyRequests())
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.RETRY_AFTER, "1000"));
+		Mockito.verify(service, Mockito.times(2)).somar(Mockito.eq(1L), Mockito.any(), Mockito.anyLong());
+		
+		//outro endpoint do mesmo usuário tem seu próprio limite
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/totais")).header(HttpHeaders.AUTHORIZATION, "Bearer token"))
+			.andExpect(MockMvcResultMatchers.status().isOk());
+	}
+	
+	@Test
+	public void deveLimitarPeloEnderecoSemTokenMesmoTrocandoOUsuarioDaUrl() throws Exception {
+		//ação e verificação: sem token o cliente é o endereço de origem; trocar o id da url
+		//não dá um balde novo
+		for(int i = 2; i < 4; i++)
+			mvc.perform(MockMvcRequestBuilders.get("/api/usuarios/" + i + "/analise/soma"))
+				.andExpect(MockMvcResultMatchers.status().isOk());
+		
+		mvc.perform(MockMvcRequestBuilders.get("/api/usuarios/4/analise/soma"))
+			.andExpect(MockMvcResultMatchers.status().isTooManyRequests());
+		
+		//nem esgota o balde do usuário da url, que com token tem o seu
+		Mockito.when(tokenService.obterIdUsuario("token")).thenReturn(4L);
+		mvc.perform(MockMvcRequestBuilders.get("/api/usuarios/4/analise/soma").header(HttpHeaders.AUTHORIZATION, "Bearer token"))
+			.andExpect(MockMvcResultMatchers.status().isOk());
+	}
+}
@@ -0,0 +1,145 @@
+package com.challenge.myfinances.api.config;
+
+import java.io.File;
+import java.time.LocalDate;
+
+import javax.servlet.http.Cookie;
+import javax.sql.DataSource;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.challenge.myfinances.model.entity.Dinheiro;
+import com.challenge.myfinances.model.entity.Lancamento;
+import com.challenge.myfinances.model.entity.Usuario;
+import com.challenge.myfinances.model.enumeration.StatusLancamento;
+import com.challenge.myfinances.model.enumeration.TipoLancamento;
+import com.challenge.myfinances.model.repository.LancamentoRepository;
+import com.challenge.myfinances.model.repository.UsuarioRepository;
+import com.challenge.myfinances.model.service.TokenService;
+
+/*
+ * Primário e réplica em dois bancos H2. A réplica recebe uma cópia do primário
+ * no início de cada teste e fica "atrasada" em relação às gravações seguintes.
+ */
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:primario;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS financas",
+		"myfinances.replica.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+		"myfinances.replica.janela-ms=60000" })
+@AutoConfigureMockMvc 
+public class ReplicaDataSourceTest {
+	
+	static final String API = "/api/lancamentos";
+	
+	@Autowired
+	MockMvc mvc;
+	
+	@Autowired
+	DataSource dataSource;
+	
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	
+	@Autowired
+	LancamentoRepository lancamentoRepository;
+	
+	@Autowired
+	TokenService tokenService;
+	
+	Usuario usuario;
+	Usuario outroUsuario;
+	
+	@Before
+	public void setUp() throws Exception {
+		lancamentoRepository.deleteAllInBatch();
+		usuarioRepository.deleteAllInBatch();
+		usuario = usuarioRepository.save(Usuario.builder().nome("usuario").email("usuario@email.com").senha("senha").build());
+		outroUsuario = usuarioRepository.save(Usuario.builder().nome("outro").email("outro@email.com").senha("senha").build());
+		
+		RoteamentoDataSource roteamento = dataSource.unwrap(RoteamentoDataSource.class);
+		File copia = File.createTempFile("replica", ".sql");
+		copia.deleteOnExit();
+		new JdbcTemplate(roteamento.getPrimario()).execute("SCRIPT TO '" + copia.getAbsolutePath() + "'");
+		JdbcTemplate jdbcReplica = new JdbcTemplate(roteamento.getReplica());
+		jdbcReplica.execute("DROP ALL OBJECTS");
+		jdbcReplica.execute("RUNSCRIPT FROM '" + copia.getAbsolutePath() + "'");
+	}
+	
+	@Test
+	public void deveLerDaReplicaQuandoNaoHouverEscritaRecenteDoUsuario() throws Exception {
+		//cenário: gravação direta no primário, ainda não replicada
+		lancamentoRepository.save(criarLancamento(outroUsuario));
+		
+		//ação e verificação
+		mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", outroUsuario.getId().toString()))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(0));
+	}
+	
+	@Test
+	public void deveLerDoPrimarioLogoAposUmaEscritaDoCliente() throws Exception {
+		//cenário
+		Cookie escrita = gravar(MockMvcRequestBuilders.post(API)).getCookie(LeituraConsistente.ESCRITA_RECENTE);
+		
+		//ação e verificação: com o cookie da gravação vai para o primário, em qualquer instância
+		mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", usuario.getId().toString()).cookie(escrita))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1));
+		
+		//sem cookie nem token, informar o usuário que gravou não desvia a leitura
+		mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", usuario.getId().toString()))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(0));
+	}
+	
+	@Test
+	public void deveLerDoPrimarioAposUmaEscritaDoUsuarioDoTokenSemCookie() throws Exception {
+		//cenário
+		String autorizacao = "Bearer " + tokenService.gerar(usuario.getId()).getToken();
+		gravar(MockMvcRequestBuilders.post(API).header(HttpHeaders.AUTHORIZATION, autorizacao));
+		
+		//ação e verificação
+		mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", usuario.getId().toString())
+					.header(HttpHeaders.AUTHORIZATION, autorizacao))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1));
+	}
+	
+	private MockHttpServletResponse gravar(MockHttpServletRequestBuilder requisicao) throws Exception {
+		return mvc.perform(requisicao
+					.contentType(MediaType.APPLICATION_JSON)
+					.content("{\"descricao\":\"Lancamento\",\"mes\":1,\"ano\":2019,\"valor\":10,"
+							+ "\"tipo\":\"RECEITA\",\"usuario\":" + usuario.getId() + "}"))
+			.andExpect(MockMvcResultMatchers.status().isCreated())
+			.andReturn().getResponse();
+	}
+	
+	private static Lancamento criarLancamento(Usuario usuario) {
+		return Lancamento.builder()
+				.ano(2019).mes(1)
+				.descricao("Lancamento")
+				.valor(Dinheiro.valueOf("10"))
+				.tipo(TipoLancamento.RECEITA)
+				.status(StatusLancamento.PENDENTE)
+				.dataCadastro(LocalDate.now())
+				.usuario(usuario)
+				.build();
+	}
+
+}
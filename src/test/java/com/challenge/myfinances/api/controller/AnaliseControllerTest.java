@@ -0,0 +1,89 @@
+package com.challenge.myfinances.api.controller;
+
+import java.util.Collections;
+
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.challenge.myfinances.model.entity.Dinheiro;
+import com.challenge.myfinances.model.enumeration.Agrupamento;
+import com.challenge.myfinances.model.service.AnaliseService;
+import com.challenge.myfinances.model.service.FiltroAnalise;
+import com.challenge.myfinances.model.service.ResultadoAnalise;
+import com.challenge.myfinances.model.service.TokenService;
+import com.challenge.myfinances.model.service.TotalAnalise;
+import com.challenge.myfinances.model.service.VersaoUsuarioService;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@WebMvcTest(controllers = AnaliseController.class)
+@AutoConfigureMockMvc
+public class AnaliseControllerTest {
+	
+	static final String API = "/api/usuarios/1/analise";
+	
+	@MockBean
+	AnaliseService service;
+	
+	@MockBean
+	VersaoUsuarioService versaoService;
+	
+	@MockBean
+	TokenService tokenService;
+	
+	@Autowired
+	MockMvc mvc;
+	
+	@Test
+	public void deveRetornarOsTotaisAgrupadosComETag() throws Exception {
+		//cenário
+		FiltroAnalise filtro = FiltroAnalise.builder().anoInicial(2020).anoFinal(2020).build();
+		Mockito.when(versaoService.obterVersao(1L)).thenReturn(3L);
+		Mockito.when(service.agrupar(1L, filtro, Agrupamento.ANO, 3L)).thenReturn(new ResultadoAnalise<>(3L, Collections.singletonList(
+				new TotalAnalise(2020, null, null, null, Dinheiro.valueOf("100"), Dinheiro.valueOf("30.5"), 4))));
+	
+		//execução e verificação
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/totais?agrupamento=ANO&anoInicial=2020&anoFinal=2020")))
+		.andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, Matchers.startsWith("\"1-3-")))
+		.andExpect(MockMvcResultMatchers.jsonPath("[0].ano").value(2020))
+		.andExpect(MockMvcResultMatchers.jsonPath("[0].saldo").value(69.5))
+		.andExpect(MockMvcResultMatchers.jsonPath("[0].quantidade").value(4));
+	}
+	
+	@Test
+	public void deveIdentificarARespostaPelaVersaoDasColunasQueACalcularam() throws Exception {
+		//cenário
+		Mockito.when(versaoService.obterVersao(1L)).thenReturn(3L);
+		Mockito.when(service.somar(ArgumentMatchers.eq(1L), ArgumentMatchers.any(), ArgumentMatchers.eq(3L)))
+			.thenReturn(new ResultadoAnalise<>(2L, Dinheiro.valueOf("10")));
+	
+		//execução e verificação
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/soma")))
+		.andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, Matchers.startsWith("\"1-2-")))
+		.andExpect(MockMvcResultMatchers.content().string("10.00"));
+	}
+	
+	@Test
+	public void deveRetornarBadRequestParaTipoInvalido() throws Exception {
+		//execução e verificação
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/soma?tipo=OUTRO")))
+		.andExpect(MockMvcResultMatchers.status().isBadRequest())
+		.andExpect(MockMvcResultMatchers.content().string("Informe um tipo válido"));
+		Mockito.verify(service, Mockito.never()).somar(ArgumentMatchers.anyLong(), ArgumentMatchers.any(), ArgumentMatchers.anyLong());
+	}
+}
@@ -0,0 +1,295 @@
+package com.challenge.myfinances.api.controller;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.hamcrest.Matchers;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.jayway.jsonpath.JsonPath;
+
+import com.challenge.myfinances.api.config.ConsultasSql;
+import com.challenge.myfinances.model.entity.Dinheiro;
+import com.challenge.myfinances.model.entity.Lancamento;
+import com.challenge.myfinances.model.entity.Usuario;
+import com.challenge.myfinances.model.enumeration.StatusLancamento;
+import com.challenge.myfinances.model.enumeration.TipoLancamento;
+import com.challenge.myfinances.model.repository.LancamentoRepository;
+import com.challenge.myfinances.model.repository.SaldoUsuarioRepository;
+import com.challenge.myfinances.model.repository.UsuarioRepository;
+import com.challenge.myfinances.model.repository.VersaoUsuarioRepository;
+import com.challenge.myfinances.model.repository.specification.LancamentoSpecifications;
+import com.challenge.myfinances.model.service.SaldoService;
+import com.challenge.myfinances.model.service.TokenService;
+import com.challenge.myfinances.model.service.UsuarioService;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@SpringBootTest // -> contexto completo, com banco, para contar as instruções SQL de cada endpoint
+@AutoConfigureMockMvc 
+public class LancamentoControllerTest {
+
+	static final String API = "/api/lancamentos";
+	
+	@Autowired
+	MockMvc mvc;
+	
+	@Autowired
+	LancamentoRepository repository;
+	
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	
+	@Autowired
+	SaldoUsuarioRepository saldoRepository;
+	
+	@Autowired
+	VersaoUsuarioRepository versaoRepository;
+	
+	@Autowired
+	UsuarioService usuarioService;
+	
+	@Autowired
+	SaldoService saldoService;
+	
+	@Autowired
+	TokenService tokenService;
+	
+	Usuario usuario;
+	List<Lancamento> lancamentos;
+	
+	@Before
+	public void setUp() {
+		usuarioService.limparCache();
+		usuario = usuarioRepository.save(Usuario.builder().nome("consultas").email("consultas@email.com").senha("senha").build());
+		
+		lancamentos = new ArrayList<>();
+		for(int i = 0; i < 20; i++)
+			lancamentos.add(Lancamento.builder()
+					.ano(2019).mes(1)
+					.descricao("Lancamento " + i)
+					.valor(Dinheiro.valueOf("10"))
+					.tipo(TipoLancamento.RECEITA)
+					.status(StatusLancamento.PENDENTE)
+					.dataCadastro(LocalDate.now())
+					.usuario(usuario)
+					.build());
+		lancamentos = repository.saveAll(lancamentos);
+	}
+	
+	@After
+	public void tearDown() {
+		repository.deleteInBatch(repository.findAll(LancamentoSpecifications.doUsuario(usuario.getId())));
+		saldoRepository.findById(usuario.getId()).ifPresent(saldoRepository::delete);
+		versaoRepository.findById(usuario.getId()).ifPresent(versaoRepository::delete);
+		usuarioRepository.delete(usuario);
+	}
+	
+	@Test
+	public void deveBuscarLancamentosSemConsultasPorLancamento() throws Exception {
+		//ação e verificação: usuário + versão (ETag) + lançamentos, independente da quantidade retornada
+		mvc.perform(MockMvcRequestBuilders.get(API)
+					.param("usuario", usuario.getId().toString())
+					.param("ano", "2019")
+					.param("mes", "1"))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(20))
+			.andExpect(ConsultasSql.noMaximo(3));
+		
+		//usuário já em cache
+		mvc.perform(MockMvcRequestBuilders.get(API)
+					.param("usuario", usuario.getId().toString())
+					.param("tamanho", "5"))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(ConsultasSql.noMaximo(2));
+	}
+	
+	@Test
+	public void deveBuscarPelaDescricaoQueContemOTermo() throws Exception {
+		//ação e verificação: TRIGRAMA, como em produção, encontra o termo no meio da descrição
+		mvc.perform(MockMvcRequestBuilders.get(API)
+					.param("usuario", usuario.getId().toString())
+					.param("descricao", "AMENTO 1"))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(11));
+	}
+	
+	@Test
+	public void deveAtualizarStatusComConsultasLimitadas() throws Exception {
+		//cenário
+		saldoService.recalcular(usuario.getId());
+		
+		//ação e verificação: leitura do resumo, período fechado com o usuário bloqueado,
+		//update do lançamento, do saldo e da versão do usuário
+		mvc.perform(MockMvcRequestBuilders.put(API + "/" + lancamentos.get(0).getId() + "/atualizar-status")
+					.contentType(MediaType.APPLICATION_JSON)
+					.content("{\"status\":\"EFETIVADO\"}"))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(ConsultasSql.noMaximo(5));
+	}
+	
+	@Test
+	public void deveResponderNaoModificadoSemBuscarOsLancamentos() throws Exception {
+		//cenário
+		String etag = mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", usuario.getId().toString()))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		
+		//ação e verificação: apenas a versão do usuário é consultada
+		mvc.perform(MockMvcRequestBuilders.get(API)
+					.param("usuario", usuario.getId().toString())
+					.header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(MockMvcResultMatchers.status().isNotModified())
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, etag))
+			.andExpect(ConsultasSql.noMaximo(1));
+		
+		//outro filtro, página ou tamanho é outra resposta, com outro ETag
+		mvc.perform(MockMvcRequestBuilders.get(API)
+					.param("usuario", usuario.getId().toString())
+					.param("tamanho", "5")
+					.header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, Matchers.not(etag)));
+		
+		//uma gravação do usuário muda a versão
+		mvc.perform(MockMvcRequestBuilders.put(API + "/" + lancamentos.get(0).getId() + "/atualizar-status")
+					.contentType(MediaType.APPLICATION_JSON)
+					.content("{\"status\":\"CANCELADO\"}"))
+			.andExpect(MockMvcResultMatchers.status().isOk());
+		
+		mvc.perform(MockMvcRequestBuilders.get(API)
+					.param("usuario", usuario.getId().toString())
+					.header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, Matchers.not(etag)));
+	}
+	
+	@Test
+	public void deveGravarEExcluirASerieInteiraComConsultasLimitadas() throws Exception {
+		//ação e verificação: sequences da série e dos ids, inserts em lote e versão do usuário
+		//(criada nesta primeira gravação, com o usuário bloqueado), independente da quantidade de parcelas
+		String resposta = mvc.perform(MockMvcRequestBuilders.post(API + "/serie")
+					.contentType(MediaType.APPLICATION_JSON)
+					.content("{\"descricao\":\"Notebook\",\"ano\":2019,\"mes\":11,\"quantidade\":12,"
+							+ "\"valor\":1000,\"tipoSerie\":\"PARCELADA\",\"tipo\":\"DESPESA\","
+							+ "\"usuario\":" + usuario.getId() + "}"))
+			.andExpect(MockMvcResultMatchers.status().isCreated())
+			.andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(12))
+			.andExpect(MockMvcResultMatchers.jsonPath("[0].valor").value(83.34))
+			
+			.andExpect(MockMvcResultMatchers.jsonPath("[11].ano").value(2020))
+			.andExpect(MockMvcResultMatchers.jsonPath("[11].mes").value(10))
+			.andExpect(MockMvcResultMatchers.jsonPath("[11].parcela").value(12))
+			.andExpect(ConsultasSql.noMaximo(10))
+			.andReturn().getResponse().getContentAsString();
+		
+		Number serie = JsonPath.read(resposta, "$[0].serie");
+		
+		//a busca (resumos) também identifica a série e a parcela
+		mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", usuario.getId().toString())
+					.param("ano", "2020").param("mes", "10"))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("[0].serie").value(serie))
+			.andExpect(MockMvcResultMatchers.jsonPath("[0].parcela").value(12));
+		
+		//sem token não há usuário para restringir a exclusão
+		mvc.perform(MockMvcRequestBuilders.delete(API + "/serie/" + serie))
+			.andExpect(MockMvcResultMatchers.status().isUnauthorized());
+		
+		//outro usuário não enxerga a série
+		Usuario outro = usuarioRepository.save(Usuario.builder().nome("outro").email("outro@email.com").senha("senha").build());
+		try {
+			mvc.perform(MockMvcRequestBuilders.delete(API + "/serie/" + serie)
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenService.gerar(outro.getId()).getToken()))
+				.andExpect(MockMvcResultMatchers.status().isBadRequest())
+				.andExpect(MockMvcResultMatchers.content().string("Série não encontrada"));
+		}finally {
+			usuarioRepository.delete(outro);
+		}
+		
+		String autorizacao = "Bearer " + tokenService.gerar(usuario.getId()).getToken();
+		mvc.perform(MockMvcRequestBuilders.delete(API + "/serie/" + serie).header(HttpHeaders.AUTHORIZATION, autorizacao))
+			.andExpect(MockMvcResultMatchers.status().isNoContent());
+		
+		mvc.perform(MockMvcRequestBuilders.delete(API + "/serie/" + serie).header(HttpHeaders.AUTHORIZATION, autorizacao))
+			.andExpect(MockMvcResultMatchers.status().isBadRequest())
+			.andExpect(MockMvcResultMatchers.content().string("Série não encontrada"));
+	}
+	
+	@Test
+	public void deveNegarAcessoAosLancamentosDeOutroUsuario() throws Exception {
+		//cenário
+		Usuario outro = usuarioRepository.save(Usuario.builder().nome("outro").email("outro@email.com").senha("senha").build());
+		String autorizacao = "Bearer " + tokenService.gerar(outro.getId()).getToken();
+		String id = lancamentos.get(0).getId().toString();
+		
+		try {
+			//ação e verificação
+			mvc.perform(MockMvcRequestBuilders.get(API + "/" + id).header(HttpHeaders.AUTHORIZATION, autorizacao))
+				.andExpect(MockMvcResultMatchers.status().isForbidden());
+			
+			mvc.perform(MockMvcRequestBuilders.put(API + "/" + id)
+						.header(HttpHeaders.AUTHORIZATION, autorizacao)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"descricao\":\"alterado\",\"ano\":2019,\"mes\":1,\"valor\":10,"
+								+ "\"tipo\":\"RECEITA\",\"usuario\":" + outro.getId() + "}"))
+				.andExpect(MockMvcResultMatchers.status().isForbidden());
+			
+			mvc.perform(MockMvcRequestBuilders.put(API + "/" + id + "/atualizar-status")
+						.header(HttpHeaders.AUTHORIZATION, autorizacao)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"status\":\"EFETIVADO\"}"))
+				.andExpect(MockMvcResultMatchers.status().isForbidden());
+			
+			mvc.perform(MockMvcRequestBuilders.delete(API + "/" + id).header(HttpHeaders.AUTHORIZATION, autorizacao))
+				.andExpect(MockMvcResultMatchers.status().isForbidden());
+			
+			mvc.perform(MockMvcRequestBuilders.post(API)
+						.header(HttpHeaders.AUTHORIZATION, autorizacao)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"descricao\":\"invasor\",\"ano\":2019,\"mes\":1,\"valor\":10,"
+								+ "\"tipo\":\"RECEITA\",\"usuario\":" + usuario.getId() + "}"))
+				.andExpect(MockMvcResultMatchers.status().isForbidden());
+			
+			mvc.perform(MockMvcRequestBuilders.delete("/api/usuarios/" + usuario.getId()).header(HttpHeaders.AUTHORIZATION, autorizacao))
+				.andExpect(MockMvcResultMatchers.status().isForbidden());
+			
+			Lancamento lancamento = repository.findById(lancamentos.get(0).getId()).get();
+			Assertions.assertThat(lancamento.getDescricao()).isEqualTo("Lancamento 0");
+			Assertions.assertThat(lancamento.getStatus()).isEqualTo(StatusLancamento.PENDENTE);
+			Assertions.assertThat(repository.count(LancamentoSpecifications.doUsuario(usuario.getId()))).isEqualTo(20);
+		}finally {
+			usuarioRepository.delete(outro);
+		}
+	}
+	
+	@Test
+	public void deveGravarParaOUsuarioDoTokenQuandoOCorpoNaoInformaUsuario() throws Exception {
+		//cenário
+		String autorizacao = "Bearer " + tokenService.gerar(usuario.getId()).getToken();
+		
+		//ação e verificação
+		mvc.perform(MockMvcRequestBuilders.post(API)
+					.header(HttpHeaders.AUTHORIZATION, autorizacao)
+					.contentType(MediaType.APPLICATION_JSON)
+					.content("{\"descricao\":\"proprio\",\"ano\":2019,\"mes\":1,\"valor\":10,\"tipo\":\"RECEITA\"}"))
+			.andExpect(MockMvcResultMatchers.status().isCreated())
+			.andExpect(MockMvcResultMatchers.jsonPath("usuario").value(usuario.getId()));
+	}
+
+}
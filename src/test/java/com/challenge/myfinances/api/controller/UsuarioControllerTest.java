@@ -1,5 +1,7 @@
 package com.challenge.myfinances.api.controller;
 
+import java.time.Instant;
+
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
@@ -7,6 +9,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
@@ -16,11 +19,18 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import com.challenge.myfinances.api.dto.UsuarioDTO;
+import com.challenge.myfinances.model.entity.Dinheiro;
 import com.challenge.myfinances.model.entity.Usuario;
 import com.challenge.myfinances.model.exception.BusinessRuleException;
 import com.challenge.myfinances.model.exception.ErroAutentificacaoException;
+import com.challenge.myfinances.model.repository.UsuarioRepository;
+import com.challenge.myfinances.model.service.FechamentoService;
 import com.challenge.myfinances.model.service.LancamentoService;
+import com.challenge.myfinances.model.service.SaldoService;
+import com.challenge.myfinances.model.service.TokenAcesso;
+import com.challenge.myfinances.model.service.TokenService;
 import com.challenge.myfinances.model.service.UsuarioService;
+import com.challenge.myfinances.model.service.VersaoUsuarioService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 @RunWith(SpringRunner.class)
@@ -38,6 +48,21 @@ public class UsuarioControllerTest {
 	@MockBean
 	LancamentoService lancamentoService;
 	
+	@MockBean
+	SaldoService saldoService;
+	
+	@MockBean
+	FechamentoService fechamentoService;
+	
+	@MockBean
+	VersaoUsuarioService versaoService;
+	
+	@MockBean
+	UsuarioRepository repository;
+	
+	@MockBean
+	TokenService tokenService;
+	
 	@Autowired
 	MockMvc mvc; 
 	
@@ -50,6 +75,7 @@ public class UsuarioControllerTest {
 		UsuarioDTO dto = UsuarioDTO.builder().email(email).senha(senha).build();
 		Usuario usuario = Usuario.builder().id(1L).email(email).senha(senha).build();
 		Mockito.when(service.autenticar(email, senha)).thenReturn(usuario);
+		Mockito.when(tokenService.gerar(1L)).thenReturn(new TokenAcesso("1.100.assinatura", Instant.now()));
 		String json = new ObjectMapper().writeValueAsString(dto);
 		
 		//execução e verificação
@@ -63,8 +89,69 @@ public class UsuarioControllerTest {
 		.andExpect(MockMvcResultMatchers.status().isOk())
 		.andExpect(MockMvcResultMatchers.jsonPath("id").value(usuario.getId()))
 		.andExpect(MockMvcResultMatchers.jsonPath("nome").value(usuario.getNome()))
-		.andExpect(MockMvcResultMatchers.jsonPath("email").value(usuario.getEmail()));
+		.andExpect(MockMvcResultMatchers.jsonPath("email").value(usuario.getEmail()))
+		.andExpect(MockMvcResultMatchers.jsonPath("token").value("1.100.assinatura"));
+		
+	}
+	
+	@Test
+	public void deveRetornarUnauthorizedParaTokenInvalido() throws Exception {
+		//cenário
+		Mockito.when(tokenService.obterIdUsuario("invalido"))
+			.thenThrow(new ErroAutentificacaoException("Token inválido"));
+		
+		//execução e verificação
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+										.get(API.concat("/1/saldo"))
+										.header("Authorization", "Bearer invalido");
+		
+		mvc.perform(request)
+		.andExpect(MockMvcResultMatchers.status().isUnauthorized());
+		Mockito.verifyZeroInteractions(service);
+	}
+	
+	@Test
+	public void deveRetornarForbiddenParaSaldoDeOutroUsuario() throws Exception {
+		//cenário
+		Mockito.when(tokenService.obterIdUsuario("token")).thenReturn(2L);
+		
+		//execução e verificação
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+										.get(API.concat("/1/saldo"))
+										.header("Authorization", "Bearer token");
+		
+		mvc.perform(request)
+		.andExpect(MockMvcResultMatchers.status().isForbidden());
+		Mockito.verifyZeroInteractions(service);
+	}
+	
+	@Test
+	public void deveRetornarOSaldoComETagDaVersaoDoUsuario() throws Exception {
+		//cenário
+		Mockito.when(versaoService.obterVersao(1L)).thenReturn(5L);
+		Mockito.when(lancamentoService.obterSaldoPorUsuario(1L)).thenReturn(Dinheiro.valueOf("10"));
 		
+		//execução e verificação
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/1/saldo")))
+		.andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"1-5\""))
+		.andExpect(MockMvcResultMatchers.content().string("10.00"));
+	}
+	
+	@Test
+	public void deveRetornarNotModifiedSemCalcularOSaldo() throws Exception {
+		//cenário
+		Mockito.when(versaoService.obterVersao(1L)).thenReturn(5L);
+		
+		//execução e verificação
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+										.get(API.concat("/1/saldo"))
+										.header(HttpHeaders.IF_NONE_MATCH, "\"1-4\", W/\"1-5\"");
+		
+		mvc.perform(request)
+		.andExpect(MockMvcResultMatchers.status().isNotModified())
+		.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"1-5\""));
+		Mockito.verifyZeroInteractions(lancamentoService);
 	}
 	
 	@Test
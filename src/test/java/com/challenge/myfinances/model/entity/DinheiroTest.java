@@ -0,0 +1,52 @@
+package com.challenge.myfinances.model.entity;
+
+import java.math.BigDecimal;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import com.challenge.myfinances.api.dto.LancamentoDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class DinheiroTest {
+	
+	@Test
+	public void deveArredondarParaCentavosComoONumericDoBanco() {
+		//ação e verificação
+		Assertions.assertThat(Dinheiro.valueOf(new BigDecimal("12.345")).centavos()).isEqualTo(1235);
+		Assertions.assertThat(Dinheiro.valueOf("-0.5").centavos()).isEqualTo(-50);
+		Assertions.assertThat(Dinheiro.valueOf("10").toBigDecimal()).isEqualTo(new BigDecimal("10.00"));
+	}
+	
+	@Test
+	public void deveSomarECompararEmCentavos() {
+		//cenário
+		Dinheiro receitas = Dinheiro.valueOf("100.10");
+		Dinheiro despesas = Dinheiro.valueOf("0.15");
+		
+		//ação
+		Dinheiro saldo = receitas.subtrair(despesas).somar(Dinheiro.deCentavos(5));
+		
+		//verificação
+		Assertions.assertThat(saldo).isEqualTo(Dinheiro.valueOf("100.00"));
+		Assertions.assertThat(saldo.toString()).isEqualTo("100.00");
+		Assertions.assertThat(despesas.negar().toString()).isEqualTo("-0.15");
+		Assertions.assertThat(despesas).isLessThan(receitas);
+	}
+	
+	@Test
+	public void deveManterOFormatoDecimalNoJson() throws Exception {
+		//cenário
+		ObjectMapper mapper = new ObjectMapper();
+		
+		//ação
+		String json = mapper.writeValueAsString(LancamentoDTO.builder().valor(Dinheiro.valueOf("1234.5")).build());
+		LancamentoDTO inteiro = mapper.readValue("{\"valor\": 12}", LancamentoDTO.class);
+		LancamentoDTO texto = mapper.readValue("{\"valor\": \"7.25\"}", LancamentoDTO.class);
+		
+		//verificação
+		Assertions.assertThat(json).contains("\"valor\":1234.50");
+		Assertions.assertThat(inteiro.getValor()).isEqualTo(Dinheiro.deCentavos(1200));
+		Assertions.assertThat(texto.getValor()).isEqualTo(Dinheiro.deCentavos(725));
+	}
+}
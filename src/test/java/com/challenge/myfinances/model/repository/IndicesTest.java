@@ -0,0 +1,77 @@
+package com.challenge.myfinances.model.repository;
+
+import javax.persistence.EntityManager;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/*
+ * Plano (EXPLAIN do H2) das condições usadas pelas consultas dos repositórios,
+ * sobre o esquema criado pelas migrações do Flyway.
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@ActiveProfiles("test")
+public class IndicesTest {
+	
+	@Autowired
+	EntityManager entityManager;
+	
+	@Test
+	public void deveUsarIndiceDeEmailNaBuscaDeUsuario() {
+		//ação
+		String plano = explicar("select * from financas.usuario where email = 'usuario@email.com'");
+		
+		//verificação
+		assertUsaIndice(plano, "uk_usuario_email");
+	}
+	
+	@Test
+	public void deveUsarIndiceDePeriodoNaBuscaDeLancamentos() {
+		//ação
+		String plano = explicar("select * from financas.lancamento "
+				+ "where id_usuario = 1 and ano = 2020 and mes = 1 and tipo = 'RECEITA' order by ano, mes, id");
+		
+		//verificação
+		assertUsaIndice(plano, "idx_lancamento_usuario_periodo");
+	}
+	
+	//no H2 a chave estrangeira tem um índice próprio (id_usuario), que também evita a varredura
+	@Test
+	public void naoDeveVarrerATabelaNoSaldoMensal() {
+		//ação
+		String plano = explicar("select ano, mes, status, sum(valor) from financas.lancamento "
+				+ "where id_usuario = 1 and ano between 2019 and 2020 and (ano * 100 + mes) between 201906 and 202006 "
+				+ "group by ano, mes, status");
+		
+		//verificação
+		Assertions.assertThat(plano).contains("id_usuario = 1").doesNotContain("tablescan");
+	}
+	
+	@Test
+	public void deveUsarIndiceDeTipoEStatusNoSaldo() {
+		//ação
+		String plano = explicar("select sum(valor) from financas.lancamento "
+				+ "where id_usuario = 1 and tipo = 'RECEITA' and status = 'EFETIVADO'");
+		
+		//verificação
+		assertUsaIndice(plano, "idx_lancamento_usuario_tipo_status_valor");
+	}
+	
+	private String explicar(String sql) {
+		return entityManager.createNativeQuery("explain " + sql).getSingleResult().toString().toLowerCase();
+	}
+	
+	private static void assertUsaIndice(String plano, String indice) {
+		Assertions.assertThat(plano).contains(indice).doesNotContain("tablescan");
+	}
+
+}
@@ -1,7 +1,9 @@
 package com.challenge.myfinances.model.repository;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import org.assertj.core.api.Assertions;
@@ -12,12 +14,20 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import com.challenge.myfinances.model.entity.Dinheiro;
 import com.challenge.myfinances.model.entity.Lancamento;
+import com.challenge.myfinances.model.entity.Usuario;
 import com.challenge.myfinances.model.enumeration.StatusLancamento;
 import com.challenge.myfinances.model.enumeration.TipoLancamento;
+import com.challenge.myfinances.model.repository.projection.LancamentoResumo;
+import com.challenge.myfinances.model.repository.projection.SaldoPeriodo;
+import com.challenge.myfinances.model.repository.specification.BuscaDescricao;
+import com.challenge.myfinances.model.repository.specification.LancamentoSpecifications;
 
 @RunWith(SpringRunner.class)
 @DataJpaTest //-> para testes de integração
@@ -44,6 +54,38 @@ public class LancamentoRepositoryTest {
 	}
 
 	
+	@Test
+	public void deveInserirLancamentosEmLote() {
+		//cenário
+		List<Lancamento> lote = new ArrayList<>();
+		for(int i = 0; i < 120; i++)
+			lote.add(criarLancamento());
+		
+		//ação
+		repository.inserirEmLote(lote);
+		
+		//verificação
+		Assertions.assertThat(lote).extracting(Lancamento::getId).doesNotContainNull().doesNotHaveDuplicates();
+		Assertions.assertThat(repository.count()).isEqualTo(120);
+	}
+	
+	@Test
+	public void deveObterOResumoDeUmLancamentoComOIdDoUsuario() {
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		Lancamento lancamento = criarLancamento();
+		lancamento.setUsuario(usuario);
+		entityManager.persist(lancamento);
+		
+		//ação
+		Optional<LancamentoResumo> resumo = repository.obterResumo(lancamento.getId());
+		
+		//verificação
+		Assertions.assertThat(resumo).isPresent();
+		Assertions.assertThat(resumo.get().getIdUsuario()).isEqualTo(usuario.getId());
+		Assertions.assertThat(resumo.get().getTipo()).isEqualTo(TipoLancamento.RECEITA);
+	}
+	
 	@Test
 	public void deveDeletarUmLancamento() {
 		//centario
@@ -94,12 +136,218 @@ public class LancamentoRepositoryTest {
 		Assertions.assertThat(lancamentoEncontrado.isPresent()).isTrue();
 	}
 	
+	@Test
+	public void deveAgruparReceitasEDespesasPorMesEStatus() {
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		persistir(usuario, 2019, 12, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 100);
+		persistir(usuario, 2020, 1, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 300);
+		persistir(usuario, 2020, 1, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, 120);
+		persistir(usuario, 2020, 1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 50);
+		persistir(usuario, 2020, 3, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, 10);
+		
+		//ação
+		List<SaldoPeriodo> periodos = repository.obterSaldoMensal(usuario.getId(), 2020, 2020, 202001, 202002,
+				TipoLancamento.RECEITA, TipoLancamento.DESPESA);
+		
+		//verificação
+		Assertions.assertThat(periodos).hasSize(2);
+		Assertions.assertThat(periodos.get(0).getMes()).isEqualTo(1);
+		Assertions.assertThat(periodos.get(0).getStatus()).isEqualTo(StatusLancamento.EFETIVADO);
+		Assertions.assertThat(periodos.get(0).getReceitas()).isEqualByComparingTo(Dinheiro.valueOf("300"));
+		Assertions.assertThat(periodos.get(0).getDespesas()).isEqualByComparingTo(Dinheiro.valueOf("120"));
+		Assertions.assertThat(periodos.get(1).getStatus()).isEqualTo(StatusLancamento.PENDENTE);
+		Assertions.assertThat(periodos.get(1).getDespesas()).isEqualByComparingTo(Dinheiro.valueOf("50"));
+	}
+	
+	@Test
+	public void deveAgruparReceitasEDespesasPorAno() {
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		persistir(usuario, 2019, 12, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 100);
+		persistir(usuario, 2020, 1, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 300);
+		persistir(usuario, 2020, 3, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, 10);
+		
+		//ação
+		List<SaldoPeriodo> periodos = repository.obterSaldoAnual(usuario.getId(), 2019, 2020,
+				TipoLancamento.RECEITA, TipoLancamento.DESPESA);
+		
+		//verificação
+		Assertions.assertThat(periodos).hasSize(2);
+		Assertions.assertThat(periodos.get(1).getAno()).isEqualTo(2020);
+		Assertions.assertThat(periodos.get(1).getMes()).isNull();
+		Assertions.assertThat(periodos.get(1).getReceitas()).isEqualByComparingTo(Dinheiro.valueOf("300"));
+		Assertions.assertThat(periodos.get(1).getDespesas()).isEqualByComparingTo(Dinheiro.valueOf("10"));
+	}
+	
+	@Test
+	public void deveBuscarAPaginaSeguinteAPartirDoCursor() {
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		persistir(usuario, 2020, 2, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 1);
+		persistir(usuario, 2019, 12, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 2);
+		persistir(usuario, 2020, 1, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 3);
+		persistir(usuario, 2020, 1, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, 4);
+		
+		Specification<Lancamento> filtro = LancamentoSpecifications.doUsuario(usuario.getId());
+		
+		//ação
+		List<LancamentoResumo> primeira = repository.buscarResumos(filtro, null, 2);
+		CursorLancamento cursor = CursorLancamento.decodificar(
+				CursorLancamento.de(primeira.get(1)).codificar());
+		List<LancamentoResumo> segunda = repository.buscarResumos(filtro, cursor, 2);
+		
+		//verificação
+		Assertions.assertThat(primeira).extracting(LancamentoResumo::getValor)
+			.usingElementComparator(Dinheiro::compareTo)
+			.containsExactly(Dinheiro.valueOf("2"), Dinheiro.valueOf("3"));
+		Assertions.assertThat(segunda).extracting(LancamentoResumo::getValor)
+			.usingElementComparator(Dinheiro::compareTo)
+			.containsExactly(Dinheiro.valueOf("4"), Dinheiro.valueOf("1"));
+	}
+	
+	@Test
+	public void devePercorrerTodosOsLancamentosDoUsuarioEmOrdem() {
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		persistir(usuario, 2020, 2, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 1);
+		persistir(usuario, 2019, 12, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 2);
+		persistir(usuario, 2020, 1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 3);
+		entityManager.flush();
+		
+		List<Integer> meses = new ArrayList<>();
+		
+		//ação
+		long lidos = repository.percorrerPorUsuario(usuario.getId(), lancamento -> meses.add(lancamento.getMes()));
+		
+		//verificação
+		Assertions.assertThat(lidos).isEqualTo(3);
+		Assertions.assertThat(meses).containsExactly(12, 1, 2);
+	}
+	
+	@Test
+	public void deveFiltrarPorIgualdadeEPrefixoDaDescricao() {
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		persistir(usuario, 2020, 1, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, 1).setDescricao("Aluguel");
+		persistir(usuario, 2020, 1, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, 2).setDescricao("Conta de luz");
+		persistir(usuario, 2020, 2, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, 3).setDescricao("Aluguel");
+		persistir(usuario, 2020, 1, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, 4).setDescricao("100% aluguel");
+		entityManager.flush();
+		
+		Lancamento filtro = Lancamento.builder().usuario(usuario).ano(2020).mes(1).descricao("alu").build();
+		
+		//ação
+		List<Lancamento> prefixo = repository.findAll(
+				LancamentoSpecifications.filtrar(filtro, BuscaDescricao.PREFIXO), Sort.by("id"));
+		List<Lancamento> contem = repository.findAll(
+				LancamentoSpecifications.filtrar(filtro, BuscaDescricao.TRIGRAMA), Sort.by("id"));
+		filtro.setDescricao("100%");
+		List<Lancamento> curinga = repository.findAll(
+				LancamentoSpecifications.filtrar(filtro, BuscaDescricao.TRIGRAMA), Sort.by("id"));
+		
+		//verificação
+		Assertions.assertThat(prefixo).extracting(Lancamento::getDescricao).containsExactly("Aluguel");
+		Assertions.assertThat(contem).extracting(Lancamento::getDescricao).containsExactly("Aluguel", "100% aluguel");
+		Assertions.assertThat(curinga).extracting(Lancamento::getDescricao).containsExactly("100% aluguel");
+	}
+	
+	@Test
+	public void deveAtualizarOStatusApenasDosLancamentosNoStatusAnterior() {
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		Lancamento pendente = persistir(usuario, 2020, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 1);
+		Lancamento cancelado = persistir(usuario, 2020, 1, TipoLancamento.RECEITA, StatusLancamento.CANCELADO, 2);
+		entityManager.flush();
+		
+		//ação
+		int atualizados = repository.atualizarStatus(Arrays.asList(pendente.getId(), cancelado.getId()), 
+				StatusLancamento.PENDENTE, StatusLancamento.EFETIVADO);
+		
+		//verificação
+		Assertions.assertThat(atualizados).isEqualTo(1);
+		Assertions.assertThat(repository.findById(pendente.getId()).get().getStatus()).isEqualTo(StatusLancamento.EFETIVADO);
+		Assertions.assertThat(repository.findById(cancelado.getId()).get().getStatus()).isEqualTo(StatusLancamento.CANCELADO);
+	}
+	
+	@Test
+	public void deveBloquearOsResumosSelecionadosPeloFiltro() {
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		Lancamento janeiro = persistir(usuario, 2020, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 1);
+		Lancamento fevereiro = persistir(usuario, 2020, 2, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 2);
+		persistir(usuario, 2020, 3, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 3);
+		entityManager.flush();
+		
+		//ação
+		List<LancamentoResumo> bloqueados = repository.bloquearResumos(LancamentoSpecifications.doUsuario(usuario.getId()), 2);
+		
+		//verificação
+		Assertions.assertThat(bloqueados).extracting(LancamentoResumo::getId)
+			.containsExactly(janeiro.getId(), fevereiro.getId());
+	}
+	
+	@Test
+	public void deveAtualizarOStatusSomenteNaVersaoInformada() {
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		Lancamento lancamento = persistir(usuario, 2020, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 1);
+		entityManager.flush();
+		Long versao = lancamento.getVersao();
+		
+		//ação
+		int naVersaoAntiga = repository.atualizarStatusNaVersao(lancamento.getId(), versao + 1, StatusLancamento.EFETIVADO);
+		int naVersaoAtual = repository.atualizarStatusNaVersao(lancamento.getId(), versao, StatusLancamento.EFETIVADO);
+		
+		//verificação
+		Assertions.assertThat(naVersaoAntiga).isEqualTo(0);
+		Assertions.assertThat(naVersaoAtual).isEqualTo(1);
+		Assertions.assertThat(repository.obterResumo(lancamento.getId()).get())
+			.extracting(LancamentoResumo::getStatus, LancamentoResumo::getVersao)
+			.containsExactly(StatusLancamento.EFETIVADO, versao + 1);
+	}
+	
+	@Test
+	public void deveFiltrarEExcluirOsLancamentosDaSerie() {
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		Long serie = repository.proximaSerie();
+		Lancamento primeira = persistir(usuario, 2020, 1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 1);
+		Lancamento segunda = persistir(usuario, 2020, 2, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 1);
+		Lancamento avulso = persistir(usuario, 2020, 2, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 1);
+		primeira.setSerie(serie);
+		segunda.setSerie(serie);
+		entityManager.flush();
+		
+		//ação
+		List<LancamentoResumo> daSerie = repository.buscarResumos(LancamentoSpecifications.daSerie(serie), null, null);
+		int excluidos = repository.excluir(Arrays.asList(primeira.getId(), segunda.getId()));
+		
+		//verificação
+		Assertions.assertThat(repository.proximaSerie()).isGreaterThan(serie);
+		Assertions.assertThat(daSerie).extracting(LancamentoResumo::getId)
+			.containsExactly(primeira.getId(), segunda.getId());
+		Assertions.assertThat(excluidos).isEqualTo(2);
+		Assertions.assertThat(repository.findAll()).extracting(Lancamento::getId).containsExactly(avulso.getId());
+	}
+	
+	private Lancamento persistir(Usuario usuario, int ano, int mes, TipoLancamento tipo, StatusLancamento status, long valor) {
+		Lancamento lancamento = criarLancamento();
+		lancamento.setUsuario(usuario);
+		lancamento.setAno(ano);
+		lancamento.setMes(mes);
+		lancamento.setTipo(tipo);
+		lancamento.setStatus(status);
+		lancamento.setValor(Dinheiro.deCentavos(valor * 100L));
+		return entityManager.persist(lancamento);
+	}
+	
 	//auxiliar
 	public static Lancamento criarLancamento() {
 		return Lancamento.builder()
 				.ano(2019).mes(1)
 				.descricao("Lancamento Teste")
-				.valor(BigDecimal.valueOf(10))
+				.valor(Dinheiro.valueOf("10"))
 				.tipo(TipoLancamento.RECEITA)
 				.status(StatusLancamento.PENDENTE)
 				.dataCadastro(LocalDate.now())
@@ -0,0 +1,79 @@
+package com.challenge.myfinances.model.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.flywaydb.core.Flyway;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.challenge.myfinances.model.entity.Lancamento;
+import com.challenge.myfinances.model.entity.Usuario;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@SpringBootTest(properties = // -> banco próprio, com registros anteriores às sequences
+		"spring.datasource.url=jdbc:h2:mem:migracao;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS financas")
+public class MigracaoSequenciasTest {
+	
+	@TestConfiguration
+	static class BancoExistente {
+		
+		//esquema inicial com ids gravados fora das sequences, depois as demais migrações
+		@Bean
+		FlywayMigrationStrategy migrarComRegistrosExistentes() {
+			return flyway -> {
+				Flyway.configure().configuration(flyway.getConfiguration()).target("1").load().migrate();
+				
+				JdbcTemplate jdbc = new JdbcTemplate(flyway.getConfiguration().getDataSource());
+				for(long id = 1; id <= 40; id++) {
+					jdbc.update("insert into financas.usuario (id, nome, email) values (?, ?, ?)", 
+							id, "existente", "existente" + id + "@email.com");
+					jdbc.update("insert into financas.lancamento (id, descricao, mes, ano, valor, tipo, status, id_usuario) "
+							+ "values (?, 'existente', 1, 2019, 10, 'RECEITA', 'PENDENTE', ?)", id, id);
+				}
+				
+				flyway.migrate();
+			};
+		}
+	}
+	
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	
+	@Autowired
+	LancamentoRepository lancamentoRepository;
+	
+	@Test
+	public void deveInserirPelaJpaDepoisDosIdsExistentes() {
+		//cenário
+		List<Usuario> usuarios = new ArrayList<>();
+		for(int i = 0; i < 60; i++)
+			usuarios.add(Usuario.builder().nome("novo").email("novo" + i + "@email.com").build());
+		
+		//ação
+		usuarios = usuarioRepository.saveAll(usuarios);
+		List<Lancamento> lancamentos = new ArrayList<>();
+		for(Usuario usuario : usuarios) {
+			Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+			lancamento.setUsuario(usuario);
+			lancamentos.add(lancamento);
+		}
+		lancamentos = lancamentoRepository.saveAll(lancamentos);
+		
+		//verificação
+		Assertions.assertThat(usuarios).extracting(Usuario::getId).allMatch(id -> id > 40);
+		Assertions.assertThat(lancamentos).extracting(Lancamento::getId).allMatch(id -> id > 40);
+		Assertions.assertThat(usuarioRepository.count()).isEqualTo(100);
+		Assertions.assertThat(lancamentoRepository.count()).isEqualTo(100);
+	}
+}
@@ -0,0 +1,191 @@
+package com.challenge.myfinances.model.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.challenge.myfinances.model.entity.Dinheiro;
+import com.challenge.myfinances.model.entity.Lancamento;
+import com.challenge.myfinances.model.entity.Usuario;
+import com.challenge.myfinances.model.enumeration.Agrupamento;
+import com.challenge.myfinances.model.enumeration.StatusLancamento;
+import com.challenge.myfinances.model.enumeration.TipoLancamento;
+import com.challenge.myfinances.model.exception.BusinessRuleException;
+import com.challenge.myfinances.model.repository.LancamentoRepository;
+import com.challenge.myfinances.model.repository.UsuarioRepository;
+import com.challenge.myfinances.model.repository.projection.LancamentoResumo;
+import com.challenge.myfinances.model.repository.projection.SaldoPeriodo;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@SpringBootTest
+@Transactional // -> cada teste é desfeito ao final
+public class AnaliseServiceTest {
+	
+	static final FiltroAnalise TODOS = FiltroAnalise.builder().build();
+	
+	@Autowired
+	AnaliseService service;
+	
+	@Autowired
+	LancamentoService lancamentoService;
+	
+	@Autowired
+	LancamentoRepository repository;
+	
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	
+	@Autowired
+	VersaoUsuarioService versaoService;
+	
+	Usuario usuario;
+	List<Lancamento> lancamentos;
+	
+	@Before
+	public void setUp() {
+		usuario = usuarioRepository.save(Usuario.builder().nome("analise").email("analise@email.com").senha("senha").build());
+	
+		lancamentos = new ArrayList<>();
+		for(int mes = 1; mes <= 6; mes++) {
+			lancamentos.add(criarLancamento(2020, mes, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 100 * mes));
+			lancamentos.add(criarLancamento(2020, mes, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, 10 * mes));
+			lancamentos.add(criarLancamento(2020, mes, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, mes));
+		}
+		lancamentos.add(criarLancamento(2021, 1, TipoLancamento.DESPESA, StatusLancamento.CANCELADO, 45));
+		lancamentos = repository.saveAll(lancamentos);
+	}
+	
+	@Test
+	public void deveAgruparPorMesComoAConsultaSql() {
+		//cenário
+		FiltroAnalise filtro = FiltroAnalise.builder().anoInicial(2020).anoFinal(2021)
+				.status(StatusLancamento.EFETIVADO).build();
+		List<SaldoPeriodo> sql = repository.obterSaldoMensal(usuario.getId(), 2020, 2021, 202001, 202112,
+				TipoLancamento.RECEITA, TipoLancamento.DESPESA).stream()
+				.filter(saldo -> saldo.getStatus() == StatusLancamento.EFETIVADO)
+				.collect(Collectors.toList());
+	
+		//ação
+		List<TotalAnalise> totais = service.agrupar(usuario.getId(), filtro, Agrupamento.MES, 0).getValor();
+	
+		//verificação
+		Assertions.assertThat(totais.stream()
+				.map(total -> total.getAno() + "/" + total.getMes() + " " + total.getReceitas() + " " + total.getDespesas()))
+			.containsExactlyElementsOf(sql.stream()
+				.map(saldo -> saldo.getAno() + "/" + saldo.getMes() + " " + saldo.getReceitas() + " " + saldo.getDespesas())
+				.collect(Collectors.toList()));
+		Assertions.assertThat(service.agrupar(usuario.getId(), TODOS, Agrupamento.STATUS, 0).getValor())
+			.extracting(TotalAnalise::getStatus, TotalAnalise::getQuantidade)
+			.containsExactly(Assertions.tuple(StatusLancamento.PENDENTE, 6L),
+					Assertions.tuple(StatusLancamento.CANCELADO, 1L),
+					Assertions.tuple(StatusLancamento.EFETIVADO, 12L));
+	}
+	
+	@Test
+	public void deveObterOsMaioresLancamentosDoFiltro() {
+		//cenário
+		FiltroAnalise despesas = FiltroAnalise.builder().tipo(TipoLancamento.DESPESA).build();
+	
+		//ação
+		List<LancamentoResumo> maiores = service.obterMaiores(usuario.getId(), despesas, 3, 0).getValor();
+	
+		//verificação
+		Assertions.assertThat(maiores)
+			.extracting(LancamentoResumo::getValor)
+			.containsExactly(Dinheiro.valueOf("60"), Dinheiro.valueOf("50"), Dinheiro.valueOf("45"));
+		Assertions.assertThat(service.somar(usuario.getId(), despesas, 0).getValor()).isEqualTo(Dinheiro.valueOf("276"));
+		Assertions.assertThat(service.somar(usuario.getId(), FiltroAnalise.builder().anoInicial(2020).anoFinal(2020)
+				.status(StatusLancamento.EFETIVADO).build(), 0).getValor()).isEqualTo(Dinheiro.valueOf("1890"));
+	}
+	
+	@Test
+	public void deveRetornarErroParaFiltroOuQuantidadeInvalidos() {
+		//ação
+		Throwable periodo = Assertions.catchThrowable(() -> service.somar(usuario.getId(),
+				FiltroAnalise.builder().anoInicial(2021).anoFinal(2020).build(), 0));
+		Throwable quantidade = Assertions.catchThrowable(() -> service.obterMaiores(usuario.getId(), TODOS, 1000, 0));
+	
+		//verificação
+		Assertions.assertThat(periodo)
+			.isInstanceOf(BusinessRuleException.class)
+			.hasMessage("O período inicial deve ser anterior ao período final");
+		Assertions.assertThat(quantidade).isInstanceOf(BusinessRuleException.class);
+	}
+	
+	@Test
+	public void deveAtualizarAsColunasCarregadasSomenteAposOCommit() {
+		//cenário
+		Dinheiro inicial = service.somar(usuario.getId(), TODOS, 0).getValor();
+		Lancamento salvo = lancamentoService.salvar(criarLancamento(2021, 2, TipoLancamento.RECEITA, null, 500));
+		lancamentoService.atualizarStatus(salvo.getId(), null, StatusLancamento.EFETIVADO);
+		lancamentoService.deletar(lancamentos.get(lancamentos.size() - 1));
+		Dinheiro antesDoCommit = service.somar(usuario.getId(), TODOS, 0).getValor();
+		
+		//ação
+		TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+		
+		//verificação
+		Assertions.assertThat(inicial).isEqualTo(Dinheiro.valueOf("1824"));
+		Assertions.assertThat(antesDoCommit).isEqualTo(inicial);
+		Assertions.assertThat(service.somar(usuario.getId(), TODOS, 0).getValor()).isEqualTo(Dinheiro.valueOf("2369"));
+		Assertions.assertThat(service.agrupar(usuario.getId(), FiltroAnalise.builder().anoInicial(2021).build(), Agrupamento.MES, 0).getValor())
+			.extracting(TotalAnalise::getMes, TotalAnalise::getReceitas, TotalAnalise::getQuantidade)
+			.containsExactly(Assertions.tuple(2, Dinheiro.valueOf("500"), 1L));
+	}
+	
+	@Test
+	public void deveIdentificarAsColunasPelaVersaoERecarregarAsAtrasadas() {
+		//cenário
+		long carregada = service.somar(usuario.getId(), TODOS, 0).getVersao();
+		lancamentoService.salvar(criarLancamento(2021, 2, TipoLancamento.RECEITA, null, 500));
+		TransactionSynchronizationManager.getSynchronizations().forEach(sincronizacao -> {
+			sincronizacao.beforeCommit(false);
+			sincronizacao.afterCommit();
+		});
+		ResultadoAnalise<Dinheiro> aposGravar = service.somar(usuario.getId(), TODOS, versaoService.obterVersao(usuario.getId()));
+		
+		//gravação de outra instância: muda o banco e a versão, mas não estas colunas
+		repository.save(criarLancamento(2021, 3, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 700));
+		versaoService.incrementar(Collections.singleton(usuario.getId()));
+		long versaoDoBanco = versaoService.obterVersao(usuario.getId());
+		
+		//ação
+		ResultadoAnalise<Dinheiro> semVersaoMinima = service.somar(usuario.getId(), TODOS, aposGravar.getVersao());
+		ResultadoAnalise<Dinheiro> recarregada = service.somar(usuario.getId(), TODOS, versaoDoBanco);
+		
+		//verificação
+		Assertions.assertThat(carregada).isEqualTo(0);
+		Assertions.assertThat(aposGravar.getVersao()).isEqualTo(1);
+		Assertions.assertThat(aposGravar.getValor()).isEqualTo(Dinheiro.valueOf("2324"));
+		Assertions.assertThat(semVersaoMinima).isEqualTo(aposGravar);
+		Assertions.assertThat(recarregada.getVersao()).isEqualTo(versaoDoBanco);
+		Assertions.assertThat(recarregada.getValor()).isEqualTo(Dinheiro.valueOf("3024"));
+	}
+	
+	private Lancamento criarLancamento(int ano, int mes, TipoLancamento tipo, StatusLancamento status, int valor) {
+		return Lancamento.builder()
+				.ano(ano).mes(mes)
+				.descricao("Lancamento " + mes + "/" + ano)
+				.valor(Dinheiro.deCentavos(valor * 100L))
+				.tipo(tipo)
+				.status(status)
+				.dataCadastro(LocalDate.now())
+				.usuario(usuario)
+				.build();
+	}
+}
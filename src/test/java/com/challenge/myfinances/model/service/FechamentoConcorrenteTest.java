@@ -0,0 +1,102 @@
+package com.challenge.myfinances.model.service;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.challenge.myfinances.model.entity.Usuario;
+import com.challenge.myfinances.model.exception.BusinessRuleException;
+import com.challenge.myfinances.model.repository.FechamentoRepository;
+import com.challenge.myfinances.model.repository.FechamentoTotalRepository;
+import com.challenge.myfinances.model.repository.UsuarioRepository;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@SpringBootTest
+public class FechamentoConcorrenteTest {
+	
+	@Autowired
+	FechamentoService service;
+	
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	
+	@Autowired
+	FechamentoRepository repository;
+	
+	@Autowired
+	FechamentoTotalRepository totalRepository;
+	
+	@Autowired
+	TransactionTemplate transacao;
+	
+	Usuario usuario;
+	
+	@Before
+	public void setUp() {
+		usuario = usuarioRepository.save(Usuario.builder().nome("concorrente").email("fechamento.concorrente@email.com").senha("senha").build());
+	}
+	
+	@After
+	public void tearDown() {
+		transacao.execute(status -> totalRepository.removerAPartirDe(usuario.getId(), 0, 0));
+		repository.findById(usuario.getId()).ifPresent(repository::delete);
+		usuarioRepository.delete(usuario);
+	}
+	
+	@Test
+	public void deveFecharSomenteDepoisDaGravacaoEmAndamento() throws Exception {
+		//cenário: uma gravação já validou o período e ainda não terminou
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		CountDownLatch validado = new CountDownLatch(1);
+		AtomicLong fimDaGravacao = new AtomicLong();
+		
+		try {
+			Future<?> gravacao = executor.submit(() -> transacao.execute(status -> {
+				service.validarPeriodoAberto(usuario.getId(), 2020, 1);
+				validado.countDown();
+				dormir(300);
+				fimDaGravacao.set(System.nanoTime());
+				return null;
+			}));
+			validado.await(5, TimeUnit.SECONDS);
+			
+			//ação
+			service.fechar(usuario.getId(), 2020, 1);
+			long fimDoFechamento = System.nanoTime();
+			gravacao.get();
+			
+			//verificação: o fechamento esperou a gravação, e as seguintes enxergam o mês fechado
+			Assertions.assertThat(fimDoFechamento).isGreaterThan(fimDaGravacao.get());
+			Throwable erro = Assertions.catchThrowable(() -> transacao.execute(status -> {
+				service.validarPeriodoAberto(usuario.getId(), 2020, 1);
+				return null;
+			}));
+			Assertions.assertThat(erro).isInstanceOf(BusinessRuleException.class);
+		}finally {
+			executor.shutdown();
+		}
+	}
+	
+	private static void dormir(long milissegundos) {
+		try {
+			Thread.sleep(milissegundos);
+		}catch(InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,173 @@
+package com.challenge.myfinances.model.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.challenge.myfinances.model.entity.Dinheiro;
+import com.challenge.myfinances.model.entity.Lancamento;
+import com.challenge.myfinances.model.entity.Usuario;
+import com.challenge.myfinances.model.enumeration.StatusLancamento;
+import com.challenge.myfinances.model.enumeration.TipoLancamento;
+import com.challenge.myfinances.model.exception.BusinessRuleException;
+import com.challenge.myfinances.model.repository.FechamentoTotalRepository;
+import com.challenge.myfinances.model.repository.LancamentoRepository;
+import com.challenge.myfinances.model.repository.UsuarioRepository;
+import com.challenge.myfinances.model.repository.projection.SaldoPeriodo;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@SpringBootTest
+@Transactional // -> cada teste é desfeito ao final
+public class FechamentoServiceTest {
+
+	@Autowired
+	FechamentoService service;
+	
+	@Autowired
+	LancamentoService lancamentoService;
+	
+	@Autowired
+	SaldoService saldoService;
+	
+	@Autowired
+	LancamentoRepository repository;
+	
+	@Autowired
+	FechamentoTotalRepository totalRepository;
+	
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	
+	Usuario usuario;
+	List<Lancamento> lancamentos;
+	
+	@Before
+	public void setUp() {
+		usuario = usuarioRepository.save(Usuario.builder().nome("fechamento").email("fechamento@email.com").senha("senha").build());
+		
+		lancamentos = new ArrayList<>();
+		for(int mes = 1; mes <= 6; mes++) {
+			lancamentos.add(criarLancamento(2020, mes, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 100 * mes));
+			lancamentos.add(criarLancamento(2020, mes, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, 10 * mes));
+			lancamentos.add(criarLancamento(2020, mes, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, mes));
+		}
+		lancamentos.add(criarLancamento(2021, 1, TipoLancamento.RECEITA, StatusLancamento.CANCELADO, 7));
+		lancamentos = repository.saveAll(lancamentos);
+		saldoService.recalcular(usuario.getId());
+	}
+	
+	@Test
+	public void deveObterOsMesmosSaldosCombinandoMesesFechadosEAbertos() {
+		//cenário
+		List<String> mensal = formatar(lancamentoService.obterSaldoMensal(usuario.getId(), 2020, 1, 2021, 12));
+		List<String> anual = formatar(lancamentoService.obterSaldoAnual(usuario.getId(), 2020, 2021));
+		Dinheiro saldo = saldoService.recalcular(usuario.getId());
+		
+		//ação
+		service.fechar(usuario.getId(), 2020, 4);
+		
+		//verificação
+		Assertions.assertThat(totalRepository.count()).isEqualTo(12);
+		Assertions.assertThat(service.obterFechadoAte(usuario.getId())).isEqualTo(202004);
+		Assertions.assertThat(formatar(lancamentoService.obterSaldoMensal(usuario.getId(), 2020, 1, 2021, 12)))
+			.containsExactlyElementsOf(mensal);
+		Assertions.assertThat(formatar(lancamentoService.obterSaldoAnual(usuario.getId(), 2020, 2021)))
+			.containsExactlyElementsOf(anual);
+		Assertions.assertThat(saldoService.recalcular(usuario.getId())).isEqualByComparingTo(saldo);
+	}
+	
+	@Test
+	public void deveRejeitarAlteracoesEmPeriodoFechado() {
+		//cenário
+		service.fechar(usuario.getId(), 2020, 4);
+		Lancamento marco = lancamentoService.obterPorId(lancamentos.get(6).getId());
+		
+		//ação
+		marco.setValor(Dinheiro.valueOf("1"));
+		Throwable atualizacao = Assertions.catchThrowable(() -> lancamentoService.atualizar(marco));
+		Throwable inclusao = Assertions.catchThrowable(
+				() -> lancamentoService.salvar(criarLancamento(2020, 2, TipoLancamento.RECEITA, null, 1)));
+		Throwable status = Assertions.catchThrowable(
+				() -> lancamentoService.atualizarStatus(lancamentos.get(2).getId(), null, StatusLancamento.CANCELADO));
+		
+		//verificação
+		Assertions.assertThat(atualizacao)
+			.isInstanceOf(BusinessRuleException.class)
+			.hasMessage("O período 03/2020 está fechado, reabra-o para alterar seus lançamentos");
+		Assertions.assertThat(inclusao).isInstanceOf(BusinessRuleException.class);
+		Assertions.assertThat(status).isInstanceOf(BusinessRuleException.class);
+	}
+	
+	@Test
+	public void deveRecalcularOsTotaisAoFecharNovamenteUmPeriodoReaberto() {
+		//cenário
+		service.fechar(usuario.getId(), 2020, 4);
+		service.reabrir(usuario.getId(), 2020, 3);
+		
+		//ação
+		lancamentoService.salvar(criarLancamento(2020, 3, TipoLancamento.RECEITA, null, 1000));
+		Lancamento abril = lancamentoService.salvar(criarLancamento(2020, 4, TipoLancamento.RECEITA, null, 50));
+		lancamentoService.atualizarStatus(abril.getId(), null, StatusLancamento.EFETIVADO);
+		List<String> mensal = formatar(lancamentoService.obterSaldoMensal(usuario.getId(), 2020, 1, 2020, 12));
+		service.fechar(usuario.getId(), 2020, 5);
+		
+		//verificação
+		Assertions.assertThat(service.obterFechadoAte(usuario.getId())).isEqualTo(202005);
+		Assertions.assertThat(formatar(lancamentoService.obterSaldoMensal(usuario.getId(), 2020, 1, 2020, 12)))
+			.containsExactlyElementsOf(mensal)
+			.contains("2020/3 PENDENTE 1000.00 3.00");
+		Assertions.assertThat(saldoService.obterSaldo(usuario.getId()))
+			.isEqualByComparingTo(saldoService.recalcular(usuario.getId()));
+	}
+	
+	@Test
+	public void naoDeveFecharUmPeriodoJaFechadoOuEmAberto() {
+		//cenário
+		service.fechar(usuario.getId(), 2020, 4);
+		LocalDate hoje = LocalDate.now();
+		
+		//ação
+		Throwable repetido = Assertions.catchThrowable(() -> service.fechar(usuario.getId(), 2020, 2));
+		Throwable atual = Assertions.catchThrowable(
+				() -> service.fechar(usuario.getId(), hoje.getYear(), hoje.getMonthValue()));
+		
+		//verificação
+		Assertions.assertThat(repetido)
+			.isInstanceOf(BusinessRuleException.class)
+			.hasMessage("Período já fechado até 04/2020");
+		Assertions.assertThat(atual)
+			.isInstanceOf(BusinessRuleException.class)
+			.hasMessage("Apenas meses encerrados podem ser fechados");
+	}
+	
+	private Lancamento criarLancamento(int ano, int mes, TipoLancamento tipo, StatusLancamento status, int valor) {
+		return Lancamento.builder()
+				.ano(ano).mes(mes)
+				.descricao("Lancamento " + mes + "/" + ano)
+				.valor(Dinheiro.deCentavos(valor * 100L))
+				.tipo(tipo)
+				.status(status)
+				.dataCadastro(LocalDate.now())
+				.usuario(usuario)
+				.build();
+	}
+	
+	private static List<String> formatar(List<SaldoPeriodo> saldos) {
+		return saldos.stream()
+				.map(saldo -> saldo.getAno() + (saldo.getMes() == null ? "" : "/" + saldo.getMes()) + " " 
+						+ saldo.getStatus() + " " + saldo.getReceitas() + " " + saldo.getDespesas())
+				.collect(Collectors.toList());
+	}
+}
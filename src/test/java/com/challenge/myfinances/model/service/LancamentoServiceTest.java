@@ -1,8 +1,9 @@
 package com.challenge.myfinances.model.service;
 
-import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.assertj.core.api.Assertions;
@@ -11,17 +12,24 @@ import org.junit.runner.RunWith;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
-import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import com.challenge.myfinances.model.entity.Dinheiro;
 import com.challenge.myfinances.model.entity.Lancamento;
 import com.challenge.myfinances.model.entity.Usuario;
+import com.challenge.myfinances.model.enumeration.ResultadoAtualizacao;
 import com.challenge.myfinances.model.enumeration.StatusLancamento;
 import com.challenge.myfinances.model.enumeration.TipoLancamento;
+import com.challenge.myfinances.model.enumeration.TipoSerie;
 import com.challenge.myfinances.model.exception.BusinessRuleException;
+import com.challenge.myfinances.model.exception.ConflitoVersaoException;
 import com.challenge.myfinances.model.repository.LancamentoRepository;
 import com.challenge.myfinances.model.repository.LancamentoRepositoryTest;
+import com.challenge.myfinances.model.repository.projection.LancamentoResumo;
 import com.challenge.myfinances.model.service.implementation.LancamentoServiceImpl;
 
 @RunWith(SpringRunner.class)
@@ -34,6 +42,15 @@ public class LancamentoServiceTest {
 	@MockBean
 	LancamentoRepository repository;
 	
+	@MockBean
+	SaldoService saldoService;
+	
+	@MockBean
+	FechamentoService fechamentoService;
+	
+	@MockBean
+	AnaliseService analiseService;
+	
 	@Test
 	public void deveSalvarUmLancamento() {
 		//cenário
@@ -71,6 +88,92 @@ public class LancamentoServiceTest {
 		Mockito.verify(repository, Mockito.never()).save(salvarLancamento);
 	}
 	
+	@Test
+	public void deveSalvarLancamentosEmLoteComoPendentes() {
+		//cenário
+		Lancamento primeiro = LancamentoRepositoryTest.criarLancamento();
+		Lancamento segundo = LancamentoRepositoryTest.criarLancamento();
+		segundo.setStatus(StatusLancamento.EFETIVADO);
+		List<Lancamento> lote = Arrays.asList(primeiro, segundo);
+		
+		Mockito.doNothing().when(service).validar(Mockito.any(Lancamento.class));
+		Mockito.when(repository.inserirEmLote(lote)).thenReturn(lote);
+		
+		//ação
+		List<Lancamento> salvos = service.salvarEmLote(lote);
+		
+		//verificação
+		Assertions.assertThat(salvos).extracting(Lancamento::getStatus)
+			.containsOnly(StatusLancamento.PENDENTE);
+		Mockito.verify(repository).inserirEmLote(lote);
+	}
+	
+	@Test
+	public void deveGerarAsParcelasDaSerieComOsCentavosRestantesNasPrimeiras() {
+		//cenário
+		Lancamento modelo = LancamentoRepositoryTest.criarLancamento();
+		modelo.setAno(2020);
+		modelo.setMes(11);
+		modelo.setValor(Dinheiro.valueOf("100"));
+		modelo.setUsuario(Usuario.builder().id(1L).build());
+		
+		Mockito.when(repository.proximaSerie()).thenReturn(7L);
+		Mockito.when(repository.inserirEmLote(Mockito.anyList())).then(invocacao -> invocacao.getArgument(0));
+		
+		//ação
+		List<Lancamento> parcelas = service.salvarSerie(modelo, 3, TipoSerie.PARCELADA);
+		
+		//verificação
+		Assertions.assertThat(parcelas)
+			.extracting(Lancamento::getAno, Lancamento::getMes, Lancamento::getValor, Lancamento::getParcela)
+			.containsExactly(
+				Assertions.tuple(2020, 11, Dinheiro.valueOf("33.34"), 1),
+				Assertions.tuple(2020, 12, Dinheiro.valueOf("33.33"), 2),
+				Assertions.tuple(2021, 1, Dinheiro.valueOf("33.33"), 3));
+		Assertions.assertThat(parcelas).extracting(Lancamento::getSerie, Lancamento::getStatus)
+			.containsOnly(Assertions.tuple(7L, StatusLancamento.PENDENTE));
+		Mockito.verify(service).validar(modelo);
+		Mockito.verify(fechamentoService).validarPeriodoAberto(1L, 2020, 11);
+		Mockito.verify(repository).inserirEmLote(Mockito.anyList());
+	}
+	
+	@Test
+	public void naoDeveGerarSerieComQuantidadeInvalida() {
+		//cenário
+		Lancamento modelo = LancamentoRepositoryTest.criarLancamento();
+		modelo.setUsuario(Usuario.builder().id(1L).build());
+		
+		//ação
+		Throwable erro = Assertions.catchThrowable(() -> service.salvarSerie(modelo, 1000, TipoSerie.RECORRENTE));
+		
+		//verificação
+		Assertions.assertThat(erro)
+			.isInstanceOf(BusinessRuleException.class)
+			.hasMessage("Informe uma quantidade entre 2 e 360");
+		Mockito.verify(repository, Mockito.never()).inserirEmLote(Mockito.anyList());
+	}
+	
+	@Test
+	public void naoDeveSalvarNenhumLancamentoDoLoteQuandoUmForInvalido() {
+		//cenário
+		Lancamento valido = LancamentoRepositoryTest.criarLancamento();
+		Lancamento invalido = LancamentoRepositoryTest.criarLancamento();
+		invalido.setMes(13);
+		List<Lancamento> lote = Arrays.asList(valido, invalido);
+		
+		Mockito.doNothing().when(service).validar(valido);
+		Mockito.doThrow(new BusinessRuleException("Informe um Mês válido")).when(service).validar(invalido);
+		
+		//ação
+		Throwable erro = Assertions.catchThrowable(() -> service.salvarEmLote(lote));
+		
+		//verificação
+		Assertions.assertThat(erro)
+			.isInstanceOf(BusinessRuleException.class)
+			.hasMessage("Lançamento 2: Informe um Mês válido");
+		Mockito.verify(repository, Mockito.never()).inserirEmLote(Mockito.anyList());
+	}
+	
 	@Test
 	public void deveAtualizarUmLancamento() {
 		//cenário
@@ -136,7 +239,7 @@ public class LancamentoServiceTest {
 		lancamento.setId(1L);
 		
 		List<Lancamento> lista = Arrays.asList(lancamento);
-		Mockito.when(repository.findAll(Mockito.any( Example.class ) ) ).thenReturn(lista);
+		Mockito.when(repository.findAll(Mockito.any( Specification.class ), Mockito.any( Sort.class ) ) ).thenReturn(lista);
 		
 		//execução
 		List<Lancamento> resultado = service.buscar(lancamento);
@@ -144,6 +247,21 @@ public class LancamentoServiceTest {
 		Assertions.assertThat(resultado).isNotEmpty().hasSize(1).contains(lancamento);
 	}
 	
+	@Test
+	public void deveLimitarOTamanhoDaPaginaEIndicarAProxima() {
+		//cenário
+		Lancamento filtro = new Lancamento();
+		List<LancamentoResumo> encontrados = Arrays.asList(new LancamentoResumo[501]);
+		Mockito.when(repository.buscarResumos(Mockito.any(), Mockito.isNull(), Mockito.eq(501))).thenReturn(encontrados);
+		
+		//execução
+		Slice<LancamentoResumo> pagina = service.buscarPagina(filtro, null, 10_000);
+		
+		//verificação
+		Assertions.assertThat(pagina.getContent()).hasSize(500);
+		Assertions.assertThat(pagina.hasNext()).isTrue();
+	}
+	
 	@Test
 	public void deveAtualizarOStatusDeUmLancamento() {
 		//cenário
@@ -164,6 +282,41 @@ public class LancamentoServiceTest {
 		
 	}
 	
+	@Test
+	public void deveAtualizarOStatusNaVersaoSemReler() {
+		//cenário
+		LancamentoResumo atual = new LancamentoResumo(1L, "a", 1, 2020, Dinheiro.valueOf("10"), 
+				TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 9L, null, null, 3L);
+		Mockito.when(repository.obterResumo(1L)).thenReturn(Optional.of(atual));
+		Mockito.when(repository.atualizarStatusNaVersao(1L, 3L, StatusLancamento.EFETIVADO)).thenReturn(1);
+		
+		//ação
+		LancamentoResumo atualizado = service.atualizarStatus(1L, 3L, StatusLancamento.EFETIVADO);
+		
+		//verificação
+		Assertions.assertThat(atualizado.getStatus()).isEqualTo(StatusLancamento.EFETIVADO);
+		Assertions.assertThat(atualizado.getVersao()).isEqualTo(4L);
+		Mockito.verify(repository, Mockito.times(1)).obterResumo(1L);
+		Mockito.verify(saldoService).registrarAlteracao(Mockito.any(Lancamento.class), Mockito.any(Lancamento.class));
+	}
+	
+	@Test
+	public void deveLancarConflitoAoAtualizarOStatusEmVersaoDesatualizada() {
+		//cenário
+		LancamentoResumo atual = new LancamentoResumo(1L, "a", 1, 2020, Dinheiro.valueOf("10"), 
+				TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 9L, null, null, 4L);
+		Mockito.when(repository.obterResumo(1L)).thenReturn(Optional.of(atual));
+		
+		//ação
+		Throwable exception = Assertions.catchThrowable(
+				() -> service.atualizarStatus(1L, 3L, StatusLancamento.EFETIVADO));
+		
+		//verificação
+		Assertions.assertThat(exception).isInstanceOf(ConflitoVersaoException.class);
+		Mockito.verify(repository, Mockito.never()).atualizarStatusNaVersao(Mockito.any(), Mockito.any(), Mockito.any());
+		Mockito.verifyZeroInteractions(saldoService);
+	}
+	
 	@Test(expected = Test.None.class)
 	public void deveObterUmLancamentoPorId() {
 		//cenário
@@ -291,7 +444,7 @@ public class LancamentoServiceTest {
 		.hasMessage("Informe um valor Válido");
 		
 		//cenário 5.1 -> Lançamento com valor zero
-		lancamento.setValor(BigDecimal.ZERO);
+		lancamento.setValor(Dinheiro.ZERO);
 		//Ação
 		erro = Assertions.catchThrowable( () -> service.validar(lancamento));
 		//Verificação
@@ -300,7 +453,7 @@ public class LancamentoServiceTest {
 		.hasMessage("Informe um valor Válido");
 		
 		//cenário 6 -> Lancamento com Tipo nulo
-		lancamento.setValor(BigDecimal.valueOf(200L));
+		lancamento.setValor(Dinheiro.valueOf("200"));
 		//Ação
 		erro = Assertions.catchThrowable( () -> service.validar(lancamento));
 		//Verificação
@@ -309,4 +462,114 @@ public class LancamentoServiceTest {
 		.hasMessage("Informe um tipo de lancamento");
 	}
 	
+	@Test
+	public void deveAtualizarStatusEmLoteAgrupandoPeloStatusAnterior() {
+		//cenário
+		List<LancamentoResumo> atuais = Arrays.asList(
+				new LancamentoResumo(1L, "a", 1, 2020, Dinheiro.valueOf("10"), TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 9L, null, null, 0L),
+				new LancamentoResumo(2L, "b", 1, 2020, Dinheiro.valueOf("10"), TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 9L, null, null, 0L),
+				new LancamentoResumo(3L, "c", 1, 2020, Dinheiro.valueOf("10"), TipoLancamento.DESPESA, StatusLancamento.CANCELADO, 9L, null, null, 0L));
+		Mockito.when(repository.bloquearResumos(Mockito.any(), Mockito.isNull())).thenReturn(atuais);
+		Mockito.when(repository.atualizarStatus(Mockito.anyCollection(), Mockito.any(), Mockito.any())).thenReturn(1);
+		
+		//ação
+		Map<Long, ResultadoAtualizacao> resultados = service.atualizarStatusEmLote(
+				new Lancamento(), Arrays.asList(1L, 2L, 3L, 4L), StatusLancamento.EFETIVADO);
+		
+		//verificação
+		Assertions.assertThat(resultados).containsExactly(
+				Assertions.entry(1L, ResultadoAtualizacao.ATUALIZADO),
+				Assertions.entry(2L, ResultadoAtualizacao.INALTERADO),
+				Assertions.entry(3L, ResultadoAtualizacao.ATUALIZADO),
+				Assertions.entry(4L, ResultadoAtualizacao.NAO_ENCONTRADO));
+		Mockito.verify(repository).atualizarStatus(Arrays.asList(1L), StatusLancamento.PENDENTE, StatusLancamento.EFETIVADO);
+		Mockito.verify(repository).atualizarStatus(Arrays.asList(3L), StatusLancamento.CANCELADO, StatusLancamento.EFETIVADO);
+		Mockito.verify(saldoService).registrarAlteracoes(Mockito.argThat(anteriores -> anteriores.size() == 2), 
+				Mockito.argThat(atualizados -> atualizados.stream().allMatch(l -> l.getStatus() == StatusLancamento.EFETIVADO)));
+	}
+	
+	@Test
+	public void deveDesfazerStatusEmLoteQuandoOutraOperacaoAlterouOLancamento() {
+		//cenário
+		List<LancamentoResumo> atuais = Arrays.asList(
+				new LancamentoResumo(1L, "a", 1, 2020, Dinheiro.valueOf("10"), TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 9L, null, null, 0L));
+		Mockito.when(repository.bloquearResumos(Mockito.any(), Mockito.isNull())).thenReturn(atuais);
+		Mockito.when(repository.atualizarStatus(Mockito.anyCollection(), Mockito.any(), Mockito.any())).thenReturn(0);
+		
+		//ação
+		Throwable exception = Assertions.catchThrowable(() -> service.atualizarStatusEmLote(
+				new Lancamento(), Arrays.asList(1L), StatusLancamento.EFETIVADO));
+		
+		//verificação
+		Assertions.assertThat(exception).isInstanceOf(BusinessRuleException.class);
+		Mockito.verify(saldoService, Mockito.never()).registrarAlteracoes(Mockito.any(), Mockito.any());
+	}
+	
+	@Test
+	public void naoDeveAtualizarStatusEmLoteSemIdsNemUsuario() {
+		//ação
+		Throwable exception = Assertions.catchThrowable(() -> service.atualizarStatusEmLote(
+				new Lancamento(), null, StatusLancamento.EFETIVADO));
+		
+		//verificação
+		Assertions.assertThat(exception)
+			.isInstanceOf(BusinessRuleException.class)
+			.hasMessage("Informe os lançamentos, um usuário ou uma série");
+	}
+	
+	@Test
+	public void naoDeveSalvarLancamentoEmPeriodoFechado() {
+		//cenário
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(Usuario.builder().id(1L).build());
+		Mockito.doThrow(BusinessRuleException.class).when(fechamentoService).validarPeriodoAberto(1L, 2019, 1);
+		
+		//ação
+		Throwable exception = Assertions.catchThrowable(() -> service.salvar(lancamento));
+		
+		//verificação
+		Assertions.assertThat(exception).isInstanceOf(BusinessRuleException.class);
+		Mockito.verify(repository, Mockito.never()).save(lancamento);
+	}
+	
+	@Test
+	public void naoDeveAtualizarStatusEmLoteDeLancamentosEmPeriodoFechado() {
+		//cenário
+		List<LancamentoResumo> atuais = Arrays.asList(
+				new LancamentoResumo(1L, "a", 1, 2020, Dinheiro.valueOf("10"), TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 9L, null, null, 0L),
+				new LancamentoResumo(2L, "b", 2, 2020, Dinheiro.valueOf("10"), TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 9L, null, null, 0L));
+		Mockito.when(repository.bloquearResumos(Mockito.any(), Mockito.isNull())).thenReturn(atuais);
+		Mockito.when(repository.atualizarStatus(Mockito.anyCollection(), Mockito.any(), Mockito.any())).thenReturn(1);
+		Mockito.when(fechamentoService.obterFechadoAte(9L)).thenReturn(202001);
+		
+		//ação
+		Map<Long, ResultadoAtualizacao> resultados = service.atualizarStatusEmLote(
+				new Lancamento(), Arrays.asList(1L, 2L), StatusLancamento.EFETIVADO);
+		
+		//verificação
+		Assertions.assertThat(resultados).containsExactly(
+				Assertions.entry(1L, ResultadoAtualizacao.PERIODO_FECHADO),
+				Assertions.entry(2L, ResultadoAtualizacao.ATUALIZADO));
+		Mockito.verify(repository).atualizarStatus(Arrays.asList(2L), StatusLancamento.PENDENTE, StatusLancamento.EFETIVADO);
+	}
+	
+	@Test
+	public void deveEstornarASerieComOEstadoDasOcorrenciasBloqueadas() {
+		//cenário
+		List<LancamentoResumo> ocorrencias = Arrays.asList(
+				new LancamentoResumo(1L, "a", 1, 2020, Dinheiro.valueOf("10"), TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, 9L, null, null, 0L),
+				new LancamentoResumo(2L, "a", 2, 2020, Dinheiro.valueOf("15"), TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, 9L, null, null, 1L));
+		Mockito.when(repository.bloquearResumos(Mockito.any(), Mockito.isNull())).thenReturn(ocorrencias);
+		
+		//ação
+		int excluidas = service.deletarSerie(7L, 9L);
+		
+		//verificação
+		Assertions.assertThat(excluidas).isEqualTo(2);
+		Mockito.verify(repository, Mockito.never()).buscarResumos(Mockito.any(), Mockito.any(), Mockito.any());
+		Mockito.verify(repository).excluir(Arrays.asList(1L, 2L));
+		Mockito.verify(saldoService).registrarAlteracoes(Mockito.argThat(anteriores -> anteriores.stream()
+				.map(Lancamento::getValor).reduce(Dinheiro.ZERO, Dinheiro::somar).equals(Dinheiro.valueOf("25"))), 
+				Mockito.eq(Collections.emptyList()));
+	}
 }
@@ -0,0 +1,102 @@
+package com.challenge.myfinances.model.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.challenge.myfinances.model.entity.Usuario;
+import com.challenge.myfinances.model.repository.SaldoUsuarioRepository;
+import com.challenge.myfinances.model.repository.UsuarioRepository;
+import com.challenge.myfinances.model.repository.VersaoUsuarioRepository;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@SpringBootTest
+public class PrimeiraGravacaoConcorrenteTest {
+	
+	static final int GRAVACOES = 8;
+	
+	@Autowired
+	VersaoUsuarioService versaoService;
+	
+	@Autowired
+	SaldoService saldoService;
+	
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	
+	@Autowired
+	VersaoUsuarioRepository versaoRepository;
+	
+	@Autowired
+	SaldoUsuarioRepository saldoRepository;
+	
+	Usuario usuario;
+	
+	@Before
+	public void setUp() {
+		usuario = usuarioRepository.save(Usuario.builder().nome("concorrente").email("concorrente@email.com").senha("senha").build());
+	}
+	
+	@After
+	public void tearDown() {
+		saldoRepository.findById(usuario.getId()).ifPresent(saldoRepository::delete);
+		versaoRepository.findById(usuario.getId()).ifPresent(versaoRepository::delete);
+		usuarioRepository.delete(usuario);
+	}
+	
+	@Test
+	public void deveCriarAVersaoUmaVezSobPrimeirasGravacoesConcorrentes() throws Exception {
+		//ação
+		executarAoMesmoTempo(() -> versaoService.incrementar(Collections.singleton(usuario.getId())));
+		
+		//verificação: nenhuma gravação falhou e cada uma mudou a versão
+		Assertions.assertThat(versaoService.obterVersao(usuario.getId())).isGreaterThanOrEqualTo(GRAVACOES);
+	}
+	
+	@Test
+	public void deveCriarOSaldoUmaVezSobPrimeirasGravacoesConcorrentes() throws Exception {
+		//ação
+		executarAoMesmoTempo(() -> saldoService.recalcular(usuario.getId()));
+		
+		//verificação
+		Assertions.assertThat(saldoRepository.findById(usuario.getId())).isPresent();
+	}
+	
+	private void executarAoMesmoTempo(Runnable gravacao) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(GRAVACOES);
+		CountDownLatch largada = new CountDownLatch(1);
+		List<Callable<Void>> tarefas = new ArrayList<>();
+		for(int i = 0; i < GRAVACOES; i++)
+			tarefas.add(() -> {
+				largada.await();
+				gravacao.run();
+				return null;
+			});
+		
+		try {
+			List<Future<Void>> resultados = new ArrayList<>();
+			tarefas.forEach(tarefa -> resultados.add(executor.submit(tarefa)));
+			largada.countDown();
+			for(Future<Void> resultado : resultados)
+				resultado.get();
+		}finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,170 @@
+package com.challenge.myfinances.model.service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.challenge.myfinances.model.entity.Dinheiro;
+import com.challenge.myfinances.model.entity.Lancamento;
+import com.challenge.myfinances.model.entity.SaldoUsuario;
+import com.challenge.myfinances.model.entity.Usuario;
+import com.challenge.myfinances.model.enumeration.StatusLancamento;
+import com.challenge.myfinances.model.enumeration.TipoLancamento;
+import com.challenge.myfinances.model.repository.LancamentoRepository;
+import com.challenge.myfinances.model.repository.LancamentoRepositoryTest;
+import com.challenge.myfinances.model.repository.SaldoUsuarioRepository;
+import com.challenge.myfinances.model.repository.UsuarioRepository;
+import com.challenge.myfinances.model.service.implementation.SaldoServiceImpl;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+public class SaldoServiceTest {
+	
+	@SpyBean
+	SaldoServiceImpl service;
+	
+	@MockBean
+	SaldoUsuarioRepository repository;
+	
+	@MockBean
+	LancamentoRepository lancamentoRepository;
+	
+	@MockBean
+	FechamentoService fechamentoService;
+	
+	@MockBean
+	VersaoUsuarioService versaoService;
+	
+	@MockBean
+	UsuarioRepository usuarioRepository;
+	
+	@Test
+	public void naoDeveAlterarSaldoQuandoLancamentoNaoEstaEfetivado() {
+		//cenário
+		Lancamento lancamento = criarLancamento(StatusLancamento.PENDENTE, TipoLancamento.RECEITA, 100);
+		
+		//ação
+		service.registrarAlteracao(null, lancamento);
+		
+		//verificação
+		Mockito.verifyZeroInteractions(repository);
+	}
+	
+	@Test
+	public void deveAcumularReceitaAoEfetivarUmLancamento() {
+		//cenário
+		Lancamento anterior = criarLancamento(StatusLancamento.PENDENTE, TipoLancamento.RECEITA, 100);
+		Lancamento atual = criarLancamento(StatusLancamento.EFETIVADO, TipoLancamento.RECEITA, 100);
+		Mockito.when(repository.acumular(Mockito.anyLong(), Mockito.any(), Mockito.any())).thenReturn(1);
+		
+		//ação
+		service.registrarAlteracao(anterior, atual);
+		
+		//verificação
+		Mockito.verify(repository).acumular(1L, Dinheiro.valueOf("100"), Dinheiro.ZERO);
+	}
+	
+	@Test
+	public void deveEstornarDespesaAoDeletarUmLancamentoEfetivado() {
+		//cenário
+		Lancamento lancamento = criarLancamento(StatusLancamento.EFETIVADO, TipoLancamento.DESPESA, 40);
+		Mockito.when(repository.acumular(Mockito.anyLong(), Mockito.any(), Mockito.any())).thenReturn(1);
+		
+		//ação
+		service.registrarAlteracao(lancamento, null);
+		
+		//verificação
+		Mockito.verify(repository).acumular(1L, Dinheiro.ZERO, Dinheiro.valueOf("-40"));
+	}
+	
+	@Test
+	public void deveAplicarSomenteADiferencaQuandoOValorMuda() {
+		//cenário
+		Lancamento anterior = criarLancamento(StatusLancamento.EFETIVADO, TipoLancamento.DESPESA, 40);
+		Lancamento atual = criarLancamento(StatusLancamento.EFETIVADO, TipoLancamento.DESPESA, 55);
+		Mockito.when(repository.acumular(Mockito.anyLong(), Mockito.any(), Mockito.any())).thenReturn(1);
+		
+		//ação
+		service.registrarAlteracao(anterior, atual);
+		
+		//verificação
+		Mockito.verify(repository).acumular(1L, Dinheiro.ZERO, Dinheiro.valueOf("15"));
+	}
+	
+	@Test
+	public void deveRecalcularQuandoUsuarioNaoPossuiSaldoMaterializado() {
+		//cenário
+		Lancamento lancamento = criarLancamento(StatusLancamento.EFETIVADO, TipoLancamento.RECEITA, 100);
+		Mockito.when(repository.acumular(Mockito.anyLong(), Mockito.any(), Mockito.any())).thenReturn(0);
+		Mockito.when(repository.findById(1L)).thenReturn(Optional.empty());
+		Mockito.when(lancamentoRepository.obterSaldoPorTipoLancamentoEUsuario(1L, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO))
+			.thenReturn(Dinheiro.valueOf("250"));
+		
+		//ação
+		service.registrarAlteracao(null, lancamento);
+		
+		//verificação: o usuário é bloqueado antes de criar o saldo
+		Mockito.verify(usuarioRepository).bloquear(Collections.singleton(1L));
+		ArgumentCaptor<SaldoUsuario> captor = ArgumentCaptor.forClass(SaldoUsuario.class);
+		Mockito.verify(repository).save(captor.capture());
+		Assertions.assertThat(captor.getValue().getReceitas()).isEqualByComparingTo(Dinheiro.valueOf("250"));
+		Assertions.assertThat(captor.getValue().getDespesas()).isEqualByComparingTo(Dinheiro.ZERO);
+	}
+	
+	@Test
+	public void deveObterSaldoMaterializadoSemConsultarLancamentos() {
+		//cenário
+		Mockito.when(repository.obterSaldo(1L)).thenReturn(Optional.of(Dinheiro.valueOf("70")));
+		
+		//ação
+		Dinheiro saldo = service.obterSaldo(1L);
+		
+		//verificação
+		Assertions.assertThat(saldo).isEqualByComparingTo(Dinheiro.valueOf("70"));
+		Mockito.verifyZeroInteractions(lancamentoRepository);
+	}
+	
+	@Test
+	public void deveRecalcularTodosOsSaldos() {
+		//cenário
+		Mockito.when(lancamentoRepository.obterTotaisPorUsuarioETipo(StatusLancamento.EFETIVADO))
+			.thenReturn(Arrays.asList(
+					new Object[] { 1L, TipoLancamento.RECEITA, Dinheiro.valueOf("300") },
+					new Object[] { 1L, TipoLancamento.DESPESA, Dinheiro.valueOf("120") }));
+		Mockito.when(repository.obterUsuarios()).thenReturn(Arrays.asList(1L, 2L));
+		
+		//ação
+		service.recalcularTodos();
+		
+		//verificação
+		Mockito.verify(repository).deleteAllInBatch();
+		Mockito.verify(repository).saveAll(Mockito.argThat(saldos -> {
+			SaldoUsuario saldo = saldos.iterator().next();
+			return saldo.getIdUsuario().equals(1L)
+					&& saldo.getReceitas().compareTo(Dinheiro.valueOf("300")) == 0
+					&& saldo.getDespesas().compareTo(Dinheiro.valueOf("120")) == 0;
+		}));
+		//o usuário 2 não tem mais saldo materializado, mas o ETag dele também muda
+		Mockito.verify(versaoService).incrementar(new HashSet<>(Arrays.asList(1L, 2L)));
+	}
+	
+	private Lancamento criarLancamento(StatusLancamento status, TipoLancamento tipo, long valor) {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(Usuario.builder().id(1L).build());
+		lancamento.setStatus(status);
+		lancamento.setTipo(tipo);
+		lancamento.setValor(Dinheiro.deCentavos(valor * 100L));
+		return lancamento;
+	}
+}
@@ -0,0 +1,62 @@
+package com.challenge.myfinances.model.service;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import com.challenge.myfinances.model.exception.ErroAutentificacaoException;
+import com.challenge.myfinances.model.service.implementation.TokenServiceImpl;
+
+public class TokenServiceTest {
+	
+	TokenService service = new TokenServiceImpl("segredo", 3600);
+	
+	@Test
+	public void deveObterOUsuarioDoTokenGerado() {
+		//ação
+		TokenAcesso token = service.gerar(7L);
+		
+		//verificação
+		Assertions.assertThat(service.obterIdUsuario(token.getToken())).isEqualTo(7L);
+	}
+	
+	@Test
+	public void deveRejeitarTokenAdulterado() {
+		//cenário
+		String token = service.gerar(7L).getToken();
+		String adulterado = "8" + token.substring(1);
+		
+		//ação
+		Throwable exception = Assertions.catchThrowable(() -> service.obterIdUsuario(adulterado));
+		
+		//verificação
+		Assertions.assertThat(exception)
+			.isInstanceOf(ErroAutentificacaoException.class)
+			.hasMessage("Token inválido");
+	}
+	
+	@Test
+	public void deveRejeitarTokenAssinadoComOutroSegredo() {
+		//cenário
+		String token = new TokenServiceImpl("outro-segredo", 3600).gerar(7L).getToken();
+		
+		//ação
+		Throwable exception = Assertions.catchThrowable(() -> service.obterIdUsuario(token));
+		
+		//verificação
+		Assertions.assertThat(exception).isInstanceOf(ErroAutentificacaoException.class);
+	}
+	
+	@Test
+	public void deveRejeitarTokenExpirado() {
+		//cenário
+		String token = new TokenServiceImpl("segredo", -1).gerar(7L).getToken();
+		
+		//ação
+		Throwable exception = Assertions.catchThrowable(() -> service.obterIdUsuario(token));
+		
+		//verificação
+		Assertions.assertThat(exception)
+			.isInstanceOf(ErroAutentificacaoException.class)
+			.hasMessage("Token expirado");
+	}
+}
@@ -3,6 +3,7 @@ package com.challenge.myfinances.model.service;
 import java.util.Optional;
 
 import org.assertj.core.api.Assertions;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
@@ -40,6 +41,11 @@ public class UsuarioServiceTest {
 	@MockBean
 	UsuarioRepository repository;
 	
+	@Before
+	public void setUp() {
+		service.limparCache();
+	}
+	
 	/*
 	 * Criando Mocks e Spy sem anotations
 	@Before
@@ -163,6 +169,93 @@ public class UsuarioServiceTest {
 	}
 	
 	
+	@Test
+	public void deveConsultarOUsuarioApenasNaPrimeiraReferencia() {
+		//cenário
+		Long id = 101L;
+		Mockito.when(repository.findById(id)).thenReturn(Optional.of(Usuario.builder().id(id).build()));
+		Mockito.when(repository.getOne(id)).thenReturn(Usuario.builder().id(id).build());
+		
+		//ação
+		service.obterReferencia(id);
+		Usuario referencia = service.obterReferencia(id);
+		
+		//verificação
+		Assertions.assertThat(referencia.getId()).isEqualTo(id);
+		Mockito.verify(repository, Mockito.times(1)).findById(id);
+	}
+	
+	@Test
+	public void deveLancarErroAoReferenciarUsuarioInexistente() {
+		//cenário
+		Mockito.when(repository.findById(Mockito.anyLong())).thenReturn(Optional.empty());
+		
+		//ação
+		Throwable exception = Assertions.catchThrowable(() -> service.obterReferencia(102L));
+		
+		//verificação
+		Assertions.assertThat(exception)
+			.isInstanceOf(BusinessRuleException.class)
+			.hasMessage("Usuário não encontrado");
+		Mockito.verify(repository, Mockito.never()).getOne(Mockito.anyLong());
+	}
+	
+	@Test
+	public void deveConsultarNovamenteOBancoAposDeletarOUsuario() {
+		//cenário
+		Long id = 103L;
+		Usuario usuario = criarUsuario();
+		usuario.setId(id);
+		Mockito.when(repository.findById(id)).thenReturn(Optional.of(usuario), Optional.empty());
+		Mockito.when(repository.findByEmail(usuario.getEmail())).thenReturn(Optional.of(usuario));
+		service.obterReferencia(id);
+		service.autenticar(usuario.getEmail(), usuario.getSenha());
+		
+		//ação
+		service.deletar(id);
+		Throwable exception = Assertions.catchThrowable(() -> service.obterReferencia(id));
+		service.autenticar(usuario.getEmail(), usuario.getSenha());
+		
+		//verificação
+		Assertions.assertThat(exception).isInstanceOf(BusinessRuleException.class);
+		Mockito.verify(repository).deleteById(id);
+		Mockito.verify(repository, Mockito.times(2)).findById(id);
+		Mockito.verify(repository, Mockito.times(2)).findByEmail(usuario.getEmail());
+	}
+	
+	@Test
+	public void deveAutenticarSemConsultarOBancoNovamente() {
+		//cenário
+		Usuario usuario = criarUsuario();
+		usuario.setId(1L);
+		Mockito.when(repository.findByEmail(usuario.getEmail())).thenReturn(Optional.of(usuario));
+		
+		//ação
+		service.autenticar(usuario.getEmail(), usuario.getSenha());
+		service.autenticar(usuario.getEmail(), usuario.getSenha());
+		
+		//verificação
+		Mockito.verify(repository, Mockito.times(1)).findByEmail(usuario.getEmail());
+		Assertions.assertThat(service.obterEstatisticasCache().get("porEmail").hitCount()).isEqualTo(1);
+	}
+	
+	@Test
+	public void deveInvalidarOCacheAoCadastrarUsuario() {
+		//cenário
+		Usuario usuario = criarUsuario();
+		usuario.setId(1L);
+		Mockito.when(repository.findById(1L)).thenReturn(Optional.of(usuario));
+		Mockito.when(repository.save(Mockito.any(Usuario.class))).thenReturn(usuario);
+		service.obterPorId(1L);
+		
+		//ação
+		service.cadastrar(criarUsuario());
+		service.obterPorId(1L);
+		
+		//verificação
+		Mockito.verify(repository, Mockito.times(2)).findById(1L);
+	}
+	
 	public static Usuario criarUsuario() {
 		Usuario usuario = new Usuario();
 		usuario.setNome("usuario");